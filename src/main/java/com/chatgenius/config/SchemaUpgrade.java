@@ -0,0 +1,49 @@
+package com.chatgenius.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// spring.sql.init is off and schema.sql recreates every table, so an existing database gets the columns,
+// tables and backfills added since it was created from schema-upgrade-postgresql.sql, before anything
+// else uses it. Other databases (H2 in tests) are built from the current schema and are left alone.
+@Slf4j
+@Component
+public class SchemaUpgrade {
+
+    private static final String RECOUNT_MESSAGES =
+        "UPDATE channels c SET message_count = (SELECT COUNT(*) FROM messages m WHERE m.channel_id = c.id)";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean messageCounterEnabled;
+
+    public SchemaUpgrade(DataSource dataSource,
+                         @Value("${chat.channel.message-counter.enabled:false}") boolean messageCounterEnabled) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.messageCounterEnabled = messageCounterEnabled;
+    }
+
+    @PostConstruct
+    public void upgrade() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+            connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+        new ResourceDatabasePopulator(new ClassPathResource("schema-upgrade-postgresql.sql")).execute(dataSource);
+        // The counter is not maintained while the flag is off, so it cannot be trusted when it is turned on
+        if (messageCounterEnabled) {
+            int channels = jdbcTemplate.update(RECOUNT_MESSAGES);
+            log.info("Recounted messages of {} channels", channels);
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package com.chatgenius.controller;
 
+import com.chatgenius.dto.response.RecentMessageCacheStatsResponse;
 import com.chatgenius.dto.response.UserResponse;
+import com.chatgenius.dto.response.WebSocketReaperStatsResponse;
+import com.chatgenius.dto.response.WebSocketSessionStatsResponse;
 import com.chatgenius.model.User;
+import com.chatgenius.service.RecentMessageCache;
 import com.chatgenius.service.UserService;
+import com.chatgenius.websocket.session.IdleSessionReaper;
+import com.chatgenius.websocket.session.WebSocketSender;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -18,10 +24,17 @@ import java.util.stream.Collectors;
 public class AdminController {
 
     private final UserService userService;
+    private final WebSocketSender webSocketSender;
+    private final IdleSessionReaper idleSessionReaper;
+    private final RecentMessageCache recentMessageCache;
 
     @Autowired
-    public AdminController(UserService userService) {
+    public AdminController(UserService userService, WebSocketSender webSocketSender, IdleSessionReaper idleSessionReaper,
+                           RecentMessageCache recentMessageCache) {
         this.userService = userService;
+        this.webSocketSender = webSocketSender;
+        this.idleSessionReaper = idleSessionReaper;
+        this.recentMessageCache = recentMessageCache;
     }
 
     @GetMapping("/users")
@@ -39,6 +52,21 @@ public class AdminController {
         return ResponseEntity.ok(UserResponse.fromUser(user));
     }
 
+    @GetMapping("/websocket/sessions")
+    public ResponseEntity<List<WebSocketSessionStatsResponse>> getWebSocketSessions() {
+        return ResponseEntity.ok(webSocketSender.getStats());
+    }
+
+    @GetMapping("/websocket/liveness")
+    public ResponseEntity<WebSocketReaperStatsResponse> getWebSocketLiveness() {
+        return ResponseEntity.ok(idleSessionReaper.getStats());
+    }
+
+    @GetMapping("/cache/recent-messages")
+    public ResponseEntity<RecentMessageCacheStatsResponse> getRecentMessageCacheStats() {
+        return ResponseEntity.ok(recentMessageCache.getStats());
+    }
+
     @DeleteMapping("/users/{id}")
     public ResponseEntity<Void> deleteUser(@PathVariable UUID id) {
         userService.deleteUser(id);
@@ -11,6 +11,7 @@ import com.chatgenius.model.enums.UserStatus;
 import com.chatgenius.service.TokenBlacklistService;
 import com.chatgenius.service.UserService;
 import com.chatgenius.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -190,8 +191,9 @@ public class AuthController {
             System.out.println("Old token received and parsed, length: " + oldToken.length());
             
             try {
-                // First try to extract username to catch malformed tokens early
-                String username = jwtUtil.extractUsername(oldToken);
+                // Parse and verify once to catch malformed tokens early; the claims are reused below
+                Claims claims = jwtUtil.parseAndVerify(oldToken);
+                String username = claims.getSubject();
                 System.out.println("Username extracted from token: " + username);
                 
                 // Then check blacklist
@@ -207,7 +209,7 @@ public class AuthController {
                 System.out.println("User details loaded: " + userDetails.getUsername());
                 System.out.println("User authorities: " + userDetails.getAuthorities());
 
-                if (jwtUtil.validateToken(oldToken, userDetails)) {
+                if (jwtUtil.validateClaims(claims, userDetails)) {
                     System.out.println("Old token validated successfully");
                     
                     // Generate new token before blacklisting old one
@@ -215,7 +217,7 @@ public class AuthController {
                     System.out.println("New token generated, length: " + newToken.length());
                     
                     // Blacklist the old token
-                    long oldTokenExpiration = jwtUtil.getExpirationTimeFromToken(oldToken);
+                    long oldTokenExpiration = jwtUtil.getRemainingMillis(claims);
                     tokenBlacklistService.blacklistToken(oldToken, oldTokenExpiration);
                     System.out.println("Old token blacklisted");
                     
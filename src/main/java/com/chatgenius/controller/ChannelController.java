@@ -1,10 +1,18 @@
 package com.chatgenius.controller;
 
 import com.chatgenius.dto.request.CreateChannelRequest;
+import com.chatgenius.dto.response.ChannelMemberResponse;
+import com.chatgenius.dto.response.ChannelSummaryResponse;
+import com.chatgenius.dto.response.UnreadCountResponse;
 import com.chatgenius.model.Channel;
 import com.chatgenius.service.ChannelService;
+import com.chatgenius.service.UserService;
+import com.chatgenius.service.read.ReadCursorService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -12,16 +20,30 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/channels")
 @RequiredArgsConstructor
 public class ChannelController {
     private final ChannelService channelService;
+    private final UserService userService;
+    private final ReadCursorService readCursorService;
 
     @GetMapping
-    public ResponseEntity<List<Channel>> getAllChannels() {
-        return ResponseEntity.ok(channelService.getAllChannels());
+    public ResponseEntity<Page<ChannelSummaryResponse>> getChannels(@PageableDefault(size = 50) Pageable pageable) {
+        return ResponseEntity.ok(channelService.getChannelSummaries(pageable)
+                .map(ChannelSummaryResponse::fromSummary));
+    }
+
+    // Unread counts of every channel the current user is in, for the sidebar
+    @GetMapping("/unread")
+    public ResponseEntity<List<UnreadCountResponse>> getUnreadCounts() {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        UUID userId = userService.findByUsername(username).getId();
+        return ResponseEntity.ok(readCursorService.getReadStates(userId).stream()
+                .map(UnreadCountResponse::fromState)
+                .collect(Collectors.toList()));
     }
 
     @PostMapping
@@ -43,6 +65,13 @@ public class ChannelController {
         return ResponseEntity.ok().build();
     }
 
+    @GetMapping("/{channelId}/members")
+    public ResponseEntity<Page<ChannelMemberResponse>> getMembers(@PathVariable UUID channelId,
+                                                                  @PageableDefault(size = 50) Pageable pageable) {
+        return ResponseEntity.ok(channelService.getChannelMembers(channelId, pageable)
+                .map(ChannelMemberResponse::fromSummary));
+    }
+
     @PostMapping("/{channelId}/members/{username}")
     public ResponseEntity<Void> addMember(@PathVariable UUID channelId, @PathVariable String username) {
         channelService.addMember(channelId, username);
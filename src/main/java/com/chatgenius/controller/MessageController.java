@@ -2,36 +2,64 @@ package com.chatgenius.controller;
 
 import com.chatgenius.dto.request.CreateMessageRequest;
 import com.chatgenius.dto.request.CreateReplyRequest;
+import com.chatgenius.dto.request.MessageCursor;
+import com.chatgenius.dto.response.MessageHistoryResponse;
+import com.chatgenius.dto.response.MessageImportResponse;
+import com.chatgenius.dto.response.MessageRangeResponse;
 import com.chatgenius.dto.response.MessageResponse;
+import com.chatgenius.dto.response.MessageSearchResponse;
+import com.chatgenius.dto.response.ThreadRepliesResponse;
+import com.chatgenius.dto.response.ThreadSummaryResponse;
 import com.chatgenius.model.Message;
 import com.chatgenius.model.enums.MessageType;
 import com.chatgenius.service.MessageService;
+import com.chatgenius.service.export.MessageExportService;
+import com.chatgenius.service.importer.MessageImportService;
+import com.chatgenius.service.thread.ThreadSummaryService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/messages")
 @Validated
 public class MessageController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
     private final MessageService messageService;
+    private final MessageExportService messageExportService;
+    private final MessageImportService messageImportService;
+    private final ThreadSummaryService threadSummaryService;
 
     @Autowired
-    public MessageController(MessageService messageService) {
+    public MessageController(MessageService messageService, MessageExportService messageExportService,
+                             MessageImportService messageImportService, ThreadSummaryService threadSummaryService) {
         this.messageService = messageService;
+        this.messageExportService = messageExportService;
+        this.messageImportService = messageImportService;
+        this.threadSummaryService = threadSummaryService;
     }
 
     @GetMapping
@@ -48,6 +76,90 @@ public class MessageController {
         return ResponseEntity.ok(new PageImpl<>(responses, pageable, messages.getTotalElements()));
     }
 
+    @GetMapping("/history")
+    public ResponseEntity<MessageHistoryResponse> getHistory(
+            @RequestParam UUID channelId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        MessageCursor beforeCursor = MessageCursor.decode(before);
+        MessageCursor afterCursor = MessageCursor.decode(after);
+        if (beforeCursor == null && afterCursor == null) {
+            return ResponseEntity.ok(MessageHistoryResponse.fromResponses(messageService.getLatestHistory(channelId, limit)));
+        }
+        Slice<Message> messages = messageService.getChannelHistory(
+            channelId,
+            beforeCursor,
+            afterCursor,
+            limit);
+        return ResponseEntity.ok(MessageHistoryResponse.fromSlice(messages));
+    }
+
+    // For clients that saw a broadcast's seq skip ahead, or are catching up after a reconnect
+    @GetMapping("/since")
+    public ResponseEntity<MessageRangeResponse> getMessagesSince(
+            @RequestParam UUID channelId,
+            @RequestParam long afterSeq,
+            @RequestParam(defaultValue = "50") int limit) {
+        // Range first, so lastSeq never trails the messages returned
+        Slice<Message> range = messageService.getMessagesSince(channelId, afterSeq, limit);
+        return ResponseEntity.ok(MessageRangeResponse.fromSlice(range, messageService.getLastSeq(channelId)));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Page<MessageSearchResponse>> searchMessages(
+            @RequestParam UUID channelId,
+            @RequestParam("q") String query,
+            @PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(messageService.searchMessages(channelId, query, pageable)
+                .map(MessageSearchResponse::fromHit));
+    }
+
+    // Whole channel history as NDJSON, oldest first, written as it is read from the database
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportMessages(
+            @RequestParam UUID channelId,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        messageExportService.requireChannel(channelId);
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                messageExportService.exportChannel(channelId, compressed);
+                compressed.finish();
+            } else {
+                messageExportService.exportChannel(channelId, out);
+            }
+        };
+        String filename = "channel-" + channelId + (gzip ? ".ndjson.gz" : ".ndjson");
+        return ResponseEntity.ok()
+                .contentType(gzip ? GZIP : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    // NDJSON of ImportMessageRequest; resend the same stream with the returned importId to resume
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MessageImportResponse> importMessages(
+            @RequestParam(required = false) String importId,
+            InputStream body) throws IOException {
+        return ResponseEntity.ok(messageImportService.importMessages(importId, body));
+    }
+
+    @GetMapping("/import/{importId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MessageImportResponse> getImport(@PathVariable String importId) {
+        return ResponseEntity.ok(messageImportService.getProgress(importId));
+    }
+
+    // Badges for the threads on screen; threads without replies are left out
+    @GetMapping("/threads")
+    public ResponseEntity<List<ThreadSummaryResponse>> getThreadSummaries(@RequestParam List<UUID> ids) {
+        return ResponseEntity.ok(threadSummaryService.getSummaries(ids).stream()
+                .map(ThreadSummaryResponse::fromSummary)
+                .collect(Collectors.toList()));
+    }
+
     @PostMapping
     public ResponseEntity<MessageResponse> createMessage(@Valid @RequestBody CreateMessageRequest request) {
         Message message = messageService.createMessage(request);
@@ -86,4 +198,18 @@ public class MessageController {
             request.getType());
         return ResponseEntity.ok(MessageResponse.fromMessage(reply));
     }
+
+    @GetMapping("/{id}/replies")
+    public ResponseEntity<ThreadRepliesResponse> getReplies(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(ThreadRepliesResponse.fromSlice(
+            messageService.getThreadReplies(id, MessageCursor.decode(after), limit)));
+    }
+
+    @GetMapping("/{id}/thread")
+    public ResponseEntity<ThreadSummaryResponse> getThreadSummary(@PathVariable UUID id) {
+        return ResponseEntity.ok(ThreadSummaryResponse.fromSummary(threadSummaryService.getSummary(id)));
+    }
 } 
\ No newline at end of file
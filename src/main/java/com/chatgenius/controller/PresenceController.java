@@ -1,11 +1,12 @@
 package com.chatgenius.controller;
 
-import com.chatgenius.service.UserService;
+import com.chatgenius.dto.response.PresenceResponse;
+import com.chatgenius.service.presence.PresenceService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Map;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -13,17 +14,16 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class PresenceController {
 
-    private final UserService userService;
+    private final PresenceService presenceService;
 
     @GetMapping("/channels/{channelId}/presence")
-    public ResponseEntity<?> getChannelPresence(@PathVariable UUID channelId) {
-        var onlineUsers = userService.getOnlineUsers(channelId);
-        return ResponseEntity.ok(onlineUsers);
+    public ResponseEntity<List<PresenceResponse>> getChannelPresence(@PathVariable UUID channelId) {
+        return ResponseEntity.ok(presenceService.getOnlineUsers(channelId));
     }
 
-    @GetMapping("/users/{userId}/status")
-    public ResponseEntity<?> getUserStatus(@PathVariable UUID userId) {
-        var status = userService.getUserStatus(userId);
-        return ResponseEntity.ok(Map.of("status", status));
+    // Live presence; /users/{id}/status on UserController is the stored profile status
+    @GetMapping("/users/{userId}/presence")
+    public ResponseEntity<PresenceResponse> getUserPresence(@PathVariable UUID userId) {
+        return ResponseEntity.ok(presenceService.getPresence(userId));
     }
 } 
\ No newline at end of file
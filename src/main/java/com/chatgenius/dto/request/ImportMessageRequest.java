@@ -0,0 +1,27 @@
+package com.chatgenius.dto.request;
+
+import com.chatgenius.model.enums.MessageType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+// One line of a bulk import stream. The channel is given by id or by name; users by username.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportMessageRequest {
+    private String content;
+    private String username;
+    private UUID channelId;
+    private String channel;
+    private MessageType type;
+    private UUID threadId;
+    private ZonedDateTime createdAt;
+    // Source system's message id; makes re-importing the same line a no-op
+    private String externalId;
+}
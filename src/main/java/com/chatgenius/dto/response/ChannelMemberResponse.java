@@ -0,0 +1,27 @@
+package com.chatgenius.dto.response;
+
+import com.chatgenius.model.enums.UserStatus;
+import com.chatgenius.repository.projection.MemberSummary;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+public class ChannelMemberResponse {
+    private UUID id;
+    private String username;
+    private UserStatus status;
+    private ZonedDateTime lastSeenAt;
+
+    public static ChannelMemberResponse fromSummary(MemberSummary summary) {
+        return ChannelMemberResponse.builder()
+            .id(summary.getId())
+            .username(summary.getUsername())
+            .status(summary.getStatus())
+            .lastSeenAt(summary.getLastSeenAt())
+            .build();
+    }
+}
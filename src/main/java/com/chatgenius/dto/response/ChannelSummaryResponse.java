@@ -0,0 +1,29 @@
+package com.chatgenius.dto.response;
+
+import com.chatgenius.model.enums.ChannelType;
+import com.chatgenius.repository.projection.ChannelSummary;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+public class ChannelSummaryResponse {
+    private UUID id;
+    private String name;
+    private ChannelType type;
+    private ZonedDateTime createdAt;
+    private long memberCount;
+
+    public static ChannelSummaryResponse fromSummary(ChannelSummary summary) {
+        return ChannelSummaryResponse.builder()
+            .id(summary.getId())
+            .name(summary.getName())
+            .type(summary.getType())
+            .createdAt(summary.getCreatedAt())
+            .memberCount(summary.getMemberCount())
+            .build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.chatgenius.dto.response;
+
+import com.chatgenius.dto.request.MessageCursor;
+import com.chatgenius.model.Message;
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+@Data
+@Builder
+public class MessageHistoryResponse {
+    // Newest first
+    private List<MessageResponse> messages;
+    private boolean hasMore;
+    // Pass as 'before' to page towards older messages
+    private String beforeCursor;
+    // Pass as 'after' to page towards newer messages
+    private String afterCursor;
+
+    public static MessageHistoryResponse fromSlice(Slice<Message> slice) {
+        return fromResponses(slice.map(MessageResponse::fromMessage));
+    }
+
+    public static MessageHistoryResponse fromResponses(Slice<MessageResponse> slice) {
+        List<MessageResponse> content = slice.getContent();
+        MessageHistoryResponseBuilder builder = MessageHistoryResponse.builder()
+                .messages(content)
+                .hasMore(slice.hasNext());
+        if (!content.isEmpty()) {
+            builder.afterCursor(MessageCursor.of(content.get(0)).encode())
+                   .beforeCursor(MessageCursor.of(content.get(content.size() - 1)).encode());
+        }
+        return builder.build();
+    }
+}
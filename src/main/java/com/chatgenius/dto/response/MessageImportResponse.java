@@ -0,0 +1,30 @@
+package com.chatgenius.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageImportResponse {
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private String importId;
+    private Status status;
+    // Input lines fully handled so far; a resumed import skips this many lines
+    private long processedLines;
+    private long imported;
+    private long duplicates;
+    private long failed;
+    private ZonedDateTime updatedAt;
+    // Line-level errors from the current run only
+    @Builder.Default
+    private List<String> errors = new ArrayList<>();
+}
@@ -0,0 +1,29 @@
+package com.chatgenius.dto.response;
+
+import com.chatgenius.model.Message;
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Data
+@Builder
+public class MessageRangeResponse {
+    // Ascending seq; deleted messages leave holes
+    private List<MessageResponse> messages;
+    private boolean hasMore;
+    // Highest committed seq of the channel when the range was read
+    private long lastSeq;
+
+    public static MessageRangeResponse fromSlice(Slice<Message> slice, long lastSeq) {
+        return MessageRangeResponse.builder()
+                .messages(slice.getContent().stream()
+                        .map(MessageResponse::fromMessage)
+                        .collect(Collectors.toList()))
+                .hasMore(slice.hasNext())
+                .lastSeq(lastSeq)
+                .build();
+    }
+}
@@ -9,7 +9,7 @@ import java.time.ZonedDateTime;
 import java.util.UUID;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class MessageResponse {
     private UUID id;
     private String content;
@@ -19,6 +19,7 @@ public class MessageResponse {
     private UUID threadId;
     private MessageType type;
     private ZonedDateTime createdAt;
+    private Long seq;
 
     public static MessageResponse fromMessage(Message message) {
         return MessageResponse.builder()
@@ -30,6 +31,7 @@ public class MessageResponse {
             .threadId(message.getThreadId())
             .type(message.getType())
             .createdAt(message.getCreatedAt())
+            .seq(message.getSeq())
             .build();
     }
 } 
\ No newline at end of file
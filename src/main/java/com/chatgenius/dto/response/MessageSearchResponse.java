@@ -0,0 +1,35 @@
+package com.chatgenius.dto.response;
+
+import com.chatgenius.repository.projection.MessageSearchHit;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+public class MessageSearchResponse {
+    private UUID id;
+    private UUID channelId;
+    private UUID userId;
+    private String username;
+    private UUID threadId;
+    private ZonedDateTime createdAt;
+    private double rank;
+    private String highlight;
+
+    public static MessageSearchResponse fromHit(MessageSearchHit hit) {
+        return MessageSearchResponse.builder()
+            .id(hit.getId())
+            .channelId(hit.getChannelId())
+            .userId(hit.getUserId())
+            .username(hit.getUsername())
+            .threadId(hit.getThreadId())
+            .createdAt(hit.getCreatedAt() != null ? hit.getCreatedAt().atZone(ZoneOffset.UTC) : null)
+            .rank(hit.getRank() != null ? hit.getRank() : 0)
+            .highlight(hit.getHighlight())
+            .build();
+    }
+}
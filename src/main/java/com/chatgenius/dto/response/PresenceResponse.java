@@ -0,0 +1,19 @@
+package com.chatgenius.dto.response;
+
+import com.chatgenius.model.enums.UserStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class PresenceResponse {
+    private UUID userId;
+    private String username;
+    private UserStatus status;
+
+    public static PresenceResponse offline(UUID userId) {
+        return new PresenceResponse(userId, null, UserStatus.OFFLINE);
+    }
+}
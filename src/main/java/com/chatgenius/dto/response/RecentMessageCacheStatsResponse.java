@@ -0,0 +1,18 @@
+package com.chatgenius.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class RecentMessageCacheStatsResponse {
+    private long channels;
+    private long messages;
+    // Estimated heap held by the rings, against the chat.message.recent-cache.max-bytes budget
+    private long usedBytes;
+    private long maxBytes;
+    // Newest-page history reads answered from memory versus sent to the database
+    private long hits;
+    private long misses;
+    private long evictions;
+}
@@ -0,0 +1,33 @@
+package com.chatgenius.dto.response;
+
+import com.chatgenius.dto.request.MessageCursor;
+import com.chatgenius.model.Message;
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Data
+@Builder
+public class ThreadRepliesResponse {
+    // Oldest first
+    private List<MessageResponse> replies;
+    private boolean hasMore;
+    // Pass as 'after' to fetch the next page
+    private String afterCursor;
+
+    public static ThreadRepliesResponse fromSlice(Slice<Message> slice) {
+        List<MessageResponse> replies = slice.getContent().stream()
+                .map(MessageResponse::fromMessage)
+                .collect(Collectors.toList());
+        ThreadRepliesResponseBuilder builder = ThreadRepliesResponse.builder()
+                .replies(replies)
+                .hasMore(slice.hasNext());
+        if (!replies.isEmpty()) {
+            builder.afterCursor(MessageCursor.of(replies.get(replies.size() - 1)).encode());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.chatgenius.dto.response;
+
+import com.chatgenius.model.ThreadSummary;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+public class ThreadSummaryResponse {
+    private UUID threadId;
+    private UUID channelId;
+    private long replyCount;
+    private ZonedDateTime lastReplyAt;
+    // Most recent first
+    private List<UUID> participantIds;
+
+    public static ThreadSummaryResponse fromSummary(ThreadSummary summary) {
+        return ThreadSummaryResponse.builder()
+                .threadId(summary.getThreadId())
+                .channelId(summary.getChannelId())
+                .replyCount(summary.getReplyCount())
+                .lastReplyAt(summary.getLastReplyAt())
+                .participantIds(summary.getRecentParticipantIds())
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.chatgenius.dto.response;
+
+import com.chatgenius.repository.projection.ChannelReadState;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@Builder
+public class UnreadCountResponse {
+    private UUID channelId;
+    private long lastSeq;
+    private long lastReadSeq;
+    // Null until the user has read something in the channel
+    private UUID lastReadMessageId;
+    private long unreadCount;
+
+    public static UnreadCountResponse fromState(ChannelReadState state) {
+        long lastReadSeq = state.getLastReadSeq() != null ? state.getLastReadSeq() : 0;
+        return UnreadCountResponse.builder()
+            .channelId(state.getChannelId())
+            .lastSeq(state.getLastSeq())
+            .lastReadSeq(lastReadSeq)
+            .lastReadMessageId(state.getLastReadMessageId())
+            .unreadCount(Math.max(0, state.getLastSeq() - lastReadSeq))
+            .build();
+    }
+}
@@ -0,0 +1,14 @@
+package com.chatgenius.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class WebSocketReaperStatsResponse {
+    private int liveSessions;
+    // Connected and answering pings, but no client message within websocket.reaper.idle-after
+    private int idleSessions;
+    private long reapedSessions;
+    private long pingsSent;
+}
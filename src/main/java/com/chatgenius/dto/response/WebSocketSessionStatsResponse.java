@@ -0,0 +1,15 @@
+package com.chatgenius.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class WebSocketSessionStatsResponse {
+    private String sessionId;
+    private String username;
+    private int queuedMessages;
+    private long sentMessages;
+    private long sentBytes;
+    private long droppedMessages;
+}
@@ -0,0 +1,23 @@
+package com.chatgenius.event;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+// Published after a user is added to or removed from a channel
+@Value
+public class ChannelMembershipChangedEvent {
+    public enum Change { ADDED, REMOVED }
+
+    UUID channelId;
+    UUID userId;
+    Change change;
+
+    public static ChannelMembershipChangedEvent added(UUID channelId, UUID userId) {
+        return new ChannelMembershipChangedEvent(channelId, userId, Change.ADDED);
+    }
+
+    public static ChannelMembershipChangedEvent removed(UUID channelId, UUID userId) {
+        return new ChannelMembershipChangedEvent(channelId, userId, Change.REMOVED);
+    }
+}
@@ -0,0 +1,17 @@
+package com.chatgenius.event;
+
+import com.chatgenius.model.enums.UserStatus;
+import lombok.Value;
+
+import java.util.Set;
+import java.util.UUID;
+
+// Published when a user comes online, goes offline or changes status. channelIds are the channels
+// whose online set the change affects.
+@Value
+public class PresenceChangedEvent {
+    UUID userId;
+    String username;
+    UserStatus status;
+    Set<UUID> channelIds;
+}
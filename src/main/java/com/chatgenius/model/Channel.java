@@ -1,6 +1,7 @@
 package com.chatgenius.model;
 
 import com.chatgenius.model.enums.ChannelType;
+import com.chatgenius.model.id.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,6 +9,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.ZonedDateTime;
 import java.util.HashSet;
@@ -23,7 +25,7 @@ import java.util.UUID;
 @Builder
 public class Channel {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private UUID id;
 
     @Column(nullable = false)
@@ -44,6 +46,16 @@ public class Channel {
     @Column(name = "created_at", nullable = false)
     private ZonedDateTime createdAt;
 
+    // Written only by ChannelRepository.adjustMessageCount so concurrent inserts never lose updates
+    @ColumnDefault("0")
+    @Column(name = "message_count", nullable = false, insertable = false, updatable = false)
+    private long messageCount;
+
+    // Highest committed message sequence number; written only through ChannelRepository
+    @ColumnDefault("0")
+    @Column(name = "last_seq", nullable = false, insertable = false, updatable = false)
+    private long lastSeq;
+
     @JsonBackReference
     @OneToMany(mappedBy = "channel", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<Message> messages = new HashSet<>();
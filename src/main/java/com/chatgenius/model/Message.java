@@ -1,6 +1,7 @@
 package com.chatgenius.model;
 
 import com.chatgenius.model.enums.MessageType;
+import com.chatgenius.model.id.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,18 +11,24 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+    @Index(name = "idx_messages_channel_created_id", columnList = "channel_id, created_at DESC, id DESC"),
+    @Index(name = "uq_messages_user_client_message_id", columnList = "user_id, client_message_id", unique = true),
+    @Index(name = "idx_messages_thread_created_id", columnList = "thread_id, created_at, id"),
+    @Index(name = "uq_messages_channel_seq", columnList = "channel_id, seq", unique = true)
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Message {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private UUID id;
 
     @Column(nullable = false)
@@ -46,4 +53,22 @@ public class Message {
 
     @Column(name = "created_at", nullable = false)
     private ZonedDateTime createdAt;
+
+    // Position in the channel, 1, 2, 3, ... in commit order (see MessageSequencer)
+    @Column(name = "seq")
+    private Long seq;
+
+    // Idempotency key chosen by the sending client, unique per user
+    @Column(name = "client_message_id", length = 64)
+    private String clientMessageId;
+
+    // Stored with microsecond precision; keep the in-memory value identical so cursors built
+    // from a freshly saved message match the persisted row exactly
+    @PrePersist
+    @PreUpdate
+    void truncateCreatedAt() {
+        if (createdAt != null) {
+            createdAt = createdAt.truncatedTo(ChronoUnit.MICROS);
+        }
+    }
 } 
\ No newline at end of file
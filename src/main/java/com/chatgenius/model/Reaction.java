@@ -1,5 +1,6 @@
 package com.chatgenius.model;
 
+import com.chatgenius.model.id.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -14,7 +15,7 @@ import java.util.UUID;
 @Setter
 public class Reaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private UUID id;
 
     @ManyToOne
@@ -0,0 +1,68 @@
+package com.chatgenius.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+// The last message a member has read in a channel. Written in batches by ReadCursorService; the
+// position only ever moves forward.
+@Entity
+@Table(name = "read_cursors")
+@IdClass(ReadCursorId.class)
+@Data
+@NoArgsConstructor
+public class ReadCursor implements Persistable<ReadCursorId> {
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Id
+    @Column(name = "channel_id")
+    private UUID channelId;
+
+    @Column(name = "last_read_message_id", nullable = false)
+    private UUID lastReadMessageId;
+
+    @Column(name = "last_read_seq", nullable = false)
+    private long lastReadSeq;
+
+    @Column(name = "updated_at", nullable = false)
+    private ZonedDateTime updatedAt;
+
+    // Ids are assigned, so without this every save of a new cursor would SELECT it first
+    @Transient
+    private boolean newCursor;
+
+    public ReadCursor(UUID userId, UUID channelId) {
+        this.userId = userId;
+        this.channelId = channelId;
+        this.newCursor = true;
+    }
+
+    @Override
+    public ReadCursorId getId() {
+        return new ReadCursorId(userId, channelId);
+    }
+
+    @Override
+    public boolean isNew() {
+        return newCursor;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newCursor = false;
+    }
+}
@@ -0,0 +1,16 @@
+package com.chatgenius.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReadCursorId implements Serializable {
+    private UUID userId;
+    private UUID channelId;
+}
@@ -0,0 +1,58 @@
+package com.chatgenius.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Reply metadata of one thread, kept up to date by ThreadSummaryService so that thread badges and
+// headers never have to read the replies. threadId is the id of the thread's root message.
+@Entity
+@Table(name = "thread_summaries")
+@Data
+@NoArgsConstructor
+public class ThreadSummary {
+    @Id
+    @Column(name = "thread_id")
+    private UUID threadId;
+
+    @Column(name = "channel_id", nullable = false)
+    private UUID channelId;
+
+    @Column(name = "reply_count", nullable = false)
+    private long replyCount;
+
+    @Column(name = "last_reply_at")
+    private ZonedDateTime lastReplyAt;
+
+    // Distinct authors of the latest replies, most recent first
+    @Convert(converter = UuidListConverter.class)
+    @Column(name = "recent_participant_ids", nullable = false, length = 1024)
+    private List<UUID> recentParticipantIds = new ArrayList<>();
+
+    public ThreadSummary(UUID threadId, UUID channelId) {
+        this.threadId = threadId;
+        this.channelId = channelId;
+    }
+
+    public void addReply(UUID userId, ZonedDateTime createdAt, int maxParticipants) {
+        replyCount++;
+        if (lastReplyAt == null || createdAt.isAfter(lastReplyAt)) {
+            lastReplyAt = createdAt;
+        }
+        if (userId != null) {
+            List<UUID> participants = new ArrayList<>(recentParticipantIds);
+            participants.remove(userId);
+            participants.add(0, userId);
+            recentParticipantIds = new ArrayList<>(participants.subList(0, Math.min(participants.size(), maxParticipants)));
+        }
+    }
+}
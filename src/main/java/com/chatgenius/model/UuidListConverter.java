@@ -0,0 +1,28 @@
+package com.chatgenius.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Short, ordered UUID lists stored as one comma-separated column
+@Converter
+public class UuidListConverter implements AttributeConverter<List<UUID>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(List<UUID> ids) {
+        return ids == null ? "" : ids.stream().map(UUID::toString).collect(Collectors.joining(","));
+    }
+
+    @Override
+    public List<UUID> convertToEntityAttribute(String column) {
+        if (column == null || column.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return Arrays.stream(column.split(",")).map(UUID::fromString).collect(Collectors.toCollection(ArrayList::new));
+    }
+}
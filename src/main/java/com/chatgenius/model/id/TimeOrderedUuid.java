@@ -0,0 +1,52 @@
+package com.chatgenius.model.id;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// UUIDv7 (RFC 9562): 48-bit Unix millisecond timestamp, 12-bit sequence, 62 random bits. Ids from this
+// JVM are strictly increasing, so new rows land at the right edge of the primary key index and
+// comparing ids (as PostgreSQL does, bytewise) orders them by creation time.
+public final class TimeOrderedUuid {
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final long VARIANT_RFC = 0x8000000000000000L;
+
+    // Last issued (millis << 12 | sequence). More than 4096 ids in one millisecond borrow from the
+    // next millisecond, and a clock step backwards keeps counting from the last id, so order holds.
+    private static final AtomicLong LAST = new AtomicLong();
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+
+    private TimeOrderedUuid() {
+    }
+
+    public static UUID next() {
+        return fromState(nextState(System.currentTimeMillis()), RANDOM.get().nextLong());
+    }
+
+    // Millisecond timestamp embedded in a UUIDv7
+    public static long timestampMillis(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
+    static long nextState(long nowMillis) {
+        long candidate = nowMillis << SEQUENCE_BITS;
+        while (true) {
+            long last = LAST.get();
+            long next = candidate > last ? candidate : last + 1;
+            if (LAST.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    static UUID fromState(long state, long random) {
+        long millis = state >>> SEQUENCE_BITS;
+        long sequence = state & ((1L << SEQUENCE_BITS) - 1);
+        long msb = (millis << 16) | VERSION_7 | sequence;
+        long lsb = (random & VARIANT_MASK) | VARIANT_RFC;
+        return new UUID(msb, lsb);
+    }
+}
@@ -2,12 +2,21 @@ package com.chatgenius.repository;
 
 import com.chatgenius.model.Channel;
 import com.chatgenius.model.enums.ChannelType;
+import com.chatgenius.repository.projection.ChannelIdentity;
+import com.chatgenius.repository.projection.ChannelMember;
+import com.chatgenius.repository.projection.ChannelSummary;
+import com.chatgenius.repository.projection.MemberSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -29,4 +38,58 @@ public interface ChannelRepository extends JpaRepository<Channel, UUID> {
     boolean existsByName(String name);
     List<Channel> findByType(ChannelType type);
     List<Channel> findByMembersId(UUID userId);
+    List<ChannelIdentity> findIdentitiesByNameIn(Collection<String> names);
+
+    @Query("SELECT c.id FROM Channel c WHERE c.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    // Single index lookup on the channel_members primary key; never touches the members collection
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM channel_members WHERE channel_id = :channelId AND user_id = :userId)",
+           nativeQuery = true)
+    boolean existsMember(@Param("channelId") UUID channelId, @Param("userId") UUID userId);
+
+    // The memberships among the given channels and users, for checking a whole batch at once
+    @Query("SELECT c.id AS channelId, m.id AS userId FROM Channel c JOIN c.members m " +
+           "WHERE c.id IN :channelIds AND m.id IN :userIds")
+    List<ChannelMember> findMemberships(@Param("channelIds") Collection<UUID> channelIds,
+                                        @Param("userIds") Collection<UUID> userIds);
+
+    @Query("SELECT m.id FROM Channel c JOIN c.members m WHERE c.id = :channelId")
+    List<UUID> findMemberIds(@Param("channelId") UUID channelId);
+
+    @Query("SELECT c.id FROM Channel c JOIN c.members m WHERE m.id = :userId")
+    List<UUID> findIdsByMemberId(@Param("userId") UUID userId);
+
+    // Scalar projections only: member counts come from a correlated count over channel_members, and
+    // the ordering is fixed here so callers must pass unsorted pages
+    @Query(value = "SELECT c.id AS id, c.name AS name, c.type AS type, c.createdAt AS createdAt, " +
+                   "SIZE(c.members) AS memberCount FROM Channel c ORDER BY c.name, c.id",
+           countQuery = "SELECT COUNT(c) FROM Channel c")
+    Page<ChannelSummary> findChannelSummaries(Pageable pageable);
+
+    @Query(value = "SELECT m.id AS id, m.username AS username, m.status AS status, m.lastSeenAt AS lastSeenAt " +
+                   "FROM Channel c JOIN c.members m WHERE c.id = :channelId ORDER BY m.username, m.id",
+           countQuery = "SELECT COUNT(m) FROM Channel c JOIN c.members m WHERE c.id = :channelId")
+    Page<MemberSummary> findMemberSummaries(@Param("channelId") UUID channelId, Pageable pageable);
+
+    // Maintained message counter; only touched through this atomic update
+    @Modifying
+    @Query("UPDATE Channel c SET c.messageCount = c.messageCount + :delta WHERE c.id = :channelId")
+    int adjustMessageCount(@Param("channelId") UUID channelId, @Param("delta") long delta);
+
+    @Query("SELECT c.messageCount FROM Channel c WHERE c.id = :channelId")
+    Optional<Long> findMessageCountById(@Param("channelId") UUID channelId);
+
+    // Message sequence counter; the row stays locked until the calling transaction ends
+    @Modifying
+    @Query("UPDATE Channel c SET c.lastSeq = c.lastSeq + :count WHERE c.id = :channelId")
+    int advanceSeq(@Param("channelId") UUID channelId, @Param("count") long count);
+
+    // For numbers handed out outside the database; never lowers the counter
+    @Modifying
+    @Query("UPDATE Channel c SET c.lastSeq = :seq WHERE c.id = :channelId AND c.lastSeq < :seq")
+    int raiseLastSeq(@Param("channelId") UUID channelId, @Param("seq") long seq);
+
+    @Query("SELECT c.lastSeq FROM Channel c WHERE c.id = :channelId")
+    Optional<Long> findLastSeqById(@Param("channelId") UUID channelId);
 } 
\ No newline at end of file
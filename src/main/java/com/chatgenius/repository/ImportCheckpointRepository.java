@@ -0,0 +1,58 @@
+package com.chatgenius.repository;
+
+import com.chatgenius.dto.response.MessageImportResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Progress of bulk message imports, one Redis hash per import at "import:<importId>". Kept for
+// checkpoint-ttl after the last update so an interrupted import can be resumed.
+@Repository
+public class ImportCheckpointRepository {
+
+    private static final String KEY_PREFIX = "import:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Duration ttl;
+
+    public ImportCheckpointRepository(RedisTemplate<String, String> redisTemplate,
+                                      @Value("${chat.message.import.checkpoint-ttl:7d}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+    }
+
+    public Optional<MessageImportResponse> find(String importId) {
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(KEY_PREFIX + importId);
+        if (fields == null || fields.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(MessageImportResponse.builder()
+            .importId(importId)
+            .status(MessageImportResponse.Status.valueOf((String) fields.get("status")))
+            .processedLines(Long.parseLong((String) fields.get("processedLines")))
+            .imported(Long.parseLong((String) fields.get("imported")))
+            .duplicates(Long.parseLong((String) fields.get("duplicates")))
+            .failed(Long.parseLong((String) fields.get("failed")))
+            .updatedAt(ZonedDateTime.parse((String) fields.get("updatedAt")))
+            .build());
+    }
+
+    public void save(MessageImportResponse progress) {
+        String key = KEY_PREFIX + progress.getImportId();
+        Map<String, String> fields = new HashMap<>();
+        fields.put("status", progress.getStatus().name());
+        fields.put("processedLines", Long.toString(progress.getProcessedLines()));
+        fields.put("imported", Long.toString(progress.getImported()));
+        fields.put("duplicates", Long.toString(progress.getDuplicates()));
+        fields.put("failed", Long.toString(progress.getFailed()));
+        fields.put("updatedAt", progress.getUpdatedAt().toString());
+        redisTemplate.opsForHash().putAll(key, fields);
+        redisTemplate.expire(key, ttl);
+    }
+}
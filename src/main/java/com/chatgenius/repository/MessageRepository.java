@@ -1,27 +1,146 @@
 package com.chatgenius.repository;
 
 import com.chatgenius.model.Message;
+import com.chatgenius.repository.projection.MessagePosition;
+import com.chatgenius.repository.projection.MessageSearchHit;
+import com.chatgenius.repository.projection.ThreadReplyStats;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.Modifying;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, UUID> {
+    int EXPORT_FETCH_SIZE = 500;
+
+    // The pages below are mapped straight to MessageResponse, which reads every author's username. They
+    // fetch the authors in the same query; the authors' roles then load in one batch (see User.roles).
+
     @Query("SELECT m FROM Message m WHERE m.channel.id = :channelId ORDER BY m.createdAt DESC")
     List<Message> findByChannelId(@Param("channelId") UUID channelId);
 
+    @EntityGraph(attributePaths = "user")
+    @Query(value = "SELECT m FROM Message m WHERE m.channel.id = :channelId",
+           countQuery = "SELECT COUNT(m) FROM Message m WHERE m.channel.id = :channelId")
+    Page<Message> findPageByChannelId(@Param("channelId") UUID channelId, Pageable pageable);
+
+    // Keyset pagination over (created_at, id), newest first
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT m FROM Message m WHERE m.channel.id = :channelId ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<Message> findLatestByChannelId(@Param("channelId") UUID channelId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT m FROM Message m WHERE m.channel.id = :channelId " +
+           "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<Message> findByChannelIdBefore(@Param("channelId") UUID channelId,
+                                         @Param("createdAt") ZonedDateTime createdAt,
+                                         @Param("id") UUID id,
+                                         Pageable pageable);
+
+    // Oldest first, so the page directly following the cursor is returned
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT m FROM Message m WHERE m.channel.id = :channelId " +
+           "AND (m.createdAt > :createdAt OR (m.createdAt = :createdAt AND m.id > :id)) " +
+           "ORDER BY m.createdAt ASC, m.id ASC")
+    Slice<Message> findByChannelIdAfter(@Param("channelId") UUID channelId,
+                                        @Param("createdAt") ZonedDateTime createdAt,
+                                        @Param("id") UUID id,
+                                        Pageable pageable);
+
+    // Forward-only cursor over a whole channel, oldest first. Must be consumed inside a transaction;
+    // on PostgreSQL the fetch size only takes effect with autocommit off.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM Message m LEFT JOIN FETCH m.user WHERE m.channel.id = :channelId ORDER BY m.createdAt ASC, m.id ASC")
+    Stream<Message> streamByChannelIdForExport(@Param("channelId") UUID channelId);
+
+    @Query("SELECT COUNT(m) FROM Message m WHERE m.channel.id = :channelId")
+    long countByChannelId(@Param("channelId") UUID channelId);
+
+    // PostgreSQL full-text search over the generated messages.search_vector column (see schema-postgresql.sql).
+    // ts_headline is costly, so the planner defers it until after ORDER BY/LIMIT and only runs it per page row.
+    @Query(value = "SELECT m.id AS id, m.channel_id AS channelId, m.user_id AS userId, u.username AS username, " +
+                   "m.thread_id AS threadId, m.created_at AS createdAt, " +
+                   "ts_rank(m.search_vector, q) AS rank, " +
+                   "ts_headline('english', m.content, q, 'StartSel=<mark>, StopSel=</mark>, MaxFragments=2') AS highlight " +
+                   "FROM messages m " +
+                   "CROSS JOIN websearch_to_tsquery('english', :query) q " +
+                   "LEFT JOIN users u ON u.id = m.user_id " +
+                   "WHERE m.channel_id = :channelId AND m.search_vector @@ q " +
+                   "ORDER BY rank DESC, m.created_at DESC, m.id DESC",
+           countQuery = "SELECT COUNT(*) FROM messages m " +
+                        "WHERE m.channel_id = :channelId " +
+                        "AND m.search_vector @@ websearch_to_tsquery('english', :query)",
+           nativeQuery = true)
+    Page<MessageSearchHit> searchByChannelId(@Param("channelId") UUID channelId,
+                                             @Param("query") String query,
+                                             Pageable pageable);
+
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT m FROM Message m WHERE m.threadId = :threadId ORDER BY m.createdAt ASC")
     List<Message> findByThreadId(@Param("threadId") UUID threadId);
 
+    // Thread replies oldest first, keyset-paged over (created_at, id)
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT m FROM Message m WHERE m.threadId = :threadId ORDER BY m.createdAt ASC, m.id ASC")
+    Slice<Message> findFirstRepliesByThreadId(@Param("threadId") UUID threadId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT m FROM Message m WHERE m.threadId = :threadId " +
+           "AND (m.createdAt > :createdAt OR (m.createdAt = :createdAt AND m.id > :id)) " +
+           "ORDER BY m.createdAt ASC, m.id ASC")
+    Slice<Message> findRepliesByThreadIdAfter(@Param("threadId") UUID threadId,
+                                              @Param("createdAt") ZonedDateTime createdAt,
+                                              @Param("id") UUID id,
+                                              Pageable pageable);
+
+    // Gap fill after a missed broadcast, oldest first
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT m FROM Message m WHERE m.channel.id = :channelId AND m.seq > :afterSeq ORDER BY m.seq ASC")
+    Slice<Message> findByChannelIdAfterSeq(@Param("channelId") UUID channelId,
+                                           @Param("afterSeq") long afterSeq,
+                                           Pageable pageable);
+
+    @Query("SELECT m.id AS id, m.channel.id AS channelId, m.seq AS seq FROM Message m WHERE m.id IN :ids")
+    List<MessagePosition> findPositionsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Every writer of a thread's summary locks the thread's root message first, one thread at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Message m WHERE m.id = :id")
+    Optional<Message> findByIdForUpdate(@Param("id") UUID id);
+
+    @Query("SELECT COUNT(m) AS replyCount, MAX(m.createdAt) AS lastReplyAt FROM Message m WHERE m.threadId = :threadId")
+    ThreadReplyStats findThreadReplyStats(@Param("threadId") UUID threadId);
+
+    // Distinct reply authors, most recent reply first
+    @Query("SELECT m.user.id FROM Message m WHERE m.threadId = :threadId AND m.user IS NOT NULL " +
+           "GROUP BY m.user.id ORDER BY MAX(m.createdAt) DESC")
+    List<UUID> findRecentThreadParticipantIds(@Param("threadId") UUID threadId, Pageable pageable);
+
     @Query("SELECT m FROM Message m WHERE m.channel.id = :channelId AND m.type = 'THREAD_START' ORDER BY m.createdAt DESC")
     List<Message> findThreadStarters(@Param("channelId") UUID channelId);
 
     @Modifying
     @Query("DELETE FROM Message m WHERE m.channel.id = :channelId")
     void deleteByChannelId(@Param("channelId") UUID channelId);
-} 
\ No newline at end of file
+}
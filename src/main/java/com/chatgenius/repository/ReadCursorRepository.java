@@ -0,0 +1,30 @@
+package com.chatgenius.repository;
+
+import com.chatgenius.model.ReadCursor;
+import com.chatgenius.model.ReadCursorId;
+import com.chatgenius.repository.projection.ChannelReadState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ReadCursorRepository extends JpaRepository<ReadCursor, ReadCursorId> {
+
+    // findAllById would load composite ids one at a time; callers drop the extra pairs this may match
+    @Query("SELECT r FROM ReadCursor r WHERE r.userId IN :userIds AND r.channelId IN :channelIds")
+    List<ReadCursor> findByUserIdInAndChannelIdIn(@Param("userIds") Collection<UUID> userIds,
+                                                  @Param("channelIds") Collection<UUID> channelIds);
+
+    // Every channel of the user with its newest sequence number and the user's read position, in one query
+    @Query("SELECT c.id AS channelId, c.lastSeq AS lastSeq, r.lastReadSeq AS lastReadSeq, " +
+           "r.lastReadMessageId AS lastReadMessageId " +
+           "FROM Channel c JOIN c.members m " +
+           "LEFT JOIN ReadCursor r ON r.userId = m.id AND r.channelId = c.id " +
+           "WHERE m.id = :userId")
+    List<ChannelReadState> findReadStates(@Param("userId") UUID userId);
+}
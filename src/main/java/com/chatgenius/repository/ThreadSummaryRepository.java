@@ -0,0 +1,18 @@
+package com.chatgenius.repository;
+
+import com.chatgenius.model.ThreadSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface ThreadSummaryRepository extends JpaRepository<ThreadSummary, UUID> {
+
+    @Modifying
+    @Query("DELETE FROM ThreadSummary s WHERE s.channelId = :channelId")
+    void deleteByChannelId(@Param("channelId") UUID channelId);
+}
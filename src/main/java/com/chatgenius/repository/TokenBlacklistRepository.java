@@ -1,16 +1,30 @@
 package com.chatgenius.repository;
 
+import com.chatgenius.util.TokenHashes;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.function.ObjLongConsumer;
 
+// Redis is the source of truth for revoked tokens. Keys are "blacklist:<sha256 of token>" with a TTL
+// equal to the token's remaining lifetime.
 @Repository
 public class TokenBlacklistRepository {
 
     private final RedisTemplate<String, String> redisTemplate;
-    private static final String KEY_PREFIX = "blacklist:token:";
+    private static final String KEY_PREFIX = "blacklist:";
+    private static final String LEGACY_KEY_PREFIX = "blacklist:token:";
+    private static final int HASH_LENGTH = 43;
+    private static final int SCAN_PAGE = 1000;
 
     @Autowired
     public TokenBlacklistRepository(RedisTemplate<String, String> redisTemplate) {
@@ -18,17 +32,73 @@ public class TokenBlacklistRepository {
     }
 
     public void blacklistToken(String token, long expirationInMillis) {
-        String key = KEY_PREFIX + token;
-        redisTemplate.opsForValue().set(key, "blacklisted", expirationInMillis, TimeUnit.MILLISECONDS);
+        blacklistHash(TokenHashes.sha256(token), expirationInMillis);
+    }
+
+    public void blacklistHash(String tokenHash, long expirationInMillis) {
+        redisTemplate.opsForValue().set(KEY_PREFIX + tokenHash, "blacklisted", expirationInMillis, TimeUnit.MILLISECONDS);
     }
 
     public boolean isTokenBlacklisted(String token) {
-        String key = KEY_PREFIX + token;
-        return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+        return isHashBlacklisted(TokenHashes.sha256(token));
+    }
+
+    public boolean isHashBlacklisted(String tokenHash) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + tokenHash));
     }
 
     public void removeFromBlacklist(String token) {
-        String key = KEY_PREFIX + token;
+        redisTemplate.delete(KEY_PREFIX + TokenHashes.sha256(token));
+    }
+
+    // Walks every revoked token with its remaining TTL. Keys written before tokens were hashed
+    // ("blacklist:<jwt>" and "blacklist:token:<jwt>") are rewritten to the hashed form on the way.
+    public void forEachBlacklisted(ObjLongConsumer<String> consumer) {
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(SCAN_PAGE).build();
+        List<String> page = new ArrayList<>(SCAN_PAGE);
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            while (keys.hasNext()) {
+                page.add(keys.next());
+                if (page.size() == SCAN_PAGE) {
+                    acceptPage(page, consumer);
+                    page.clear();
+                }
+            }
+        }
+        if (!page.isEmpty()) {
+            acceptPage(page, consumer);
+        }
+    }
+
+    private void acceptPage(List<String> page, ObjLongConsumer<String> consumer) {
+        // One round trip for the TTLs of the whole page
+        List<Object> ttls = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                page.forEach(key -> ops.getExpire(key, TimeUnit.MILLISECONDS));
+                return null;
+            }
+        });
+        for (int i = 0; i < page.size(); i++) {
+            // Keys that expired since the scan or never had a TTL are skipped
+            if (ttls.get(i) instanceof Long ttl && ttl > 0) {
+                accept(page.get(i), ttl, consumer);
+            }
+        }
+    }
+
+    private void accept(String key, long ttl, ObjLongConsumer<String> consumer) {
+        String suffix = key.substring(KEY_PREFIX.length());
+        if (suffix.length() == HASH_LENGTH && suffix.indexOf('.') < 0) {
+            consumer.accept(suffix, ttl);
+            return;
+        }
+        String token = key.startsWith(LEGACY_KEY_PREFIX) ? key.substring(LEGACY_KEY_PREFIX.length()) : suffix;
+        String tokenHash = TokenHashes.sha256(token);
+        blacklistHash(tokenHash, ttl);
         redisTemplate.delete(key);
+        consumer.accept(tokenHash, ttl);
     }
-} 
\ No newline at end of file
+}
@@ -2,9 +2,11 @@ package com.chatgenius.repository;
 
 import com.chatgenius.model.User;
 import com.chatgenius.model.enums.UserStatus;
+import com.chatgenius.repository.projection.UserIdentity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,4 +18,6 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     List<User> findByStatus(UserStatus status);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+    List<UserIdentity> findIdentitiesByUsernameIn(Collection<String> usernames);
+    List<UserIdentity> findIdentitiesByIdIn(Collection<UUID> ids);
 } 
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.chatgenius.repository.projection;
+
+import java.util.UUID;
+
+// Just enough of a channel to resolve a name to its id
+public interface ChannelIdentity {
+    UUID getId();
+    String getName();
+}
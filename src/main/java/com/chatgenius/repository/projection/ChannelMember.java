@@ -0,0 +1,9 @@
+package com.chatgenius.repository.projection;
+
+import java.util.UUID;
+
+// One row of channel_members
+public interface ChannelMember {
+    UUID getChannelId();
+    UUID getUserId();
+}
@@ -0,0 +1,11 @@
+package com.chatgenius.repository.projection;
+
+import java.util.UUID;
+
+// A member's position in one channel; the last read fields are null until they first read it
+public interface ChannelReadState {
+    UUID getChannelId();
+    long getLastSeq();
+    Long getLastReadSeq();
+    UUID getLastReadMessageId();
+}
@@ -0,0 +1,15 @@
+package com.chatgenius.repository.projection;
+
+import com.chatgenius.model.enums.ChannelType;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+// Row shape of ChannelRepository.findChannelSummaries; never loads the members collection
+public interface ChannelSummary {
+    UUID getId();
+    String getName();
+    ChannelType getType();
+    ZonedDateTime getCreatedAt();
+    long getMemberCount();
+}
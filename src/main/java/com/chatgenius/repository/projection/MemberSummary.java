@@ -0,0 +1,14 @@
+package com.chatgenius.repository.projection;
+
+import com.chatgenius.model.enums.UserStatus;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+// Row shape of ChannelRepository.findMemberSummaries
+public interface MemberSummary {
+    UUID getId();
+    String getUsername();
+    UserStatus getStatus();
+    ZonedDateTime getLastSeenAt();
+}
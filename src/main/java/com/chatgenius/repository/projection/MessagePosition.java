@@ -0,0 +1,9 @@
+package com.chatgenius.repository.projection;
+
+import java.util.UUID;
+
+public interface MessagePosition {
+    UUID getId();
+    UUID getChannelId();
+    Long getSeq();
+}
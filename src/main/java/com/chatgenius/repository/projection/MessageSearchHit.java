@@ -0,0 +1,17 @@
+package com.chatgenius.repository.projection;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Row shape of MessageRepository.searchByChannelId
+public interface MessageSearchHit {
+    UUID getId();
+    UUID getChannelId();
+    UUID getUserId();
+    String getUsername();
+    UUID getThreadId();
+    Instant getCreatedAt();
+    Double getRank();
+    // Matching fragments of the content, search terms wrapped in <mark></mark>
+    String getHighlight();
+}
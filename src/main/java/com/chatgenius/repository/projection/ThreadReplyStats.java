@@ -0,0 +1,9 @@
+package com.chatgenius.repository.projection;
+
+import java.time.ZonedDateTime;
+
+// Row shape of MessageRepository.findThreadReplyStats
+public interface ThreadReplyStats {
+    long getReplyCount();
+    ZonedDateTime getLastReplyAt();
+}
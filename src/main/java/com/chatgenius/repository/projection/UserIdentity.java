@@ -0,0 +1,9 @@
+package com.chatgenius.repository.projection;
+
+import java.util.UUID;
+
+// Just enough of a user to resolve a username to its id, or an author id to its username
+public interface UserIdentity {
+    UUID getId();
+    String getUsername();
+}
@@ -3,6 +3,7 @@ package com.chatgenius.security;
 import com.chatgenius.service.TokenBlacklistService;
 import com.chatgenius.service.UserService;
 import com.chatgenius.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -10,6 +11,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -18,6 +20,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.util.StringUtils;
 
 import java.io.IOException;
+import java.util.Collection;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -25,12 +28,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil;
     private final UserService userService;
     private final TokenBlacklistService tokenBlacklistService;
+    private final TokenAuthenticationCache tokenCache;
 
     @Autowired
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserService userService, TokenBlacklistService tokenBlacklistService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserService userService, TokenBlacklistService tokenBlacklistService,
+                                   TokenAuthenticationCache tokenCache) {
         this.jwtUtil = jwtUtil;
         this.userService = userService;
         this.tokenBlacklistService = tokenBlacklistService;
+        this.tokenCache = tokenCache;
     }
 
     @Override
@@ -56,7 +62,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             System.out.println("JWT Filter - Token present: " + (jwt != null));
             
             if (jwt != null) {
+                // Steady state: token was verified recently and not revoked since, so no Redis, DB or HMAC work
+                TokenAuthenticationCache.CachedAuthentication cached = tokenCache.get(jwt);
+                if (cached != null) {
+                    setAuthentication(request, cached.getPrincipal(), cached.getAuthorities());
+                    filterChain.doFilter(request, response);
+                    return;
+                }
+
                 try {
+                    // Taken before the revocation check: a revocation after this point keeps the token out of the cache
+                    long cacheGeneration = tokenCache.generation();
+
                     // Check if token is blacklisted
                     if (tokenBlacklistService.isTokenBlacklisted(jwt)) {
                         System.out.println("JWT Filter - Token is blacklisted");
@@ -64,21 +81,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         return;
                     }
 
-                    String username = jwtUtil.extractUsername(jwt);
+                    // Signature and expiry are verified once here; everything below works off these claims
+                    Claims claims = jwtUtil.parseAndVerify(jwt);
+                    String username = claims.getSubject();
                     System.out.println("JWT Filter - Extracted username: " + username);
                     
                     UserDetails userDetails = userService.loadUserByUsername(username);
                     System.out.println("JWT Filter - Loaded user details: " + userDetails);
                     
-                    boolean isValid = jwtUtil.validateToken(jwt, userDetails);
+                    boolean isValid = jwtUtil.validateClaims(claims, userDetails);
                     System.out.println("JWT Filter - Token validation result: " + isValid);
                     
                     if (isValid) {
-                        UsernamePasswordAuthenticationToken authentication = 
-                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        
-                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                        setAuthentication(request, userDetails, userDetails.getAuthorities());
+                        tokenCache.put(jwt, userDetails, claims.getExpiration().getTime(), cacheGeneration);
                         System.out.println("JWT Filter - Authentication set for user: " + username);
                     } else {
                         System.out.println("JWT Filter - Token validation failed");
@@ -99,6 +115,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private void setAuthentication(HttpServletRequest request, UserDetails userDetails,
+                                   Collection<? extends GrantedAuthority> authorities) {
+        UsernamePasswordAuthenticationToken authentication =
+            new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
     private boolean isPublicEndpoint(String requestPath) {
         String[] publicPaths = {
             "/api/auth/test", "/auth/test",
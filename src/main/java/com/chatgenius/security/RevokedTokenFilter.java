@@ -0,0 +1,109 @@
+package com.chatgenius.security;
+
+import com.chatgenius.util.TokenHashes;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Time-partitioned Bloom filter of revoked token hashes. Each token goes into the partition covering
+// its expiry time; once that window has passed every token in it has expired anyway, so the whole
+// partition is dropped instead of ever deleting single entries. No false negatives: a miss means the
+// token was never revoked through this filter, a hit only means "probably" and must be confirmed.
+public class RevokedTokenFilter {
+
+    private final long partitionMillis;
+    private final int bitsPerPartition;
+    private final int hashFunctions;
+    private final ConcurrentNavigableMap<Long, Partition> partitions = new ConcurrentSkipListMap<>();
+
+    public RevokedTokenFilter(long expectedInsertionsPerPartition, double falsePositiveRate, long partitionMillis) {
+        if (expectedInsertionsPerPartition <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1 || partitionMillis <= 0) {
+            throw new IllegalArgumentException("Invalid revoked token filter configuration");
+        }
+        // Standard Bloom sizing: m = -n ln p / (ln 2)^2, k = m/n ln 2
+        long bits = (long) Math.ceil(-expectedInsertionsPerPartition * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitsPerPartition = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, bits));
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitsPerPartition / expectedInsertionsPerPartition * Math.log(2)));
+        this.partitionMillis = partitionMillis;
+    }
+
+    public void add(String tokenHash, long expiresAtMillis) {
+        long now = System.currentTimeMillis();
+        if (expiresAtMillis <= now) {
+            return;
+        }
+        partitions.computeIfAbsent(expiresAtMillis / partitionMillis, key -> new Partition(bitsPerPartition))
+                .add(tokenHash);
+        prune(now);
+    }
+
+    public boolean mightContain(String tokenHash) {
+        Map<Long, Partition> live = partitions.tailMap(System.currentTimeMillis() / partitionMillis, true);
+        if (live.isEmpty()) {
+            return false;
+        }
+        long[] hashes = hashes(tokenHash);
+        for (Partition partition : live.values()) {
+            if (partition.mightContain(hashes[0], hashes[1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getPartitionCount() {
+        return partitions.size();
+    }
+
+    public void prune(long nowMillis) {
+        partitions.headMap(nowMillis / partitionMillis, false).clear();
+    }
+
+    // Token hashes are already uniformly distributed, so two 64-bit halves of the digest are enough
+    // for double hashing (h1 + i * h2) without hashing again
+    private static long[] hashes(String tokenHash) {
+        ByteBuffer buffer = ByteBuffer.wrap(TokenHashes.decode(tokenHash));
+        return new long[] { buffer.getLong(), buffer.getLong() | 1 };
+    }
+
+    private class Partition {
+        private final AtomicLongArray words;
+
+        Partition(int bits) {
+            this.words = new AtomicLongArray((bits + 63) / 64);
+        }
+
+        void add(String tokenHash) {
+            long[] hashes = hashes(tokenHash);
+            for (int i = 0; i < hashFunctions; i++) {
+                int bit = index(hashes[0], hashes[1], i);
+                long mask = 1L << bit;
+                int word = bit >>> 6;
+                long current;
+                do {
+                    current = words.get(word);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                } while (!words.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < hashFunctions; i++) {
+                int bit = index(h1, h2, i);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int index(long h1, long h2, int i) {
+            return (int) Math.floorMod(h1 + i * h2, (long) bitsPerPartition);
+        }
+    }
+}
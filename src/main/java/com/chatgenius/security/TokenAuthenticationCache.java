@@ -0,0 +1,118 @@
+package com.chatgenius.security;
+
+import com.chatgenius.util.TokenHashes;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded cache of verified tokens, keyed by SHA-256 of the token so raw JWTs are never held as keys.
+// An entry lives until the token expires or the configured TTL passes, whichever comes first.
+// Every invalidation bumps a generation; a verification that started before one may not fill the cache,
+// so a request in flight during a logout cannot re-cache the token just revoked.
+@Component
+public class TokenAuthenticationCache {
+
+    private final Cache<String, CachedAuthentication> cache;
+    private final long ttlNanos;
+    private final AtomicLong generation = new AtomicLong();
+
+    public TokenAuthenticationCache(
+            @Value("${jwt.cache.max-size:10000}") long maxSize,
+            @Value("${jwt.cache.ttl:60s}") Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new Expiry<String, CachedAuthentication>() {
+                @Override
+                public long expireAfterCreate(String key, CachedAuthentication value, long currentTime) {
+                    long untilTokenExpiry = Duration.ofMillis(value.getExpiresAtMillis() - System.currentTimeMillis()).toNanos();
+                    return Math.max(0, Math.min(ttlNanos, untilTokenExpiry));
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, CachedAuthentication value, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, value, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String key, CachedAuthentication value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+    }
+
+    public CachedAuthentication get(String token) {
+        CachedAuthentication cached = cache.getIfPresent(hash(token));
+        if (cached != null && cached.getExpiresAtMillis() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return cached;
+    }
+
+    // Read before the revocation check of a token and pass to put
+    public long generation() {
+        return generation.get();
+    }
+
+    // The entry is taken back when an invalidation ran since verifiedAtGeneration was read. Invalidations
+    // bump the generation before evicting, so either this check sees the bump or the eviction follows the put.
+    public void put(String token, UserDetails userDetails, long expiresAtMillis, long verifiedAtGeneration) {
+        String key = hash(token);
+        CachedAuthentication entry = new CachedAuthentication(
+            userDetails.getUsername(),
+            userDetails,
+            List.copyOf(userDetails.getAuthorities()),
+            expiresAtMillis);
+        cache.put(key, entry);
+        if (generation.get() != verifiedAtGeneration) {
+            cache.asMap().remove(key, entry);
+        }
+    }
+
+    public void invalidateToken(String token) {
+        generation.incrementAndGet();
+        cache.invalidate(hash(token));
+    }
+
+    // For revocations learned from another node, which only ever see the token hash
+    public void invalidateTokenHash(String tokenHash) {
+        generation.incrementAndGet();
+        cache.invalidate(tokenHash);
+    }
+
+    // Drops every cached token of the user, e.g. after a role change or deletion
+    public void invalidateUser(String username) {
+        generation.incrementAndGet();
+        cache.asMap().values().removeIf(cached -> cached.getUsername().equals(username));
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    static String hash(String token) {
+        return TokenHashes.sha256(token);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class CachedAuthentication {
+        private final String username;
+        private final UserDetails principal;
+        private final Collection<? extends GrantedAuthority> authorities;
+        private final long expiresAtMillis;
+    }
+}
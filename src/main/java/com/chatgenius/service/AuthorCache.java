@@ -0,0 +1,49 @@
+package com.chatgenius.service;
+
+import com.chatgenius.repository.UserRepository;
+import com.chatgenius.repository.projection.UserIdentity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Per-node id -> username of message authors, for code that holds only user ids (write-behind and
+// imported rows). Misses of a whole batch are resolved with one projection query that does not touch
+// the user entity or its roles.
+@Component
+public class AuthorCache {
+
+    private final UserRepository userRepository;
+    private final Cache<UUID, String> usernames;
+
+    public AuthorCache(UserRepository userRepository,
+                       @Value("${chat.author.cache.max-size:100000}") long maxSize,
+                       @Value("${chat.author.cache.ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.usernames = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .build();
+    }
+
+    // Unknown ids are left out of the result
+    public Map<UUID, String> getUsernames(Collection<UUID> userIds) {
+        return usernames.getAll(Set.copyOf(userIds), this::load);
+    }
+
+    public void invalidate(UUID userId) {
+        usernames.invalidate(userId);
+    }
+
+    private Map<UUID, String> load(Set<? extends UUID> userIds) {
+        return userRepository.findIdentitiesByIdIn(Set.copyOf(userIds)).stream()
+            .collect(Collectors.toMap(UserIdentity::getId, UserIdentity::getUsername));
+    }
+}
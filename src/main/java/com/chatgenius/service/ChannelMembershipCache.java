@@ -0,0 +1,53 @@
+package com.chatgenius.service;
+
+import com.chatgenius.event.ChannelMembershipChangedEvent;
+import com.chatgenius.repository.ChannelRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.UUID;
+
+// Per-node answers to "is this user in this channel", backed by a single-row lookup on channel_members,
+// so posting costs the same in a 5-member and a 20k-member channel. Changes made on this node evict
+// the entry as soon as they commit; changes made on other nodes are picked up within the TTL.
+@Component
+public class ChannelMembershipCache {
+
+    private final ChannelRepository channelRepository;
+    private final Cache<String, Boolean> cache;
+
+    public ChannelMembershipCache(ChannelRepository channelRepository,
+                                  @Value("${chat.membership.cache.max-size:100000}") long maxSize,
+                                  @Value("${chat.membership.cache.ttl:30s}") Duration ttl) {
+        this.channelRepository = channelRepository;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .build();
+    }
+
+    public boolean isMember(UUID channelId, UUID userId) {
+        if (channelId == null || userId == null) {
+            return false;
+        }
+        return cache.get(key(channelId, userId), k -> channelRepository.existsMember(channelId, userId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMembershipChanged(ChannelMembershipChangedEvent event) {
+        cache.invalidate(key(event.getChannelId(), event.getUserId()));
+    }
+
+    public void invalidateChannel(UUID channelId) {
+        String prefix = channelId + ":";
+        cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private static String key(UUID channelId, UUID userId) {
+        return channelId + ":" + userId;
+    }
+}
@@ -2,11 +2,16 @@ package com.chatgenius.service;
 
 import com.chatgenius.dto.request.CreateChannelRequest;
 import com.chatgenius.model.Channel;
-import java.util.List;
+import com.chatgenius.repository.projection.ChannelSummary;
+import com.chatgenius.repository.projection.MemberSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
 import java.util.UUID;
 
 public interface ChannelService {
-    List<Channel> getAllChannels();
+    Page<ChannelSummary> getChannelSummaries(Pageable pageable);
+    Page<MemberSummary> getChannelMembers(UUID channelId, Pageable pageable);
     Channel getChannelById(UUID id);
     Channel createChannel(CreateChannelRequest request, String username);
     void deleteChannel(UUID id);
@@ -1,10 +1,14 @@
 package com.chatgenius.service;
 
 import com.chatgenius.dto.request.CreateMessageRequest;
+import com.chatgenius.dto.request.MessageCursor;
+import com.chatgenius.dto.response.MessageResponse;
 import com.chatgenius.model.Message;
 import com.chatgenius.model.enums.MessageType;
+import com.chatgenius.repository.projection.MessageSearchHit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.UUID;
@@ -13,11 +17,19 @@ public interface MessageService {
     Message createMessage(CreateMessageRequest request);
     Message getMessage(UUID messageId);
     Page<Message> getChannelMessages(UUID channelId, Pageable pageable);
+    Slice<Message> getChannelHistory(UUID channelId, MessageCursor before, MessageCursor after, int limit);
+    // Newest page of a channel, from the recent-message cache when it can answer it
+    Slice<MessageResponse> getLatestHistory(UUID channelId, int limit);
     List<Message> getLatestMessages(UUID channelId, int limit);
     Message updateMessage(UUID messageId, String content);
     void deleteMessage(UUID messageId);
     Message createReply(String content, UUID threadId, UUID channelId, UUID userId, MessageType type);
     List<Message> getThreadReplies(UUID threadId);
-    List<Message> searchMessages(UUID channelId, String keyword);
+    // Replies oldest first, continuing after the given reply
+    Slice<Message> getThreadReplies(UUID threadId, MessageCursor after, int limit);
+    // Messages numbered above afterSeq, in seq order
+    Slice<Message> getMessagesSince(UUID channelId, long afterSeq, int limit);
+    long getLastSeq(UUID channelId);
+    Page<MessageSearchHit> searchMessages(UUID channelId, String query, Pageable pageable);
     long getMessageCount(UUID channelId);
 } 
\ No newline at end of file
@@ -0,0 +1,305 @@
+package com.chatgenius.service;
+
+import com.chatgenius.dto.response.MessageResponse;
+import com.chatgenius.dto.response.RecentMessageCacheStatsResponse;
+import com.chatgenius.model.Message;
+import com.chatgenius.repository.MessageRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// Per-node ring of the newest messages of each recently read channel, so the first history page is
+// answered from memory. Rings are filled on a miss and then kept current by write-through after each
+// commit on this node; a ring is reloaded once it is older than ttl, which bounds how long messages
+// written on other nodes stay invisible. Rings are weighed by their estimated heap size and Caffeine
+// evicts the coldest channels once max-bytes is exceeded.
+@Component
+public class RecentMessageCache {
+
+    // Rough per-message heap cost besides the two strings: DTO, three UUIDs, timestamp, array slot
+    private static final int MESSAGE_BYTES = 240;
+    private static final int RING_BYTES = 64;
+    private static final int FILL_STRIPES = 64;
+    private static final Comparator<MessageResponse> NEWEST_FIRST = Comparator
+        .comparing((MessageResponse message) -> message.getCreatedAt().toInstant())
+        .thenComparing(MessageResponse::getId)
+        .reversed();
+
+    private final MessageRepository messageRepository;
+    private final int capacity;
+    private final long maxBytes;
+    private final Cache<UUID, ChannelRing> rings;
+    // Bumped by every write-through, so a fill that raced with a write is not cached
+    private final AtomicLongArray writeStamps = new AtomicLongArray(FILL_STRIPES);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public RecentMessageCache(MessageRepository messageRepository,
+                              @Value("${chat.message.recent-cache.capacity:100}") int capacity,
+                              @Value("${chat.message.recent-cache.max-bytes:64MB}") DataSize maxBytes,
+                              @Value("${chat.message.recent-cache.ttl:60s}") Duration ttl) {
+        this.messageRepository = messageRepository;
+        this.capacity = capacity;
+        this.maxBytes = maxBytes.toBytes();
+        this.rings = Caffeine.newBuilder()
+            .maximumWeight(this.maxBytes)
+            .weigher((UUID channelId, ChannelRing ring) -> ring.weight())
+            .expireAfter(new Expiry<UUID, ChannelRing>() {
+                // Write-through must not extend a ring's life, only a reload does
+                @Override
+                public long expireAfterCreate(UUID channelId, ChannelRing ring, long currentTime) {
+                    return ttl.toNanos();
+                }
+
+                @Override
+                public long expireAfterUpdate(UUID channelId, ChannelRing ring, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(UUID channelId, ChannelRing ring, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // Empty when the ring is missing or cannot answer a page of this size on its own
+    public Optional<Slice<MessageResponse>> findLatest(UUID channelId, int limit) {
+        ChannelRing ring = limit <= capacity ? rings.getIfPresent(channelId) : null;
+        Slice<MessageResponse> page = ring != null ? ring.newest(limit) : null;
+        (page != null ? hits : misses).increment();
+        return Optional.ofNullable(page);
+    }
+
+    // Reads the newest capacity messages and keeps them unless a write for the channel came in meanwhile;
+    // limit must not exceed capacity
+    public Slice<MessageResponse> load(UUID channelId, int limit) {
+        int stripe = stripe(channelId);
+        long stamp = writeStamps.get(stripe);
+        Slice<Message> newest = messageRepository.findLatestByChannelId(channelId, PageRequest.of(0, capacity));
+        ChannelRing ring = new ChannelRing(capacity, !newest.hasNext());
+        newest.getContent().forEach(message -> ring.append(snapshot(MessageResponse.fromMessage(message))));
+        if (writeStamps.get(stripe) == stamp) {
+            rings.put(channelId, ring);
+        }
+        return ring.newest(limit);
+    }
+
+    public boolean isCached(UUID channelId) {
+        return rings.getIfPresent(channelId) != null;
+    }
+
+    public void added(MessageResponse message) {
+        afterCommit(() -> update(message.getChannelId(), ring -> ring.add(snapshot(message))));
+    }
+
+    public void updated(MessageResponse message) {
+        afterCommit(() -> update(message.getChannelId(), ring -> ring.replace(snapshot(message))));
+    }
+
+    public void deleted(UUID channelId, UUID messageId) {
+        afterCommit(() -> update(channelId, ring -> ring.remove(messageId)));
+    }
+
+    public void invalidate(UUID channelId) {
+        afterCommit(() -> {
+            writeStamps.incrementAndGet(stripe(channelId));
+            rings.invalidate(channelId);
+        });
+    }
+
+    public RecentMessageCacheStatsResponse getStats() {
+        int messages = rings.asMap().values().stream().mapToInt(ChannelRing::size).sum();
+        long weight = rings.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+        return RecentMessageCacheStatsResponse.builder()
+            .channels(rings.estimatedSize())
+            .messages(messages)
+            .usedBytes(weight)
+            .maxBytes(maxBytes)
+            .hits(hits.sum())
+            .misses(misses.sum())
+            .evictions(rings.stats().evictionCount())
+            .build();
+    }
+
+    private void update(UUID channelId, Consumer<ChannelRing> change) {
+        writeStamps.incrementAndGet(stripe(channelId));
+        // Re-mapping the entry makes Caffeine re-weigh the ring
+        rings.asMap().computeIfPresent(channelId, (id, ring) -> {
+            change.accept(ring);
+            return ring;
+        });
+    }
+
+    // Rolled back writes must never reach the ring
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // The database keeps microseconds; cursors built from the ring must match the stored rows exactly
+    private static MessageResponse snapshot(MessageResponse message) {
+        return message.toBuilder()
+            .createdAt(message.getCreatedAt().truncatedTo(ChronoUnit.MICROS))
+            .build();
+    }
+
+    private static int stripe(UUID channelId) {
+        return channelId.hashCode() & (FILL_STRIPES - 1);
+    }
+
+    private static int estimate(MessageResponse message) {
+        int chars = (message.getContent() != null ? message.getContent().length() : 0)
+            + (message.getUsername() != null ? message.getUsername().length() : 0);
+        return MESSAGE_BYTES + 2 * chars;
+    }
+
+    // Newest first in a circular array: logical index i lives at slots[(head + i) % capacity]
+    static class ChannelRing {
+        private final MessageResponse[] slots;
+        private int head;
+        private int size;
+        private int bytes;
+        // True while the ring holds every message of the channel
+        private boolean complete;
+
+        ChannelRing(int capacity, boolean complete) {
+            this.slots = new MessageResponse[capacity];
+            this.complete = complete;
+        }
+
+        synchronized void add(MessageResponse message) {
+            int existing = indexOf(message.getId());
+            if (existing >= 0) {
+                set(existing, message);
+                return;
+            }
+            int position = 0;
+            while (position < size && NEWEST_FIRST.compare(get(position), message) < 0) {
+                position++;
+            }
+            if (position == size && (size == slots.length || !complete)) {
+                // Older than everything held, and the ring does not know what lies below its tail
+                return;
+            }
+            if (size == slots.length) {
+                bytes -= estimate(get(size - 1));
+                size--;
+                complete = false;
+            }
+            if (position == 0) {
+                // The common case, a new message: step head back instead of shifting
+                head = (head + slots.length - 1) % slots.length;
+            } else {
+                for (int i = size; i > position; i--) {
+                    slots[slot(i)] = get(i - 1);
+                }
+            }
+            slots[slot(position)] = message;
+            size++;
+            bytes += estimate(message);
+        }
+
+        // Only for filling, with messages passed newest first
+        synchronized void append(MessageResponse message) {
+            slots[slot(size++)] = message;
+            bytes += estimate(message);
+        }
+
+        synchronized void replace(MessageResponse message) {
+            int index = indexOf(message.getId());
+            if (index >= 0) {
+                set(index, message);
+            }
+        }
+
+        synchronized void remove(UUID messageId) {
+            int index = indexOf(messageId);
+            if (index < 0) {
+                return;
+            }
+            bytes -= estimate(get(index));
+            for (int i = index; i < size - 1; i++) {
+                slots[slot(i)] = get(i + 1);
+            }
+            slots[slot(size - 1)] = null;
+            size--;
+        }
+
+        // Null when the ring holds fewer than limit messages but the channel may have more
+        synchronized Slice<MessageResponse> newest(int limit) {
+            if (size < limit && !complete) {
+                return null;
+            }
+            int count = Math.min(limit, size);
+            List<MessageResponse> page = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                page.add(get(i));
+            }
+            return new SliceImpl<>(page, PageRequest.of(0, limit), size > limit || !complete);
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized int weight() {
+            return RING_BYTES + 4 * slots.length + bytes;
+        }
+
+        private MessageResponse get(int index) {
+            return slots[slot(index)];
+        }
+
+        private void set(int index, MessageResponse message) {
+            bytes += estimate(message) - estimate(get(index));
+            slots[slot(index)] = message;
+        }
+
+        private int slot(int index) {
+            return (head + index) % slots.length;
+        }
+
+        private int indexOf(UUID messageId) {
+            for (int i = 0; i < size; i++) {
+                if (get(i).getId().equals(messageId)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -1,68 +1,158 @@
 package com.chatgenius.service;
 
+import com.chatgenius.repository.TokenBlacklistRepository;
+import com.chatgenius.security.RevokedTokenFilter;
+import com.chatgenius.security.TokenAuthenticationCache;
+import com.chatgenius.util.TokenHashes;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
+// Revocation checks are answered from a local Bloom filter of revoked token hashes; Redis is only asked
+// on a probable hit. Every node adds revocations to its filter from Redis pub/sub and periodically
+// re-reads the blacklist from Redis to cover messages missed while disconnected. Until the first full
+// read succeeds the filter is not trusted and every check goes to Redis.
+@Slf4j
 @Service
-public class TokenBlacklistService {
+public class TokenBlacklistService implements MessageListener {
+
+    private static final char SEPARATOR = '|';
 
+    private final TokenBlacklistRepository tokenBlacklistRepository;
     private final RedisTemplate<String, String> redisTemplate;
-    private static final String BLACKLIST_PREFIX = "blacklist:";
+    private final TokenAuthenticationCache tokenCache;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final RevokedTokenFilter filter;
+    private final boolean filterEnabled;
+    private final String topic;
+    private final Duration resyncInterval;
+    private volatile boolean filterReady;
+    private ScheduledExecutorService resyncExecutor;
 
-    public TokenBlacklistService(RedisTemplate<String, String> redisTemplate) {
+    public TokenBlacklistService(TokenBlacklistRepository tokenBlacklistRepository,
+                                 RedisTemplate<String, String> redisTemplate,
+                                 TokenAuthenticationCache tokenCache,
+                                 RedisMessageListenerContainer listenerContainer,
+                                 @Value("${jwt.blacklist.filter.enabled:true}") boolean filterEnabled,
+                                 @Value("${jwt.blacklist.filter.expected-insertions:100000}") long expectedInsertions,
+                                 @Value("${jwt.blacklist.filter.false-positive-rate:0.001}") double falsePositiveRate,
+                                 @Value("${jwt.blacklist.filter.partition:15m}") Duration partition,
+                                 @Value("${jwt.blacklist.filter.resync-interval:5m}") Duration resyncInterval,
+                                 @Value("${jwt.blacklist.topic:blacklist:revocations}") String topic) {
+        this.tokenBlacklistRepository = tokenBlacklistRepository;
         this.redisTemplate = redisTemplate;
-        System.out.println("TokenBlacklistService initialized with Redis template");
+        this.tokenCache = tokenCache;
+        this.listenerContainer = listenerContainer;
+        this.filterEnabled = filterEnabled;
+        this.filter = new RevokedTokenFilter(expectedInsertions, falsePositiveRate, partition.toMillis());
+        this.resyncInterval = resyncInterval;
+        this.topic = topic;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!filterEnabled) {
+            return;
+        }
+        listenerContainer.addMessageListener(this, new ChannelTopic(topic));
+        resyncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-blacklist-resync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        resyncExecutor.scheduleWithFixedDelay(this::resync, 0, resyncInterval.toMillis(), TimeUnit.MILLISECONDS);
     }
 
+    @PreDestroy
+    public void stop() {
+        if (resyncExecutor != null) {
+            resyncExecutor.shutdownNow();
+        }
+    }
+
+    // The cache is evicted only once the revocation is visible to isTokenBlacklisted, so a verification
+    // racing with it either sees the revocation or is kept out of the cache by the eviction
     public void blacklistToken(String token, long expirationTimeInMillis) {
-        String key = BLACKLIST_PREFIX + token;
-        System.out.println("\n=== Blacklisting Token ===");
-        System.out.println("Key: " + key);
-        System.out.println("Expiration time: " + expirationTimeInMillis + "ms");
-        
-        try {
-            redisTemplate.opsForValue().set(key, "blacklisted", expirationTimeInMillis, TimeUnit.MILLISECONDS);
-            System.out.println("Token successfully blacklisted");
-            System.out.println("=== Blacklisting Complete ===\n");
-        } catch (Exception e) {
-            System.out.println("Failed to blacklist token: " + e.getMessage());
-            System.out.println("=== Blacklisting Failed ===\n");
-            throw e;
+        String tokenHash = TokenHashes.sha256(token);
+        long expiresAt = System.currentTimeMillis() + expirationTimeInMillis;
+        tokenBlacklistRepository.blacklistHash(tokenHash, expirationTimeInMillis);
+        filter.add(tokenHash, expiresAt);
+        tokenCache.invalidateTokenHash(tokenHash);
+        if (filterEnabled) {
+            try {
+                redisTemplate.convertAndSend(topic, tokenHash + SEPARATOR + expiresAt);
+            } catch (RuntimeException e) {
+                // Other nodes still pick it up on their next resync
+                log.warn("Failed to publish token revocation: {}", e.getMessage());
+            }
         }
+        log.debug("Token {} blacklisted for {}ms", tokenHash, expirationTimeInMillis);
     }
 
     public boolean isTokenBlacklisted(String token) {
-        String key = BLACKLIST_PREFIX + token;
-        System.out.println("\n=== Checking Token Blacklist ===");
-        System.out.println("Key: " + key);
-        
-        try {
-            Boolean result = redisTemplate.hasKey(key);
-            boolean isBlacklisted = Boolean.TRUE.equals(result);
-            System.out.println("Token blacklist status: " + (isBlacklisted ? "BLACKLISTED" : "NOT BLACKLISTED"));
-            System.out.println("=== Blacklist Check Complete ===\n");
-            return isBlacklisted;
-        } catch (Exception e) {
-            System.out.println("Failed to check token blacklist: " + e.getMessage());
-            System.out.println("=== Blacklist Check Failed ===\n");
-            throw e;
+        String tokenHash = TokenHashes.sha256(token);
+        if (filterReady && !filter.mightContain(tokenHash)) {
+            return false;
         }
+        return tokenBlacklistRepository.isHashBlacklisted(tokenHash);
     }
 
+    // The hash stays in the local filters until its partition ages out; Redis answers those lookups
     public void removeFromBlacklist(String token) {
-        String key = BLACKLIST_PREFIX + token;
-        System.out.println("\n=== Removing Token from Blacklist ===");
-        System.out.println("Key: " + key);
-        
+        tokenBlacklistRepository.removeFromBlacklist(token);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(SEPARATOR);
+        if (separator <= 0) {
+            log.warn("Ignoring malformed token revocation message");
+            return;
+        }
+        try {
+            String tokenHash = body.substring(0, separator);
+            filter.add(tokenHash, Long.parseLong(body.substring(separator + 1)));
+            tokenCache.invalidateTokenHash(tokenHash);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed token revocation message: {}", e.getMessage());
+        }
+    }
+
+    boolean isFilterReady() {
+        return filterReady;
+    }
+
+    void resync() {
         try {
-            Boolean deleted = redisTemplate.delete(key);
-            System.out.println("Token removal result: " + (Boolean.TRUE.equals(deleted) ? "REMOVED" : "NOT FOUND"));
-            System.out.println("=== Removal Complete ===\n");
-        } catch (Exception e) {
-            System.out.println("Failed to remove token from blacklist: " + e.getMessage());
-            System.out.println("=== Removal Failed ===\n");
-            throw e;
+            long now = System.currentTimeMillis();
+            int[] count = {0};
+            tokenBlacklistRepository.forEachBlacklisted((tokenHash, ttlMillis) -> {
+                filter.add(tokenHash, now + ttlMillis);
+                count[0]++;
+            });
+            filter.prune(now);
+            if (!filterReady) {
+                log.info("Token blacklist filter loaded with {} revoked tokens", count[0]);
+            }
+            filterReady = true;
+        } catch (RuntimeException e) {
+            // A stale filter could miss revocations published while we were disconnected
+            filterReady = false;
+            log.warn("Token blacklist resync failed, checking Redis directly until it succeeds: {}", e.getMessage());
         }
     }
-} 
\ No newline at end of file
+}
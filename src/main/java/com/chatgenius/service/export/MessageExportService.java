@@ -0,0 +1,78 @@
+package com.chatgenius.service.export;
+
+import com.chatgenius.dto.response.MessageResponse;
+import com.chatgenius.exception.ResourceNotFoundException;
+import com.chatgenius.model.Message;
+import com.chatgenius.repository.ChannelRepository;
+import com.chatgenius.repository.MessageRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Writes a channel's full history as NDJSON, one MessageResponse per line, oldest first. Rows come
+// from a forward-only cursor and the persistence context is cleared every CLEAR_INTERVAL rows, so
+// memory stays flat however long the channel is.
+@Slf4j
+@Service
+public class MessageExportService {
+
+    static final int CLEAR_INTERVAL = MessageRepository.EXPORT_FETCH_SIZE;
+
+    private final ChannelRepository channelRepository;
+    private final MessageRepository messageRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter writer;
+    private final ObjectMapper objectMapper;
+
+    public MessageExportService(ChannelRepository channelRepository,
+                                MessageRepository messageRepository,
+                                EntityManager entityManager,
+                                ObjectMapper objectMapper) {
+        this.channelRepository = channelRepository;
+        this.messageRepository = messageRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        // The response is flushed by the servlet container as its buffer fills, not after every row
+        this.writer = objectMapper.writerFor(MessageResponse.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    // Called before the response is committed so a missing channel is still a 404
+    @Transactional(readOnly = true)
+    public void requireChannel(UUID channelId) {
+        if (!channelRepository.existsById(channelId)) {
+            throw new ResourceNotFoundException("Channel not found: " + channelId);
+        }
+    }
+
+    // Returns the number of messages written; the caller owns and closes the stream
+    @Transactional(readOnly = true)
+    public long exportChannel(UUID channelId, OutputStream out) throws IOException {
+        long written = 0;
+        try (Stream<Message> messages = messageRepository.streamByChannelIdForExport(channelId);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<Message> rows = messages.iterator();
+            while (rows.hasNext()) {
+                writer.writeValue(generator, MessageResponse.fromMessage(rows.next()));
+                generator.writeRaw('\n');
+                if (++written % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        log.info("Exported {} messages from channel {}", written, channelId);
+        return written;
+    }
+}
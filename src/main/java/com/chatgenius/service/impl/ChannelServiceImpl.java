@@ -1,15 +1,25 @@
 package com.chatgenius.service.impl;
 
 import com.chatgenius.dto.request.CreateChannelRequest;
+import com.chatgenius.event.ChannelMembershipChangedEvent;
 import com.chatgenius.model.Channel;
 import com.chatgenius.model.enums.ChannelType;
 import com.chatgenius.model.User;
 import com.chatgenius.repository.ChannelRepository;
 import com.chatgenius.repository.UserRepository;
 import com.chatgenius.repository.MessageRepository;
+import com.chatgenius.repository.projection.ChannelSummary;
+import com.chatgenius.repository.projection.MemberSummary;
+import com.chatgenius.service.ChannelMembershipCache;
 import com.chatgenius.service.ChannelService;
+import com.chatgenius.service.RecentMessageCache;
+import com.chatgenius.service.thread.ThreadSummaryService;
 import com.chatgenius.exception.ResourceNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.core.Authentication;
@@ -25,15 +35,27 @@ import java.util.HashSet;
 @Transactional
 public class ChannelServiceImpl implements ChannelService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ChannelRepository channelRepository;
     private final MessageRepository messageRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChannelMembershipCache membershipCache;
+    private final RecentMessageCache recentMessages;
+    private final ThreadSummaryService threadSummaries;
 
     @Autowired
-    public ChannelServiceImpl(ChannelRepository channelRepository, MessageRepository messageRepository, UserRepository userRepository) {
+    public ChannelServiceImpl(ChannelRepository channelRepository, MessageRepository messageRepository, UserRepository userRepository,
+                              ApplicationEventPublisher eventPublisher, ChannelMembershipCache membershipCache,
+                              RecentMessageCache recentMessages, ThreadSummaryService threadSummaries) {
         this.channelRepository = channelRepository;
         this.messageRepository = messageRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.membershipCache = membershipCache;
+        this.recentMessages = recentMessages;
+        this.threadSummaries = threadSummaries;
     }
 
     @Override
@@ -61,12 +83,22 @@ public class ChannelServiceImpl implements ChannelService {
         
         channel.getMembers().add(user);
         channelRepository.save(channel);
+        eventPublisher.publishEvent(ChannelMembershipChangedEvent.added(channelId, user.getId()));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Channel> getAllChannels() {
-        return channelRepository.findAll();
+    public Page<ChannelSummary> getChannelSummaries(Pageable pageable) {
+        return channelRepository.findChannelSummaries(unsorted(pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<MemberSummary> getChannelMembers(UUID channelId, Pageable pageable) {
+        if (!channelRepository.existsById(channelId)) {
+            throw new ResourceNotFoundException("Channel not found with id: " + channelId);
+        }
+        return channelRepository.findMemberSummaries(channelId, unsorted(pageable));
     }
 
     @Override
@@ -80,8 +112,11 @@ public class ChannelServiceImpl implements ChannelService {
     @Transactional
     public void deleteChannel(UUID id) {
         Channel channel = getChannelById(id);
+        threadSummaries.channelDeleted(id);
         messageRepository.deleteByChannelId(id);
         channelRepository.delete(channel);
+        membershipCache.invalidateChannel(id);
+        recentMessages.invalidate(id);
     }
 
     @Override
@@ -102,5 +137,11 @@ public class ChannelServiceImpl implements ChannelService {
         
         channel.getMembers().remove(user);
         channelRepository.save(channel);
+        eventPublisher.publishEvent(ChannelMembershipChangedEvent.removed(channelId, user.getId()));
+    }
+
+    // Listing queries fix their own ordering; client sorts would be applied to the wrong alias
+    private static Pageable unsorted(Pageable pageable) {
+        return PageRequest.of(pageable.getPageNumber(), Math.min(pageable.getPageSize(), MAX_PAGE_SIZE));
     }
 } 
\ No newline at end of file
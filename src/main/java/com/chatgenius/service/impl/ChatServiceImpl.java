@@ -1,6 +1,8 @@
 package com.chatgenius.service.impl;
 
 import com.chatgenius.dto.request.CreateChannelRequest;
+import com.chatgenius.dto.response.MessageResponse;
+import com.chatgenius.event.ChannelMembershipChangedEvent;
 import com.chatgenius.exception.ResourceNotFoundException;
 import com.chatgenius.model.Channel;
 import com.chatgenius.model.Message;
@@ -10,8 +12,14 @@ import com.chatgenius.model.enums.MessageType;
 import com.chatgenius.repository.ChannelRepository;
 import com.chatgenius.repository.MessageRepository;
 import com.chatgenius.repository.UserRepository;
+import com.chatgenius.service.ChannelMembershipCache;
 import com.chatgenius.service.ChatService;
+import com.chatgenius.service.RecentMessageCache;
+import com.chatgenius.service.sequence.MessageSequencer;
+import com.chatgenius.service.thread.ThreadSummaryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.core.Authentication;
@@ -29,6 +37,14 @@ public class ChatServiceImpl implements ChatService {
     private final ChannelRepository channelRepository;
     private final UserRepository userRepository;
     private final MessageRepository messageRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChannelMembershipCache membershipCache;
+    private final RecentMessageCache recentMessages;
+    private final ThreadSummaryService threadSummaries;
+    private final MessageSequencer sequencer;
+
+    @Value("${chat.channel.message-counter.enabled:false}")
+    private boolean messageCounterEnabled;
 
     @Override
     @Transactional
@@ -58,7 +74,10 @@ public class ChatServiceImpl implements ChatService {
     @Transactional
     public void deleteChannel(UUID channelId) {
         Channel channel = getChannel(channelId);
+        threadSummaries.channelDeleted(channelId);
         channelRepository.delete(channel);
+        membershipCache.invalidateChannel(channelId);
+        recentMessages.invalidate(channelId);
     }
 
     @Override
@@ -73,10 +92,11 @@ public class ChatServiceImpl implements ChatService {
 
     @Override
     public List<UUID> getChannelMembers(UUID channelId) {
-        Channel channel = getChannel(channelId);
-        return channel.getMembers().stream()
-            .map(User::getId)
-            .collect(Collectors.toList());
+        List<UUID> memberIds = channelRepository.findMemberIds(channelId);
+        if (memberIds.isEmpty() && !channelRepository.existsById(channelId)) {
+            throw new ResourceNotFoundException("Channel not found");
+        }
+        return memberIds;
     }
 
     @Override
@@ -88,6 +108,7 @@ public class ChatServiceImpl implements ChatService {
             
         channel.getMembers().add(user);
         channelRepository.save(channel);
+        eventPublisher.publishEvent(ChannelMembershipChangedEvent.added(channelId, userId));
     }
 
     @Override
@@ -99,18 +120,16 @@ public class ChatServiceImpl implements ChatService {
             
         channel.getMembers().remove(user);
         channelRepository.save(channel);
+        eventPublisher.publishEvent(ChannelMembershipChangedEvent.removed(channelId, userId));
     }
 
     @Override
     @Transactional
     public Message sendMessage(UUID channelId, UUID userId, String content, MessageType type) {
-        Channel channel = getChannel(channelId);
+        requireMember(channelId, userId);
+        Channel channel = channelRepository.getReferenceById(channelId);
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-            
-        if (!channel.getMembers().contains(user)) {
-            throw new IllegalStateException("User is not a member of this channel");
-        }
 
         Message message = new Message();
         message.setContent(content);
@@ -118,20 +137,21 @@ public class ChatServiceImpl implements ChatService {
         message.setUser(user);
         message.setChannel(channel);
         message.setCreatedAt(ZonedDateTime.now());
+        message.setSeq(sequencer.next(channelId));
         
-        return messageRepository.save(message);
+        Message saved = messageRepository.save(message);
+        adjustMessageCount(channelId);
+        recentMessages.added(MessageResponse.fromMessage(saved));
+        return saved;
     }
 
     @Override
     @Transactional
     public Message sendThreadReply(UUID channelId, UUID threadId, UUID userId, String content) {
-        Channel channel = getChannel(channelId);
+        requireMember(channelId, userId);
+        Channel channel = channelRepository.getReferenceById(channelId);
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-            
-        if (!channel.getMembers().contains(user)) {
-            throw new IllegalStateException("User is not a member of this channel");
-        }
 
         Message threadMessage = messageRepository.findById(threadId)
             .orElseThrow(() -> new ResourceNotFoundException("Thread message not found"));
@@ -147,18 +167,44 @@ public class ChatServiceImpl implements ChatService {
         reply.setChannel(channel);
         reply.setThreadId(threadId);
         reply.setCreatedAt(ZonedDateTime.now());
+        reply.setSeq(sequencer.next(channelId));
         
-        return messageRepository.save(reply);
+        Message saved = messageRepository.save(reply);
+        adjustMessageCount(channelId);
+        threadSummaries.replyAdded(saved);
+        recentMessages.added(MessageResponse.fromMessage(saved));
+        return saved;
     }
 
     @Override
     public boolean isChannelMember(UUID channelId, UUID userId) {
-        Channel channel = channelRepository.findById(channelId)
-            .orElseThrow(() -> new ResourceNotFoundException("Channel not found"));
-        
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-            
-        return channel.getMembers().contains(user);
+        if (membershipCache.isMember(channelId, userId)) {
+            return true;
+        }
+        // Not a member: only now is it worth finding out whether either side is missing altogether
+        requireChannelAndUser(channelId, userId);
+        return false;
+    }
+
+    private void requireMember(UUID channelId, UUID userId) {
+        if (!membershipCache.isMember(channelId, userId)) {
+            requireChannelAndUser(channelId, userId);
+            throw new IllegalStateException("User is not a member of this channel");
+        }
+    }
+
+    private void requireChannelAndUser(UUID channelId, UUID userId) {
+        if (!channelRepository.existsById(channelId)) {
+            throw new ResourceNotFoundException("Channel not found");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+    }
+
+    private void adjustMessageCount(UUID channelId) {
+        if (messageCounterEnabled) {
+            channelRepository.adjustMessageCount(channelId, 1);
+        }
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.chatgenius.service.impl;
 
 import com.chatgenius.dto.request.CreateMessageRequest;
+import com.chatgenius.dto.request.MessageCursor;
+import com.chatgenius.dto.response.MessageResponse;
 import com.chatgenius.exception.ResourceNotFoundException;
 import com.chatgenius.exception.ValidationException;
 import com.chatgenius.model.Channel;
@@ -10,16 +12,29 @@ import com.chatgenius.model.enums.MessageType;
 import com.chatgenius.repository.ChannelRepository;
 import com.chatgenius.repository.MessageRepository;
 import com.chatgenius.repository.UserRepository;
+import com.chatgenius.repository.projection.MessageSearchHit;
+import com.chatgenius.service.ChannelMembershipCache;
 import com.chatgenius.service.MessageService;
+import com.chatgenius.service.RecentMessageCache;
+import com.chatgenius.service.sequence.MessageSequencer;
+import com.chatgenius.service.thread.ThreadSummaryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -27,9 +42,21 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class MessageServiceImpl implements MessageService {
 
+    private static final int MAX_HISTORY_LIMIT = 100;
+    private static final int MAX_SEARCH_QUERY_LENGTH = 256;
+    private static final Sort HISTORY_ORDER = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
     private final MessageRepository messageRepository;
     private final ChannelRepository channelRepository;
     private final UserRepository userRepository;
+    private final ChannelMembershipCache membershipCache;
+    private final RecentMessageCache recentMessages;
+    private final ThreadSummaryService threadSummaries;
+    private final MessageSequencer sequencer;
+
+    // When enabled, channels.message_count is kept in step with inserts and deletes
+    @Value("${chat.channel.message-counter.enabled:false}")
+    private boolean messageCounterEnabled;
 
     @Override
     public Message createMessage(CreateMessageRequest request) {
@@ -40,15 +67,11 @@ public class MessageServiceImpl implements MessageService {
             throw new ValidationException("Message type must be specified");
         }
 
-        Channel channel = channelRepository.findById(request.getChannelId())
-            .orElseThrow(() -> new ResourceNotFoundException("Channel not found: " + request.getChannelId()));
+        requireMember(request.getChannelId(), request.getUserId());
+        Channel channel = channelRepository.getReferenceById(request.getChannelId());
         User user = userRepository.findById(request.getUserId())
             .orElseThrow(() -> new ResourceNotFoundException("User not found: " + request.getUserId()));
 
-        if (!channel.getMembers().contains(user)) {
-            throw new ValidationException("User is not a member of this channel");
-        }
-
         Message message = new Message();
         message.setContent(request.getContent());
         message.setChannel(channel);
@@ -59,8 +82,15 @@ public class MessageServiceImpl implements MessageService {
         if (request.getThreadId() != null) {
             message.setThreadId(request.getThreadId());
         }
+        message.setSeq(sequencer.next(channel.getId()));
 
-        return messageRepository.save(message);
+        Message saved = messageRepository.save(message);
+        adjustMessageCount(channel.getId(), 1);
+        if (saved.getThreadId() != null) {
+            threadSummaries.replyAdded(saved);
+        }
+        recentMessages.added(MessageResponse.fromMessage(saved));
+        return saved;
     }
 
     @Override
@@ -74,13 +104,62 @@ public class MessageServiceImpl implements MessageService {
         if (!channelRepository.existsById(channelId)) {
             throw new ResourceNotFoundException("Channel not found: " + channelId);
         }
-        List<Message> messages = messageRepository.findByChannelId(channelId);
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), messages.size());
-        return new PageImpl<>(messages.subList(start, end), pageable, messages.size());
+        if (pageable.getSort().isUnsorted()) {
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), HISTORY_ORDER);
+        }
+        return messageRepository.findPageByChannelId(channelId, pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Slice<Message> getChannelHistory(UUID channelId, MessageCursor before, MessageCursor after, int limit) {
+        if (!channelRepository.existsById(channelId)) {
+            throw new ResourceNotFoundException("Channel not found: " + channelId);
+        }
+        if (limit <= 0 || limit > MAX_HISTORY_LIMIT) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_HISTORY_LIMIT);
+        }
+        if (before != null && after != null) {
+            throw new ValidationException("Only one of 'before' or 'after' may be specified");
+        }
+
+        Pageable page = PageRequest.of(0, limit);
+        if (before != null) {
+            return messageRepository.findByChannelIdBefore(channelId, before.getCreatedAt(), before.getId(), page);
+        }
+        if (after != null) {
+            // Fetched oldest first; flip so every history page is newest first
+            Slice<Message> newer = messageRepository.findByChannelIdAfter(channelId, after.getCreatedAt(), after.getId(), page);
+            List<Message> content = new ArrayList<>(newer.getContent());
+            Collections.reverse(content);
+            return new SliceImpl<>(content, newer.getPageable(), newer.hasNext());
+        }
+        return messageRepository.findLatestByChannelId(channelId, page);
+    }
+
+    // No transaction of its own: a page served from the recent-message ring must not take a connection
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Slice<MessageResponse> getLatestHistory(UUID channelId, int limit) {
+        if (limit <= 0 || limit > MAX_HISTORY_LIMIT) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_HISTORY_LIMIT);
+        }
+        Optional<Slice<MessageResponse>> cached = recentMessages.findLatest(channelId, limit);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        if (!channelRepository.existsById(channelId)) {
+            throw new ResourceNotFoundException("Channel not found: " + channelId);
+        }
+        if (limit > recentMessages.getCapacity()) {
+            return messageRepository.findLatestByChannelId(channelId, PageRequest.of(0, limit))
+                .map(MessageResponse::fromMessage);
+        }
+        return recentMessages.load(channelId, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Message> getLatestMessages(UUID channelId, int limit) {
         if (!channelRepository.existsById(channelId)) {
             throw new ResourceNotFoundException("Channel not found: " + channelId);
@@ -88,8 +167,7 @@ public class MessageServiceImpl implements MessageService {
         if (limit <= 0) {
             throw new ValidationException("Limit must be greater than 0");
         }
-        List<Message> messages = messageRepository.findByChannelId(channelId);
-        return messages.subList(0, Math.min(limit, messages.size()));
+        return messageRepository.findLatestByChannelId(channelId, PageRequest.of(0, limit)).getContent();
     }
 
     @Override
@@ -100,15 +178,22 @@ public class MessageServiceImpl implements MessageService {
 
         Message message = getMessage(messageId);
         message.setContent(content);
-        return messageRepository.save(message);
+        Message saved = messageRepository.save(message);
+        recentMessages.updated(MessageResponse.fromMessage(saved));
+        return saved;
     }
 
     @Override
     public void deleteMessage(UUID messageId) {
-        if (!messageRepository.existsById(messageId)) {
-            throw new ResourceNotFoundException("Message not found: " + messageId);
+        // deleteById would load the row anyway; loading it here also tells us which channel's ring to fix
+        Message message = getMessage(messageId);
+        UUID channelId = message.getChannel().getId();
+        messageRepository.delete(message);
+        adjustMessageCount(channelId, -1);
+        if (message.getThreadId() != null) {
+            threadSummaries.replyRemoved(message);
         }
-        messageRepository.deleteById(messageId);
+        recentMessages.deleted(channelId, messageId);
     }
 
     @Override
@@ -121,15 +206,11 @@ public class MessageServiceImpl implements MessageService {
         }
 
         Message parentMessage = getMessage(threadId);
-        Channel channel = channelRepository.findById(channelId)
-            .orElseThrow(() -> new ResourceNotFoundException("Channel not found: " + channelId));
+        requireMember(channelId, userId);
+        Channel channel = channelRepository.getReferenceById(channelId);
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
 
-        if (!channel.getMembers().contains(user)) {
-            throw new ValidationException("User is not a member of this channel");
-        }
-
         if (!parentMessage.getChannel().getId().equals(channelId)) {
             throw new ValidationException("Reply must be in the same channel as the parent message");
         }
@@ -141,8 +222,13 @@ public class MessageServiceImpl implements MessageService {
         reply.setType(type);
         reply.setThreadId(threadId);
         reply.setCreatedAt(ZonedDateTime.now());
+        reply.setSeq(sequencer.next(channelId));
 
-        return messageRepository.save(reply);
+        Message saved = messageRepository.save(reply);
+        adjustMessageCount(channelId, 1);
+        threadSummaries.replyAdded(saved);
+        recentMessages.added(MessageResponse.fromMessage(saved));
+        return saved;
     }
 
     @Override
@@ -154,21 +240,90 @@ public class MessageServiceImpl implements MessageService {
     }
 
     @Override
-    public List<Message> searchMessages(UUID channelId, String keyword) {
+    @Transactional(readOnly = true)
+    public Slice<Message> getThreadReplies(UUID threadId, MessageCursor after, int limit) {
+        if (!messageRepository.existsById(threadId)) {
+            throw new ResourceNotFoundException("Thread not found: " + threadId);
+        }
+        if (limit <= 0 || limit > MAX_HISTORY_LIMIT) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_HISTORY_LIMIT);
+        }
+        Pageable page = PageRequest.of(0, limit);
+        if (after != null) {
+            return messageRepository.findRepliesByThreadIdAfter(threadId, after.getCreatedAt(), after.getId(), page);
+        }
+        return messageRepository.findFirstRepliesByThreadId(threadId, page);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Message> getMessagesSince(UUID channelId, long afterSeq, int limit) {
         if (!channelRepository.existsById(channelId)) {
             throw new ResourceNotFoundException("Channel not found: " + channelId);
         }
-        if (keyword == null || keyword.trim().isEmpty()) {
+        if (afterSeq < 0) {
+            throw new ValidationException("afterSeq must not be negative");
+        }
+        if (limit <= 0 || limit > MAX_HISTORY_LIMIT) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_HISTORY_LIMIT);
+        }
+        return messageRepository.findByChannelIdAfterSeq(channelId, afterSeq, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getLastSeq(UUID channelId) {
+        return channelRepository.findLastSeqById(channelId)
+            .orElseThrow(() -> new ResourceNotFoundException("Channel not found: " + channelId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<MessageSearchHit> searchMessages(UUID channelId, String query, Pageable pageable) {
+        if (!channelRepository.existsById(channelId)) {
+            throw new ResourceNotFoundException("Channel not found: " + channelId);
+        }
+        if (query == null || query.trim().isEmpty()) {
             throw new ValidationException("Search keyword cannot be empty");
         }
-        return messageRepository.findByChannelId(channelId);
+        if (query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new ValidationException("Search query must be at most " + MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+        // Results are ordered by relevance in the query itself; client sorts would break the native SQL
+        Pageable page = PageRequest.of(pageable.getPageNumber(), Math.min(pageable.getPageSize(), MAX_HISTORY_LIMIT));
+        return messageRepository.searchByChannelId(channelId, query.trim(), page);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public long getMessageCount(UUID channelId) {
+        if (messageCounterEnabled) {
+            return channelRepository.findMessageCountById(channelId)
+                .orElseThrow(() -> new ResourceNotFoundException("Channel not found: " + channelId));
+        }
         if (!channelRepository.existsById(channelId)) {
             throw new ResourceNotFoundException("Channel not found: " + channelId);
         }
-        return messageRepository.findByChannelId(channelId).size();
+        return messageRepository.countByChannelId(channelId);
+    }
+
+    // Membership is answered from channel_members directly; the 404s are only worked out on the failure path
+    private void requireMember(UUID channelId, UUID userId) {
+        if (membershipCache.isMember(channelId, userId)) {
+            return;
+        }
+        if (!channelRepository.existsById(channelId)) {
+            throw new ResourceNotFoundException("Channel not found: " + channelId);
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found: " + userId);
+        }
+        throw new ValidationException("User is not a member of this channel");
+    }
+
+    private void adjustMessageCount(UUID channelId, long delta) {
+        if (messageCounterEnabled) {
+            channelRepository.adjustMessageCount(channelId, delta);
+        }
     }
 } 
\ No newline at end of file
@@ -6,6 +6,8 @@ import com.chatgenius.exception.ValidationException;
 import com.chatgenius.model.User;
 import com.chatgenius.model.enums.UserStatus;
 import com.chatgenius.repository.UserRepository;
+import com.chatgenius.security.TokenAuthenticationCache;
+import com.chatgenius.service.AuthorCache;
 import com.chatgenius.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,20 +15,20 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 import java.time.ZonedDateTime;
 
 @Service
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
-    private final Map<UUID, String> userStatuses = new ConcurrentHashMap<>();
-    private final Map<UUID, Set<UUID>> channelUsers = new ConcurrentHashMap<>();
+    private final TokenAuthenticationCache tokenCache;
+    private final AuthorCache authorCache;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, TokenAuthenticationCache tokenCache, AuthorCache authorCache) {
         this.userRepository = userRepository;
+        this.tokenCache = tokenCache;
+        this.authorCache = authorCache;
     }
 
     @Override
@@ -63,10 +65,10 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public void deleteUser(UUID id) {
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("User not found with id: " + id);
-        }
-        userRepository.deleteById(id);
+        User user = getUser(id);
+        userRepository.delete(user);
+        tokenCache.invalidateUser(user.getUsername());
+        authorCache.invalidate(id);
     }
 
     @Override
@@ -81,7 +83,11 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User save(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        // Roles may have changed; cached authentications must be re-resolved
+        tokenCache.invalidateUser(saved.getUsername());
+        authorCache.invalidate(saved.getId());
+        return saved;
     }
 
     @Override
@@ -89,24 +95,4 @@ public class UserServiceImpl implements UserService {
         return userRepository.findByUsername(username)
             .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
     }
-
-    @Override
-    public List<User> getOnlineUsers(UUID channelId) {
-        Set<UUID> channelUserIds = channelUsers.getOrDefault(channelId, Collections.emptySet());
-        return channelUserIds.stream()
-            .filter(userId -> "online".equals(userStatuses.get(userId)))
-            .map(this::getUser)
-            .filter(Objects::nonNull)
-            .collect(Collectors.toList());
-    }
-
-    @Override
-    public String getUserStatus(UUID userId) {
-        return userStatuses.getOrDefault(userId, "offline");
-    }
-
-    @Override
-    public void updateUserStatus(UUID userId, String status) {
-        userStatuses.put(userId, status);
-    }
 } 
\ No newline at end of file
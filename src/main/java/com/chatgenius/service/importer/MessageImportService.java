@@ -0,0 +1,272 @@
+package com.chatgenius.service.importer;
+
+import com.chatgenius.dto.request.ImportMessageRequest;
+import com.chatgenius.dto.response.MessageImportResponse;
+import com.chatgenius.exception.ResourceNotFoundException;
+import com.chatgenius.exception.ValidationException;
+import com.chatgenius.model.enums.MessageType;
+import com.chatgenius.repository.ChannelRepository;
+import com.chatgenius.repository.ImportCheckpointRepository;
+import com.chatgenius.repository.UserRepository;
+import com.chatgenius.repository.projection.ChannelIdentity;
+import com.chatgenius.repository.projection.ChannelMember;
+import com.chatgenius.repository.projection.UserIdentity;
+import com.chatgenius.service.writebehind.MessageBatchWriter;
+import com.chatgenius.service.writebehind.PendingMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+// Replays NDJSON message streams from other systems. Lines are parsed and grouped into batches;
+// each batch resolves its usernames, channels and memberships with one query apiece and is inserted through
+// MessageBatchWriter as a single JDBC batch. After every batch the import's checkpoint is saved, so
+// an interrupted import resent under the same importId skips the lines it already handled. Lines
+// carrying an externalId are idempotent even if a batch committed just before its checkpoint.
+@Slf4j
+@Service
+public class MessageImportService {
+
+    static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_EXTERNAL_ID_LENGTH = 64;
+    private static final Pattern IMPORT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final UserRepository userRepository;
+    private final ChannelRepository channelRepository;
+    private final MessageBatchWriter writer;
+    private final ImportCheckpointRepository checkpoints;
+    private final ObjectReader reader;
+    private final int batchSize;
+
+    public MessageImportService(UserRepository userRepository,
+                                ChannelRepository channelRepository,
+                                MessageBatchWriter writer,
+                                ImportCheckpointRepository checkpoints,
+                                ObjectMapper objectMapper,
+                                @Value("${chat.message.import.batch-size:1000}") int batchSize) {
+        this.userRepository = userRepository;
+        this.channelRepository = channelRepository;
+        this.writer = writer;
+        this.checkpoints = checkpoints;
+        this.reader = objectMapper.readerFor(ImportMessageRequest.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.batchSize = batchSize;
+    }
+
+    public MessageImportResponse getProgress(String importId) {
+        return checkpoints.find(importId)
+            .orElseThrow(() -> new ResourceNotFoundException("Import not found: " + importId));
+    }
+
+    public MessageImportResponse importMessages(String importId, InputStream input) throws IOException {
+        if (importId == null || importId.isBlank()) {
+            importId = UUID.randomUUID().toString();
+        } else if (!IMPORT_ID.matcher(importId).matches()) {
+            throw new ValidationException("Import id must be 1-64 letters, digits, '-' or '_'");
+        }
+        String id = importId;
+        MessageImportResponse progress = checkpoints.find(id)
+            .orElseGet(() -> MessageImportResponse.builder().importId(id).build());
+        long resumeAfter = progress.getProcessedLines();
+        if (resumeAfter > 0) {
+            log.info("Resuming import {} after line {}", id, resumeAfter);
+        }
+        progress.setStatus(MessageImportResponse.Status.RUNNING);
+        progress.setErrors(new ArrayList<>());
+
+        BufferedReader lines = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<ParsedLine> batch = new ArrayList<>(batchSize);
+        long lineNumber = 0;
+        try {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber <= resumeAfter || line.isBlank()) {
+                    continue;
+                }
+                ParsedLine parsed = parse(lineNumber, line, progress);
+                if (parsed != null) {
+                    batch.add(parsed);
+                }
+                if (batch.size() >= batchSize) {
+                    writeBatch(batch, progress);
+                    checkpoint(progress, lineNumber);
+                    batch.clear();
+                }
+            }
+            writeBatch(batch, progress);
+        } catch (IOException | RuntimeException e) {
+            // Counters since the last checkpoint belong to lines a resumed import will read again
+            MessageImportResponse committed = checkpoints.find(id)
+                .orElseGet(() -> MessageImportResponse.builder().importId(id).build());
+            committed.setStatus(MessageImportResponse.Status.FAILED);
+            checkpoint(committed, committed.getProcessedLines());
+            log.warn("Import {} stopped after line {}: {}", id, committed.getProcessedLines(), e.getMessage());
+            throw e;
+        }
+        progress.setStatus(MessageImportResponse.Status.COMPLETED);
+        checkpoint(progress, Math.max(lineNumber, resumeAfter));
+        log.info("Import {} completed: {} imported, {} duplicates, {} failed",
+            id, progress.getImported(), progress.getDuplicates(), progress.getFailed());
+        return progress;
+    }
+
+    private ParsedLine parse(long lineNumber, String line, MessageImportResponse progress) {
+        ImportMessageRequest request;
+        try {
+            request = reader.readValue(line);
+        } catch (JsonProcessingException e) {
+            reject(progress, lineNumber, "malformed JSON");
+            return null;
+        }
+        if (request.getContent() == null || request.getContent().trim().isEmpty()) {
+            reject(progress, lineNumber, "content is empty");
+        } else if (request.getUsername() == null || request.getUsername().isBlank()) {
+            reject(progress, lineNumber, "username is missing");
+        } else if (request.getChannelId() == null && (request.getChannel() == null || request.getChannel().isBlank())) {
+            reject(progress, lineNumber, "channelId or channel is required");
+        } else if (request.getExternalId() != null && request.getExternalId().length() > MAX_EXTERNAL_ID_LENGTH) {
+            reject(progress, lineNumber, "externalId is longer than " + MAX_EXTERNAL_ID_LENGTH + " characters");
+        } else {
+            return new ParsedLine(lineNumber, request);
+        }
+        return null;
+    }
+
+    private void writeBatch(List<ParsedLine> batch, MessageImportResponse progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Lookups lookups = resolve(batch);
+        List<PendingMessage> messages = new ArrayList<>(batch.size());
+        for (ParsedLine line : batch) {
+            ImportMessageRequest request = line.request;
+            UUID userId = lookups.users.get(request.getUsername());
+            UUID channelId = request.getChannelId() != null
+                ? (lookups.channelIds.contains(request.getChannelId()) ? request.getChannelId() : null)
+                : lookups.channelsByName.get(request.getChannel());
+            if (userId == null) {
+                reject(progress, line.number, "unknown user " + request.getUsername());
+            } else if (channelId == null) {
+                reject(progress, line.number, request.getChannelId() != null
+                    ? "unknown channel " + request.getChannelId()
+                    : "unknown or ambiguous channel " + request.getChannel());
+            } else if (!lookups.isMember(channelId, userId)) {
+                // Same rule as createMessage: only members may post to a channel
+                reject(progress, line.number, "user " + request.getUsername() + " is not a member of channel " + channelId);
+            } else {
+                messages.add(PendingMessage.imported(channelId, userId, request.getContent(),
+                    request.getType() != null ? request.getType() : MessageType.TEXT,
+                    request.getThreadId(),
+                    request.getCreatedAt() != null ? request.getCreatedAt() : ZonedDateTime.now(),
+                    request.getExternalId()));
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        writer.write(messages);
+        for (PendingMessage message : messages) {
+            UUID storedId = message.getPersisted().getNow(null);
+            if (storedId == null) {
+                progress.setFailed(progress.getFailed() + 1);
+            } else if (storedId.equals(message.getId())) {
+                progress.setImported(progress.getImported() + 1);
+            } else {
+                progress.setDuplicates(progress.getDuplicates() + 1);
+            }
+        }
+    }
+
+    // One query per kind of reference for the whole batch instead of lookups per line
+    private Lookups resolve(List<ParsedLine> batch) {
+        Set<String> usernames = new HashSet<>();
+        Set<UUID> channelIds = new HashSet<>();
+        Set<String> channelNames = new HashSet<>();
+        for (ParsedLine line : batch) {
+            usernames.add(line.request.getUsername());
+            if (line.request.getChannelId() != null) {
+                channelIds.add(line.request.getChannelId());
+            } else {
+                channelNames.add(line.request.getChannel());
+            }
+        }
+        Lookups lookups = new Lookups();
+        for (UserIdentity user : userRepository.findIdentitiesByUsernameIn(usernames)) {
+            lookups.users.put(user.getUsername(), user.getId());
+        }
+        if (!channelIds.isEmpty()) {
+            lookups.channelIds.addAll(channelRepository.findExistingIds(channelIds));
+        }
+        if (!channelNames.isEmpty()) {
+            Set<String> ambiguous = new HashSet<>();
+            for (ChannelIdentity channel : channelRepository.findIdentitiesByNameIn(channelNames)) {
+                if (lookups.channelsByName.putIfAbsent(channel.getName(), channel.getId()) != null) {
+                    ambiguous.add(channel.getName());
+                }
+            }
+            ambiguous.forEach(lookups.channelsByName::remove);
+        }
+        Set<UUID> resolvedChannels = new HashSet<>(lookups.channelIds);
+        resolvedChannels.addAll(lookups.channelsByName.values());
+        if (!resolvedChannels.isEmpty() && !lookups.users.isEmpty()) {
+            for (ChannelMember member : channelRepository.findMemberships(resolvedChannels, lookups.users.values())) {
+                lookups.members.computeIfAbsent(member.getChannelId(), channelId -> new HashSet<>()).add(member.getUserId());
+            }
+        }
+        return lookups;
+    }
+
+    private void reject(MessageImportResponse progress, long lineNumber, String reason) {
+        progress.setFailed(progress.getFailed() + 1);
+        if (progress.getErrors().size() < MAX_REPORTED_ERRORS) {
+            progress.getErrors().add("line " + lineNumber + ": " + reason);
+        }
+    }
+
+    private void checkpoint(MessageImportResponse progress, long processedLines) {
+        progress.setProcessedLines(processedLines);
+        progress.setUpdatedAt(ZonedDateTime.now());
+        checkpoints.save(progress);
+        log.debug("Import {} at line {}", progress.getImportId(), processedLines);
+    }
+
+    private static class ParsedLine {
+        final long number;
+        final ImportMessageRequest request;
+
+        ParsedLine(long number, ImportMessageRequest request) {
+            this.number = number;
+            this.request = request;
+        }
+    }
+
+    private static class Lookups {
+        final Map<String, UUID> users = new HashMap<>();
+        final Set<UUID> channelIds = new HashSet<>();
+        final Map<String, UUID> channelsByName = new HashMap<>();
+        final Map<UUID, Set<UUID>> members = new HashMap<>();
+
+        boolean isMember(UUID channelId, UUID userId) {
+            return members.getOrDefault(channelId, Set.of()).contains(userId);
+        }
+    }
+}
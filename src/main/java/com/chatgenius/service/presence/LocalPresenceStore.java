@@ -0,0 +1,127 @@
+package com.chatgenius.service.presence;
+
+import com.chatgenius.dto.response.PresenceResponse;
+import com.chatgenius.model.enums.UserStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Single-node presence: only sessions connected to this JVM are known
+@Component
+@ConditionalOnProperty(name = "chat.presence.store", havingValue = "local", matchIfMissing = true)
+public class LocalPresenceStore implements PresenceStore {
+
+    private final Map<UUID, UserEntry> users = new ConcurrentHashMap<>();
+    // channel -> user -> expiry of the user's latest heartbeat
+    private final Map<UUID, Map<UUID, Long>> channels = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean touch(PresenceSession session, long expiresAtMillis) {
+        long now = System.currentTimeMillis();
+        boolean[] cameOnline = {false};
+        users.compute(session.getUserId(), (userId, entry) -> {
+            if (entry == null || !entry.isLive(now)) {
+                cameOnline[0] = true;
+                entry = new UserEntry();
+            }
+            entry.username = session.getUsername();
+            entry.sessions.put(session.getSessionId(), expiresAtMillis);
+            return entry;
+        });
+        session.getChannelIds().forEach(channelId -> addChannel(session.getUserId(), channelId, expiresAtMillis));
+        return cameOnline[0];
+    }
+
+    @Override
+    public void touchAll(Collection<PresenceSession> sessions, long expiresAtMillis) {
+        sessions.forEach(session -> touch(session, expiresAtMillis));
+        long now = System.currentTimeMillis();
+        users.values().removeIf(entry -> !entry.isLive(now));
+    }
+
+    @Override
+    public boolean remove(PresenceSession session) {
+        long now = System.currentTimeMillis();
+        boolean[] wentOffline = {false};
+        users.computeIfPresent(session.getUserId(), (userId, entry) -> {
+            entry.sessions.remove(session.getSessionId());
+            if (entry.isLive(now)) {
+                return entry;
+            }
+            wentOffline[0] = true;
+            return null;
+        });
+        if (wentOffline[0]) {
+            session.getChannelIds().forEach(channelId -> removeChannel(session.getUserId(), channelId));
+        }
+        return wentOffline[0];
+    }
+
+    @Override
+    public void addChannel(UUID userId, UUID channelId, long expiresAtMillis) {
+        channels.computeIfAbsent(channelId, key -> new ConcurrentHashMap<>()).put(userId, expiresAtMillis);
+    }
+
+    @Override
+    public void removeChannel(UUID userId, UUID channelId) {
+        channels.computeIfPresent(channelId, (key, online) -> {
+            online.remove(userId);
+            return online.isEmpty() ? null : online;
+        });
+    }
+
+    @Override
+    public boolean setStatus(UUID userId, UserStatus status) {
+        long now = System.currentTimeMillis();
+        UserEntry entry = users.get(userId);
+        if (entry == null || !entry.isLive(now)) {
+            return false;
+        }
+        UserStatus previous = entry.status;
+        entry.status = status;
+        return previous != status;
+    }
+
+    @Override
+    public Optional<PresenceResponse> get(UUID userId) {
+        long now = System.currentTimeMillis();
+        UserEntry entry = users.get(userId);
+        if (entry == null || !entry.isLive(now)) {
+            return Optional.empty();
+        }
+        return Optional.of(new PresenceResponse(userId, entry.username, entry.status));
+    }
+
+    @Override
+    public List<PresenceResponse> getOnline(UUID channelId) {
+        Map<UUID, Long> online = channels.get(channelId);
+        if (online == null) {
+            return List.of();
+        }
+        long now = System.currentTimeMillis();
+        online.values().removeIf(expiresAt -> expiresAt <= now);
+        List<PresenceResponse> result = new ArrayList<>(online.size());
+        for (UUID userId : online.keySet()) {
+            get(userId).ifPresent(result::add);
+        }
+        return result;
+    }
+
+    private static class UserEntry {
+        volatile String username;
+        volatile UserStatus status = UserStatus.ONLINE;
+        final Map<String, Long> sessions = new ConcurrentHashMap<>();
+
+        boolean isLive(long now) {
+            sessions.values().removeIf(expiresAt -> expiresAt <= now);
+            return !sessions.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.chatgenius.service.presence;
+
+import com.chatgenius.dto.response.PresenceResponse;
+import com.chatgenius.event.ChannelMembershipChangedEvent;
+import com.chatgenius.event.PresenceChangedEvent;
+import com.chatgenius.exception.ValidationException;
+import com.chatgenius.model.enums.UserStatus;
+import com.chatgenius.repository.ChannelRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Presence of the WebSocket sessions held by this node. Connects and disconnects are written to the
+// PresenceStore straight away; a heartbeat re-touches every local session each refresh-interval, so
+// entries stay alive while the node is and expire within ttl once it is gone. Changes are published
+// as PresenceChangedEvent; reads never touch the database.
+@Slf4j
+@Service
+public class PresenceService {
+
+    private final PresenceStore store;
+    private final ChannelRepository channelRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration ttl;
+    private final Duration refreshInterval;
+    private final Map<String, PresenceSession> localSessions = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<PresenceSession>> localSessionsByUser = new ConcurrentHashMap<>();
+    private ScheduledExecutorService heartbeat;
+
+    public PresenceService(PresenceStore store,
+                           ChannelRepository channelRepository,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${chat.presence.ttl:90s}") Duration ttl,
+                           @Value("${chat.presence.refresh-interval:30s}") Duration refreshInterval) {
+        if (refreshInterval.compareTo(ttl) >= 0) {
+            throw new IllegalArgumentException("chat.presence.refresh-interval must be shorter than chat.presence.ttl");
+        }
+        this.store = store;
+        this.channelRepository = channelRepository;
+        this.eventPublisher = eventPublisher;
+        this.ttl = ttl;
+        this.refreshInterval = refreshInterval;
+    }
+
+    @PostConstruct
+    public void start() {
+        heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "presence-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = refreshInterval.toMillis();
+        heartbeat.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (heartbeat != null) {
+            heartbeat.shutdownNow();
+        }
+        // Let other nodes see our users go offline now rather than after ttl
+        for (PresenceSession session : localSessions.values()) {
+            try {
+                store.remove(session);
+            } catch (RuntimeException e) {
+                log.debug("Could not remove presence of session {} on shutdown", session.getSessionId());
+            }
+        }
+        localSessions.clear();
+        localSessionsByUser.clear();
+    }
+
+    public PresenceSession connected(String sessionId, UUID userId, String username) {
+        PresenceSession session = new PresenceSession(sessionId, userId, username,
+            channelRepository.findIdsByMemberId(userId));
+        localSessions.put(sessionId, session);
+        localSessionsByUser.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet()).add(session);
+        if (store.touch(session, expiresAt())) {
+            publish(session.getUserId(), username, UserStatus.ONLINE, session.getChannelIds());
+        }
+        return session;
+    }
+
+    public void disconnected(String sessionId) {
+        PresenceSession session = localSessions.remove(sessionId);
+        if (session == null) {
+            return;
+        }
+        localSessionsByUser.computeIfPresent(session.getUserId(), (userId, sessions) -> {
+            sessions.remove(session);
+            return sessions.isEmpty() ? null : sessions;
+        });
+        if (store.remove(session)) {
+            publish(session.getUserId(), session.getUsername(), UserStatus.OFFLINE, session.getChannelIds());
+        }
+    }
+
+    // OFFLINE is not a status a connected user can choose; it follows from having no sessions
+    public void updateStatus(UUID userId, UserStatus status) {
+        if (status == null || status == UserStatus.OFFLINE) {
+            throw new ValidationException("Status must be one of ONLINE, AWAY, DO_NOT_DISTURB");
+        }
+        if (store.setStatus(userId, status)) {
+            Set<PresenceSession> sessions = localSessionsByUser.getOrDefault(userId, Set.of());
+            PresenceSession session = sessions.isEmpty() ? null : sessions.iterator().next();
+            publish(userId, session != null ? session.getUsername() : null, status,
+                session != null ? session.getChannelIds() : Set.of());
+        }
+    }
+
+    public PresenceResponse getPresence(UUID userId) {
+        return store.get(userId).orElseGet(() -> PresenceResponse.offline(userId));
+    }
+
+    public List<PresenceResponse> getOnlineUsers(UUID channelId) {
+        return store.getOnline(channelId);
+    }
+
+    public Collection<PresenceSession> getLocalSessions() {
+        return localSessions.values();
+    }
+
+    // Membership changes made on this node apply to this node's sessions at once; sessions held by
+    // other nodes pick them up when they reconnect
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMembershipChanged(ChannelMembershipChangedEvent event) {
+        boolean added = event.getChange() == ChannelMembershipChangedEvent.Change.ADDED;
+        Set<PresenceSession> sessions = localSessionsByUser.getOrDefault(event.getUserId(), Set.of());
+        for (PresenceSession session : sessions) {
+            if (added) {
+                session.getChannelIds().add(event.getChannelId());
+            } else {
+                session.getChannelIds().remove(event.getChannelId());
+            }
+        }
+        if (added && !sessions.isEmpty()) {
+            store.addChannel(event.getUserId(), event.getChannelId(), expiresAt());
+        } else if (!added) {
+            store.removeChannel(event.getUserId(), event.getChannelId());
+        }
+    }
+
+    void refresh() {
+        try {
+            store.touchAll(localSessions.values(), expiresAt());
+        } catch (RuntimeException e) {
+            log.warn("Presence heartbeat failed for {} sessions: {}", localSessions.size(), e.getMessage());
+        }
+    }
+
+    private long expiresAt() {
+        return System.currentTimeMillis() + ttl.toMillis();
+    }
+
+    private void publish(UUID userId, String username, UserStatus status, Set<UUID> channelIds) {
+        eventPublisher.publishEvent(new PresenceChangedEvent(userId, username, status, Set.copyOf(channelIds)));
+    }
+}
@@ -0,0 +1,25 @@
+package com.chatgenius.service.presence;
+
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// One WebSocket session as presence sees it. channelIds are the user's channels, resolved at connect
+// and kept current by membership changes made on this node.
+@Getter
+public class PresenceSession {
+    private final String sessionId;
+    private final UUID userId;
+    private final String username;
+    private final Set<UUID> channelIds = ConcurrentHashMap.newKeySet();
+
+    public PresenceSession(String sessionId, UUID userId, String username, Collection<UUID> channelIds) {
+        this.sessionId = sessionId;
+        this.userId = userId;
+        this.username = username;
+        this.channelIds.addAll(channelIds);
+    }
+}
@@ -0,0 +1,35 @@
+package com.chatgenius.service.presence;
+
+import com.chatgenius.dto.response.PresenceResponse;
+import com.chatgenius.model.enums.UserStatus;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+// Who is connected, with which status, and who is online in each channel. Every session entry carries
+// an expiry that its node keeps pushing forward; entries of a node that dies simply run out.
+// Selected by chat.presence.store (local | redis).
+public interface PresenceStore {
+
+    // Records a new session; returns true when the user had no live session before
+    boolean touch(PresenceSession session, long expiresAtMillis);
+
+    // Heartbeat for every session a node holds
+    void touchAll(Collection<PresenceSession> sessions, long expiresAtMillis);
+
+    // Returns true when this was the user's last live session
+    boolean remove(PresenceSession session);
+
+    void addChannel(UUID userId, UUID channelId, long expiresAtMillis);
+
+    void removeChannel(UUID userId, UUID channelId);
+
+    // Only applies while the user is online; returns true when the status actually changed
+    boolean setStatus(UUID userId, UserStatus status);
+
+    Optional<PresenceResponse> get(UUID userId);
+
+    List<PresenceResponse> getOnline(UUID channelId);
+}
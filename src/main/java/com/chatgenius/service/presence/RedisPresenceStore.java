@@ -0,0 +1,194 @@
+package com.chatgenius.service.presence;
+
+import com.chatgenius.dto.response.PresenceResponse;
+import com.chatgenius.model.enums.UserStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+// Cluster-wide presence in Redis:
+//   presence:user:<userId>         hash {username, status}
+//   presence:sessions:<userId>     zset sessionId -> expiry millis
+//   presence:channel:<channelId>   zset userId -> expiry millis
+// A user is online while any session score is in the future. Keys also get a TTL so nothing outlives
+// the last heartbeat by more than ttl. Adding and removing a session check the live count in the same
+// script as the write, so concurrent nodes report each ONLINE/OFFLINE transition exactly once.
+@Component
+@ConditionalOnProperty(name = "chat.presence.store", havingValue = "redis")
+public class RedisPresenceStore implements PresenceStore {
+
+    private static final String USER_KEY = "presence:user:";
+    private static final String SESSIONS_KEY = "presence:sessions:";
+    private static final String CHANNEL_KEY = "presence:channel:";
+    // KEYS: sessions, user, channels...  ARGV: sessionId, expiresAt, now, ttl millis, username, userId, status
+    // Returns the number of live sessions before this one was added
+    private static final RedisScript<Long> ADD_SESSION = RedisScript.of(
+        "local live = redis.call('ZCOUNT', KEYS[1], '(' .. ARGV[3], '+inf') " +
+        "redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1]) " +
+        "redis.call('PEXPIRE', KEYS[1], ARGV[4]) " +
+        "redis.call('HSET', KEYS[2], 'username', ARGV[5]) " +
+        "redis.call('HSETNX', KEYS[2], 'status', ARGV[7]) " +
+        "redis.call('PEXPIRE', KEYS[2], ARGV[4]) " +
+        "for i = 3, #KEYS do " +
+        "  redis.call('ZADD', KEYS[i], ARGV[2], ARGV[6]) " +
+        "  redis.call('PEXPIRE', KEYS[i], ARGV[4]) " +
+        "end " +
+        "return live", Long.class);
+    // KEYS: sessions, user, channels...  ARGV: sessionId, now, userId
+    // Returns 1 when the removed session was the user's last live one
+    private static final RedisScript<Long> REMOVE_SESSION = RedisScript.of(
+        "redis.call('ZREM', KEYS[1], ARGV[1]) " +
+        "if redis.call('ZCOUNT', KEYS[1], '(' .. ARGV[2], '+inf') > 0 then return 0 end " +
+        "redis.call('DEL', KEYS[1], KEYS[2]) " +
+        "for i = 3, #KEYS do redis.call('ZREM', KEYS[i], ARGV[3]) end " +
+        "return 1", Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Duration ttl;
+
+    public RedisPresenceStore(RedisTemplate<String, String> redisTemplate,
+                              @Value("${chat.presence.ttl:90s}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public boolean touch(PresenceSession session, long expiresAtMillis) {
+        String userId = session.getUserId().toString();
+        Long wasLive = redisTemplate.execute(ADD_SESSION, sessionKeys(session),
+            session.getSessionId(), String.valueOf(expiresAtMillis), String.valueOf(System.currentTimeMillis()),
+            String.valueOf(ttl.toMillis()), session.getUsername(), userId, UserStatus.ONLINE.name());
+        return wasLive != null && wasLive == 0;
+    }
+
+    @Override
+    public void touchAll(Collection<PresenceSession> sessions, long expiresAtMillis) {
+        if (sessions.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (PresenceSession session : sessions) {
+                    String userId = session.getUserId().toString();
+                    String sessionsKey = SESSIONS_KEY + userId;
+                    String userKey = USER_KEY + userId;
+                    ops.opsForZSet().add(sessionsKey, session.getSessionId(), expiresAtMillis);
+                    ops.expire(sessionsKey, ttl);
+                    ops.opsForHash().put(userKey, "username", session.getUsername());
+                    ops.opsForHash().putIfAbsent(userKey, "status", UserStatus.ONLINE.name());
+                    ops.expire(userKey, ttl);
+                    for (UUID channelId : session.getChannelIds()) {
+                        ops.opsForZSet().add(CHANNEL_KEY + channelId, userId, expiresAtMillis);
+                        ops.expire(CHANNEL_KEY + channelId, ttl);
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public boolean remove(PresenceSession session) {
+        Long last = redisTemplate.execute(REMOVE_SESSION, sessionKeys(session),
+            session.getSessionId(), String.valueOf(System.currentTimeMillis()), session.getUserId().toString());
+        return last != null && last == 1;
+    }
+
+    @Override
+    public void addChannel(UUID userId, UUID channelId, long expiresAtMillis) {
+        redisTemplate.opsForZSet().add(CHANNEL_KEY + channelId, userId.toString(), expiresAtMillis);
+        redisTemplate.expire(CHANNEL_KEY + channelId, ttl);
+    }
+
+    @Override
+    public void removeChannel(UUID userId, UUID channelId) {
+        redisTemplate.opsForZSet().remove(CHANNEL_KEY + channelId, userId.toString());
+    }
+
+    @Override
+    public boolean setStatus(UUID userId, UserStatus status) {
+        if (liveSessions(userId) == 0) {
+            return false;
+        }
+        String userKey = USER_KEY + userId;
+        Object previous = redisTemplate.opsForHash().get(userKey, "status");
+        redisTemplate.opsForHash().put(userKey, "status", status.name());
+        return !status.name().equals(previous);
+    }
+
+    @Override
+    public Optional<PresenceResponse> get(UUID userId) {
+        if (liveSessions(userId) == 0) {
+            return Optional.empty();
+        }
+        List<Object> fields = redisTemplate.opsForHash().multiGet(USER_KEY + userId, List.of("username", "status"));
+        return Optional.of(toResponse(userId, fields));
+    }
+
+    @Override
+    public List<PresenceResponse> getOnline(UUID channelId) {
+        String channelKey = CHANNEL_KEY + channelId;
+        long now = System.currentTimeMillis();
+        redisTemplate.opsForZSet().removeRangeByScore(channelKey, Double.NEGATIVE_INFINITY, now);
+        Set<String> userIds = redisTemplate.opsForZSet().rangeByScore(channelKey, now, Double.POSITIVE_INFINITY);
+        if (userIds == null || userIds.isEmpty()) {
+            return List.of();
+        }
+        List<String> ids = new ArrayList<>(userIds);
+        // One round trip for every member's username and status
+        List<Object> rows = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                ids.forEach(id -> ops.opsForHash().multiGet(USER_KEY + id, List.of("username", "status")));
+                return null;
+            }
+        });
+        List<PresenceResponse> result = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            List<?> fields = (List<?>) rows.get(i);
+            // The hash is gone once the user's last session ended or expired
+            if (fields != null && fields.get(1) != null) {
+                result.add(toResponse(UUID.fromString(ids.get(i)), fields));
+            }
+        }
+        return result;
+    }
+
+    private static List<String> sessionKeys(PresenceSession session) {
+        List<String> keys = new ArrayList<>();
+        keys.add(SESSIONS_KEY + session.getUserId());
+        keys.add(USER_KEY + session.getUserId());
+        session.getChannelIds().forEach(channelId -> keys.add(CHANNEL_KEY + channelId));
+        return keys;
+    }
+
+    private long liveSessions(UUID userId) {
+        Long count = redisTemplate.opsForZSet().count(SESSIONS_KEY + userId,
+            System.currentTimeMillis() + 1, Double.POSITIVE_INFINITY);
+        return count != null ? count : 0;
+    }
+
+    private static PresenceResponse toResponse(UUID userId, List<?> fields) {
+        Object status = fields.get(1);
+        return new PresenceResponse(userId, (String) fields.get(0),
+            status != null ? UserStatus.valueOf((String) status) : UserStatus.ONLINE);
+    }
+}
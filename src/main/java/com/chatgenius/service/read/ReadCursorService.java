@@ -0,0 +1,181 @@
+package com.chatgenius.service.read;
+
+import com.chatgenius.exception.ValidationException;
+import com.chatgenius.model.ReadCursor;
+import com.chatgenius.model.ReadCursorId;
+import com.chatgenius.repository.MessageRepository;
+import com.chatgenius.repository.ReadCursorRepository;
+import com.chatgenius.repository.projection.ChannelReadState;
+import com.chatgenius.repository.projection.MessagePosition;
+import com.chatgenius.service.ChannelMembershipCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+// Read markers. chat:read only records the newest marked message per (user, channel) in memory; every
+// flush-interval the markers are resolved to sequence numbers and written in one transaction, so a
+// member scrolling through a channel costs one row write per interval instead of one per message.
+// Unread counts are channels.last_seq minus the member's last_read_seq and need no message scan.
+// Markers not yet flushed are lost if the node dies; clients simply mark the channel read again.
+// A marker for a message that is not stored yet (write-behind broadcasts before the row commits) is
+// kept for a few flushes before it is given up.
+@Slf4j
+@Service
+public class ReadCursorService {
+
+    static final int UNRESOLVED_FLUSHES = 5;
+
+    private final ReadCursorRepository readCursorRepository;
+    private final MessageRepository messageRepository;
+    private final ChannelMembershipCache membershipCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration flushInterval;
+    private final Map<ReadCursorId, Marker> pending = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+
+    public ReadCursorService(ReadCursorRepository readCursorRepository,
+                             MessageRepository messageRepository,
+                             ChannelMembershipCache membershipCache,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${chat.read-cursor.flush-interval:2s}") Duration flushInterval) {
+        this.readCursorRepository = readCursorRepository;
+        this.messageRepository = messageRepository;
+        this.membershipCache = membershipCache;
+        this.transactionTemplate = transactionTemplate;
+        this.flushInterval = flushInterval;
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "read-cursor-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        flush();
+    }
+
+    public void markRead(UUID userId, UUID channelId, UUID messageId) {
+        if (!membershipCache.isMember(channelId, userId)) {
+            throw new ValidationException("User is not a member of this channel");
+        }
+        pending.put(new ReadCursorId(userId, channelId), new Marker(messageId, 0));
+    }
+
+    // The user's own unflushed markers are written first so they always see what they just read
+    public List<ChannelReadState> getReadStates(UUID userId) {
+        flush(key -> key.getUserId().equals(userId));
+        return readCursorRepository.findReadStates(userId);
+    }
+
+    public void flush() {
+        flush(key -> true);
+    }
+
+    private synchronized void flush(Predicate<ReadCursorId> selected) {
+        Map<ReadCursorId, Marker> batch = new HashMap<>();
+        pending.forEach((key, marker) -> {
+            // remove(key, value) keeps a marker that was replaced meanwhile for the next flush
+            if (selected.test(key) && pending.remove(key, marker)) {
+                batch.put(key, marker);
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<ReadCursorId> unresolved;
+        try {
+            unresolved = transactionTemplate.execute(status -> write(batch));
+        } catch (RuntimeException e) {
+            // Typically another node created one of the rows first; newer markers win over the retry
+            log.warn("Could not write {} read markers, retrying on the next flush: {}", batch.size(), e.getMessage());
+            batch.forEach(pending::putIfAbsent);
+            return;
+        }
+        for (ReadCursorId key : unresolved) {
+            Marker marker = batch.get(key);
+            if (marker.misses + 1 < UNRESOLVED_FLUSHES) {
+                pending.putIfAbsent(key, new Marker(marker.messageId, marker.misses + 1));
+            }
+        }
+    }
+
+    // Returns the markers whose message row was not found
+    private List<ReadCursorId> write(Map<ReadCursorId, Marker> batch) {
+        Set<UUID> messageIds = batch.values().stream().map(marker -> marker.messageId).collect(Collectors.toSet());
+        Map<UUID, MessagePosition> positions = messageRepository.findPositionsByIdIn(messageIds).stream()
+            .collect(Collectors.toMap(MessagePosition::getId, position -> position));
+        Set<UUID> userIds = batch.keySet().stream().map(ReadCursorId::getUserId).collect(Collectors.toSet());
+        Set<UUID> channelIds = batch.keySet().stream().map(ReadCursorId::getChannelId).collect(Collectors.toSet());
+        Map<ReadCursorId, ReadCursor> existing = readCursorRepository.findByUserIdInAndChannelIdIn(userIds, channelIds)
+            .stream()
+            .collect(Collectors.toMap(ReadCursor::getId, cursor -> cursor));
+
+        ZonedDateTime now = ZonedDateTime.now();
+        List<ReadCursor> changed = new ArrayList<>();
+        List<ReadCursorId> unresolved = new ArrayList<>();
+        batch.forEach((key, marker) -> {
+            UUID messageId = marker.messageId;
+            MessagePosition position = positions.get(messageId);
+            if (position == null) {
+                // Not committed yet, or deleted meanwhile
+                unresolved.add(key);
+                return;
+            }
+            // From another channel, or written before messages were numbered
+            if (position.getSeq() == null || !position.getChannelId().equals(key.getChannelId())) {
+                return;
+            }
+            ReadCursor cursor = existing.get(key);
+            if (cursor == null) {
+                cursor = new ReadCursor(key.getUserId(), key.getChannelId());
+            } else if (cursor.getLastReadSeq() >= position.getSeq()) {
+                return;
+            }
+            cursor.setLastReadMessageId(messageId);
+            cursor.setLastReadSeq(position.getSeq());
+            cursor.setUpdatedAt(now);
+            changed.add(cursor);
+        });
+        readCursorRepository.saveAll(changed);
+        return unresolved;
+    }
+
+    // Compared by identity, so a re-marked (user, channel) is never mistaken for the marker being flushed
+    private static final class Marker {
+        final UUID messageId;
+        final int misses;
+
+        Marker(UUID messageId, int misses) {
+            this.messageId = messageId;
+            this.misses = misses;
+        }
+    }
+}
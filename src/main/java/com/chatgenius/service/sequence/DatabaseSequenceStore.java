@@ -0,0 +1,34 @@
+package com.chatgenius.service.sequence;
+
+import com.chatgenius.exception.ResourceNotFoundException;
+import com.chatgenius.repository.ChannelRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+// Numbers come from channels.last_seq. The channel row stays locked until the inserting transaction
+// ends, so a rollback gives its numbers back and a channel's committed messages are numbered without
+// gaps, in commit order.
+@Component
+@ConditionalOnProperty(name = "chat.message.sequence.store", havingValue = "database", matchIfMissing = true)
+@RequiredArgsConstructor
+public class DatabaseSequenceStore implements SequenceStore {
+
+    private final ChannelRepository channelRepository;
+
+    @Override
+    public long reserve(UUID channelId, int count) {
+        if (channelRepository.advanceSeq(channelId, count) == 0) {
+            throw new ResourceNotFoundException("Channel not found: " + channelId);
+        }
+        return channelRepository.findLastSeqById(channelId)
+            .orElseThrow(() -> new ResourceNotFoundException("Channel not found: " + channelId));
+    }
+
+    @Override
+    public boolean isTransactional() {
+        return true;
+    }
+}
@@ -0,0 +1,48 @@
+package com.chatgenius.service.sequence;
+
+import com.chatgenius.repository.ChannelRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.OptionalLong;
+import java.util.UUID;
+
+// Numbers every message of a channel 1, 2, 3, ... so clients can order them the same way on every
+// node and spot missed broadcasts. channels.last_seq always holds the highest committed number: the
+// database store advances it itself, numbers from other stores raise it when their messages are inserted.
+@Component
+@RequiredArgsConstructor
+public class MessageSequencer {
+
+    private final SequenceStore store;
+    private final ChannelRepository channelRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long next(UUID channelId) {
+        return reserve(channelId, 1);
+    }
+
+    // Numbers for messages inserted by the current transaction; returns the last of the range
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long reserve(UUID channelId, int count) {
+        long last = store.reserve(channelId, count);
+        if (!store.isTransactional()) {
+            channelRepository.raiseLastSeq(channelId, last);
+        }
+        return last;
+    }
+
+    // A number taken when a message is accepted, before any transaction; empty when the store can
+    // only number messages as they are inserted
+    public OptionalLong reserveAhead(UUID channelId) {
+        return store.isTransactional() ? OptionalLong.empty() : OptionalLong.of(store.reserve(channelId, 1));
+    }
+
+    // Call in the transaction that inserts messages numbered by reserveAhead
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void inserted(UUID channelId, long highestSeq) {
+        channelRepository.raiseLastSeq(channelId, highestSeq);
+    }
+}
@@ -0,0 +1,55 @@
+package com.chatgenius.service.sequence;
+
+import com.chatgenius.exception.ResourceNotFoundException;
+import com.chatgenius.repository.ChannelRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+// One INCRBY on chat:seq:<channelId> per reservation, shared by every node and usable outside any
+// transaction, so write-behind messages are numbered when they are accepted. A missing counter is
+// seeded from channels.last_seq, which inserts raise to the highest committed number. Numbers of
+// messages that never commit are skipped, and an accepted but unflushed message can be numbered
+// twice if Redis loses the counter, so run Redis with persistence.
+@Component
+@ConditionalOnProperty(name = "chat.message.sequence.store", havingValue = "redis")
+public class RedisSequenceStore implements SequenceStore {
+
+    private static final String KEY = "chat:seq:";
+    private static final RedisScript<Long> INCREMENT_EXISTING = RedisScript.of(
+        "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end " +
+        "return redis.call('INCRBY', KEYS[1], ARGV[1])", Long.class);
+    // SET NX keeps a counter another node seeded in the meantime
+    private static final RedisScript<Long> SEED_AND_INCREMENT = RedisScript.of(
+        "redis.call('SET', KEYS[1], ARGV[2], 'NX') " +
+        "return redis.call('INCRBY', KEYS[1], ARGV[1])", Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ChannelRepository channelRepository;
+
+    public RedisSequenceStore(RedisTemplate<String, String> redisTemplate, ChannelRepository channelRepository) {
+        this.redisTemplate = redisTemplate;
+        this.channelRepository = channelRepository;
+    }
+
+    @Override
+    public long reserve(UUID channelId, int count) {
+        List<String> key = List.of(KEY + channelId);
+        Long last = redisTemplate.execute(INCREMENT_EXISTING, key, String.valueOf(count));
+        if (last != null && last >= 0) {
+            return last;
+        }
+        long seed = channelRepository.findLastSeqById(channelId)
+            .orElseThrow(() -> new ResourceNotFoundException("Channel not found: " + channelId));
+        return redisTemplate.execute(SEED_AND_INCREMENT, key, String.valueOf(count), String.valueOf(seed));
+    }
+
+    @Override
+    public boolean isTransactional() {
+        return false;
+    }
+}
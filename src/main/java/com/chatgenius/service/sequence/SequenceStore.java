@@ -0,0 +1,13 @@
+package com.chatgenius.service.sequence;
+
+import java.util.UUID;
+
+// Source of per-channel message sequence numbers (chat.message.sequence.store)
+public interface SequenceStore {
+
+    // Reserves count consecutive numbers for the channel and returns the last of them
+    long reserve(UUID channelId, int count);
+
+    // True when numbers can only be taken inside the transaction that inserts their messages
+    boolean isTransactional();
+}
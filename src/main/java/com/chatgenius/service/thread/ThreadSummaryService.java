@@ -0,0 +1,129 @@
+package com.chatgenius.service.thread;
+
+import com.chatgenius.exception.ResourceNotFoundException;
+import com.chatgenius.exception.ValidationException;
+import com.chatgenius.model.Message;
+import com.chatgenius.model.ThreadSummary;
+import com.chatgenius.repository.MessageRepository;
+import com.chatgenius.repository.ThreadSummaryRepository;
+import com.chatgenius.repository.projection.ThreadReplyStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+// Keeps thread_summaries in step with the replies in the writer's own transaction. A new reply is
+// folded in without reading the thread; a removed reply only costs a re-read when it was the latest one
+// or its author is among the recent participants. Writers of one thread are serialized by locking the
+// thread's root message row.
+@Service
+@Transactional
+public class ThreadSummaryService {
+
+    private static final int MAX_SUMMARY_LOOKUP = 100;
+
+    private final ThreadSummaryRepository threadSummaryRepository;
+    private final MessageRepository messageRepository;
+    private final int maxParticipants;
+
+    public ThreadSummaryService(ThreadSummaryRepository threadSummaryRepository,
+                                MessageRepository messageRepository,
+                                @Value("${chat.thread.summary.participants:5}") int maxParticipants) {
+        this.threadSummaryRepository = threadSummaryRepository;
+        this.messageRepository = messageRepository;
+        this.maxParticipants = maxParticipants;
+    }
+
+    // Call after the reply is saved
+    public void replyAdded(Message reply) {
+        UUID threadId = reply.getThreadId();
+        Message root = lockThread(threadId);
+        ThreadSummary summary = threadSummaryRepository.findById(threadId)
+            .orElseGet(() -> new ThreadSummary(threadId, root.getChannel().getId()));
+        summary.addReply(authorOf(reply), reply.getCreatedAt(), maxParticipants);
+        threadSummaryRepository.save(summary);
+    }
+
+    // Call after the reply is deleted
+    public void replyRemoved(Message reply) {
+        UUID threadId = reply.getThreadId();
+        Message root = lockThread(threadId);
+        ThreadSummary summary = threadSummaryRepository.findById(threadId).orElse(null);
+        if (summary == null) {
+            refresh(root, null);
+            return;
+        }
+        boolean shapedTail = summary.getLastReplyAt() == null
+            || !reply.getCreatedAt().isBefore(summary.getLastReplyAt())
+            || summary.getRecentParticipantIds().contains(authorOf(reply));
+        if (summary.getReplyCount() <= 1 || shapedTail) {
+            refresh(root, summary);
+            return;
+        }
+        summary.setReplyCount(summary.getReplyCount() - 1);
+        threadSummaryRepository.save(summary);
+    }
+
+    // Rebuilds the summaries from the replies themselves, for writers that insert replies in bulk
+    public void recompute(Collection<UUID> threadIds) {
+        for (UUID threadId : threadIds) {
+            Message root = lockThread(threadId);
+            refresh(root, threadSummaryRepository.findById(threadId).orElse(null));
+        }
+    }
+
+    public void channelDeleted(UUID channelId) {
+        threadSummaryRepository.deleteByChannelId(channelId);
+    }
+
+    // A thread without replies has no row and gets an empty summary
+    @Transactional(readOnly = true)
+    public ThreadSummary getSummary(UUID threadId) {
+        return threadSummaryRepository.findById(threadId).orElseGet(() -> {
+            Message root = messageRepository.findById(threadId)
+                .orElseThrow(() -> new ResourceNotFoundException("Thread not found: " + threadId));
+            return new ThreadSummary(threadId, root.getChannel().getId());
+        });
+    }
+
+    // Only threads that have replies are returned
+    @Transactional(readOnly = true)
+    public List<ThreadSummary> getSummaries(Collection<UUID> threadIds) {
+        if (threadIds.size() > MAX_SUMMARY_LOOKUP) {
+            throw new ValidationException("At most " + MAX_SUMMARY_LOOKUP + " threads can be looked up at once");
+        }
+        return threadSummaryRepository.findAllById(threadIds);
+    }
+
+    private void refresh(Message root, ThreadSummary summary) {
+        UUID threadId = root.getId();
+        ThreadReplyStats stats = messageRepository.findThreadReplyStats(threadId);
+        if (stats.getReplyCount() == 0) {
+            if (summary != null) {
+                threadSummaryRepository.delete(summary);
+            }
+            return;
+        }
+        if (summary == null) {
+            summary = new ThreadSummary(threadId, root.getChannel().getId());
+        }
+        summary.setReplyCount(stats.getReplyCount());
+        summary.setLastReplyAt(stats.getLastReplyAt());
+        summary.setRecentParticipantIds(
+            messageRepository.findRecentThreadParticipantIds(threadId, PageRequest.of(0, maxParticipants)));
+        threadSummaryRepository.save(summary);
+    }
+
+    private Message lockThread(UUID threadId) {
+        return messageRepository.findByIdForUpdate(threadId)
+            .orElseThrow(() -> new ResourceNotFoundException("Thread not found: " + threadId));
+    }
+
+    private static UUID authorOf(Message reply) {
+        return reply.getUser() != null ? reply.getUser().getId() : null;
+    }
+}
@@ -0,0 +1,180 @@
+package com.chatgenius.service.writebehind;
+
+import com.chatgenius.dto.response.MessageResponse;
+import com.chatgenius.service.AuthorCache;
+import com.chatgenius.service.RecentMessageCache;
+import com.chatgenius.service.sequence.MessageSequencer;
+import com.chatgenius.service.thread.ThreadSummaryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Group commit for write-behind and imported messages: one transaction and one JDBC batch per batch
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MessageBatchWriter {
+
+    private static final String INSERT_MESSAGE =
+        "INSERT INTO messages (id, content, user_id, channel_id, thread_id, type, created_at, client_message_id, seq) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String ADJUST_MESSAGE_COUNT =
+        "UPDATE channels SET message_count = message_count + ? WHERE id = ?";
+    private static final String FIND_BY_CLIENT_MESSAGE_ID =
+        "SELECT id FROM messages WHERE user_id = ? AND client_message_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RecentMessageCache recentMessages;
+    private final AuthorCache authors;
+    private final ThreadSummaryService threadSummaries;
+    private final MessageSequencer sequencer;
+
+    @Value("${chat.channel.message-counter.enabled:false}")
+    private boolean messageCounterEnabled;
+
+    // Completes every message's persisted future, except when the whole batch failed for a reason
+    // that is worth retrying (e.g. lost connection), in which case the exception propagates
+    public void write(List<PendingMessage> batch) {
+        try {
+            Map<UUID, Long> seqs = transactionTemplate.execute(status -> insert(batch));
+            batch.forEach(message -> message.numbered(seqs.get(message.getId())));
+            cacheRecent(batch);
+            batch.forEach(message -> message.getPersisted().complete(message.getId()));
+        } catch (DataIntegrityViolationException e) {
+            // One row (typically a resent clientMessageId) poisons the whole batch; isolate it
+            log.debug("Batch of {} messages rejected, retrying row by row: {}", batch.size(), e.getMessage());
+            batch.forEach(this::writeOne);
+        }
+    }
+
+    private void writeOne(PendingMessage message) {
+        try {
+            Map<UUID, Long> seqs = transactionTemplate.execute(status -> insert(List.of(message)));
+            message.numbered(seqs.get(message.getId()));
+            cacheRecent(List.of(message));
+            message.getPersisted().complete(message.getId());
+        } catch (DuplicateKeyException e) {
+            UUID existingId = findByClientMessageId(message);
+            if (existingId != null) {
+                message.getPersisted().complete(existingId);
+            } else {
+                message.getPersisted().completeExceptionally(e);
+            }
+        } catch (RuntimeException e) {
+            message.getPersisted().completeExceptionally(e);
+        }
+    }
+
+    // Returns the sequence number given to each message
+    private Map<UUID, Long> insert(List<PendingMessage> batch) {
+        Map<UUID, Long> seqs = assignSeqs(batch);
+        jdbcTemplate.batchUpdate(INSERT_MESSAGE, batch, batch.size(), (ps, message) -> {
+            ps.setObject(1, message.getId());
+            ps.setString(2, message.getContent());
+            ps.setObject(3, message.getUserId());
+            ps.setObject(4, message.getChannelId());
+            ps.setObject(5, message.getThreadId());
+            ps.setString(6, message.getType().name());
+            ps.setTimestamp(7, Timestamp.from(message.getCreatedAt().toInstant()));
+            ps.setString(8, message.getClientMessageId());
+            ps.setLong(9, seqs.get(message.getId()));
+        });
+        if (messageCounterEnabled) {
+            Map<UUID, Long> perChannel = batch.stream()
+                .collect(Collectors.groupingBy(PendingMessage::getChannelId, TreeMap::new, Collectors.counting()));
+            perChannel.forEach((channelId, count) -> jdbcTemplate.update(ADJUST_MESSAGE_COUNT, count, channelId));
+        }
+        // Imports can carry many replies of one thread per batch, so their summaries are rebuilt once
+        Set<UUID> threadIds = batch.stream()
+            .map(PendingMessage::getThreadId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toCollection(TreeSet::new));
+        if (!threadIds.isEmpty()) {
+            threadSummaries.recompute(threadIds);
+        }
+        return seqs;
+    }
+
+    // Messages numbered at accept time keep their number; the rest get one range per channel, in batch
+    // order. Numbers are only set on the messages after commit, so a rolled back batch is renumbered.
+    // Channel rows are locked in id order, as are thread roots and the message counters above, so
+    // concurrent writers (the flusher and imports) cannot deadlock on each other.
+    private Map<UUID, Long> assignSeqs(List<PendingMessage> batch) {
+        Map<UUID, List<PendingMessage>> perChannel = batch.stream()
+            .collect(Collectors.groupingBy(PendingMessage::getChannelId, TreeMap::new, Collectors.toList()));
+        Map<UUID, Long> seqs = new HashMap<>();
+        perChannel.forEach((channelId, messages) -> {
+            List<PendingMessage> unnumbered = new ArrayList<>();
+            long highest = 0;
+            for (PendingMessage message : messages) {
+                if (message.getSeq() == null) {
+                    unnumbered.add(message);
+                } else {
+                    seqs.put(message.getId(), message.getSeq());
+                    highest = Math.max(highest, message.getSeq());
+                }
+            }
+            if (highest > 0) {
+                sequencer.inserted(channelId, highest);
+            }
+            if (!unnumbered.isEmpty()) {
+                long seq = sequencer.reserve(channelId, unnumbered.size()) - unnumbered.size();
+                for (PendingMessage message : unnumbered) {
+                    seqs.put(message.getId(), ++seq);
+                }
+            }
+        });
+        return seqs;
+    }
+
+    // Only channels that currently have a recent-message ring need the rows; authors are looked up in one go
+    private void cacheRecent(List<PendingMessage> committed) {
+        List<PendingMessage> cached = committed.stream()
+            .filter(message -> recentMessages.isCached(message.getChannelId()))
+            .collect(Collectors.toList());
+        if (cached.isEmpty()) {
+            return;
+        }
+        Map<UUID, String> usernames = authors.getUsernames(cached.stream()
+            .map(PendingMessage::getUserId)
+            .collect(Collectors.toSet()));
+        cached.forEach(message -> recentMessages.added(MessageResponse.builder()
+            .id(message.getId())
+            .content(message.getContent())
+            .userId(message.getUserId())
+            .username(usernames.get(message.getUserId()))
+            .channelId(message.getChannelId())
+            .threadId(message.getThreadId())
+            .type(message.getType())
+            .createdAt(message.getCreatedAt())
+            .seq(message.getSeq())
+            .build()));
+    }
+
+    private UUID findByClientMessageId(PendingMessage message) {
+        if (message.getClientMessageId() == null) {
+            return null;
+        }
+        List<UUID> ids = jdbcTemplate.queryForList(FIND_BY_CLIENT_MESSAGE_ID, UUID.class,
+            message.getUserId(), message.getClientMessageId());
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+}
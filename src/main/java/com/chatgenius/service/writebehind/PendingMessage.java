@@ -0,0 +1,48 @@
+package com.chatgenius.service.writebehind;
+
+import com.chatgenius.model.enums.MessageType;
+import com.chatgenius.model.id.TimeOrderedUuid;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+// A chat message that has been accepted and broadcast but not necessarily written yet. id and
+// createdAt are final at accept time, so clients can order by (createdAt, id) right away; persisted
+// completes with the stored id once the row is committed. seq is set at accept time when the sequence
+// store can number messages outside a transaction, otherwise when the row is committed.
+@Getter
+@RequiredArgsConstructor
+public class PendingMessage {
+    private final UUID id;
+    private final UUID channelId;
+    private final UUID userId;
+    private final String content;
+    private final MessageType type;
+    private final UUID threadId;
+    private final ZonedDateTime createdAt;
+    // Client-chosen idempotency key; a resend with the same key resolves to the first message
+    private final String clientMessageId;
+    private final CompletableFuture<UUID> persisted = new CompletableFuture<>();
+    private volatile Long seq;
+
+    public static PendingMessage create(UUID channelId, UUID userId, String content, MessageType type,
+                                        String clientMessageId) {
+        return new PendingMessage(TimeOrderedUuid.next(), channelId, userId, content, type, null,
+            ZonedDateTime.now().truncatedTo(ChronoUnit.MICROS), clientMessageId);
+    }
+
+    // A historical message replayed by a bulk import; keeps the timestamp it had in the source system
+    public static PendingMessage imported(UUID channelId, UUID userId, String content, MessageType type,
+                                          UUID threadId, ZonedDateTime createdAt, String clientMessageId) {
+        return new PendingMessage(TimeOrderedUuid.next(), channelId, userId, content, type, threadId,
+            createdAt.truncatedTo(ChronoUnit.MICROS), clientMessageId);
+    }
+
+    public void numbered(long seq) {
+        this.seq = seq;
+    }
+}
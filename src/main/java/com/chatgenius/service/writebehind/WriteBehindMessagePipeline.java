@@ -0,0 +1,187 @@
+package com.chatgenius.service.writebehind;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Write-behind persistence for chat messages. Messages are accepted into a bounded queue and broadcast
+// straight away; a single writer drains whatever has piled up and commits it as one batch. A message
+// is only durable once its persisted future completes, which is when the sender gets its ack. If the
+// node dies before that, the client resends with the same clientMessageId and the unique
+// (user_id, client_message_id) index turns the resend into the original message.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "chat.message.write-behind.enabled", havingValue = "true")
+public class WriteBehindMessagePipeline {
+
+    private final MessageBatchWriter writer;
+    private final BlockingQueue<PendingMessage> queue;
+    private final int batchSize;
+    private final long enqueueTimeoutMillis;
+    private final int maxAttempts;
+    // Recently accepted messages by user and clientMessageId, so quick resends are not broadcast twice
+    private final Cache<String, PendingMessage> recentlyAccepted;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public WriteBehindMessagePipeline(MessageBatchWriter writer,
+                                      @Value("${chat.message.write-behind.queue-capacity:10000}") int queueCapacity,
+                                      @Value("${chat.message.write-behind.batch-size:500}") int batchSize,
+                                      @Value("${chat.message.write-behind.enqueue-timeout:50ms}") Duration enqueueTimeout,
+                                      @Value("${chat.message.write-behind.max-attempts:3}") int maxAttempts,
+                                      @Value("${chat.message.write-behind.dedup-window:10m}") Duration dedupWindow) {
+        this.writer = writer;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.enqueueTimeoutMillis = enqueueTimeout.toMillis();
+        this.maxAttempts = maxAttempts;
+        this.recentlyAccepted = Caffeine.newBuilder()
+            .maximumSize(queueCapacity * 10L)
+            .expireAfterWrite(dedupWindow)
+            .build();
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::runWriter, "message-write-behind");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Write-behind message pipeline started (batch size {}, queue capacity {})",
+            batchSize, queue.remainingCapacity());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            writerThread.interrupt();
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        // Whatever is still queued was already broadcast; write it before going away
+        int remaining = flush();
+        if (remaining > 0) {
+            log.info("Flushed {} queued messages on shutdown", remaining);
+        }
+    }
+
+    // Returns the message that now stands for this send: the given one, or an earlier accepted message
+    // with the same clientMessageId. Returns null when the queue stays full past the enqueue timeout,
+    // which pushes back on the sender instead of growing memory without bound.
+    public PendingMessage submit(PendingMessage message) throws InterruptedException {
+        String dedupKey = message.getClientMessageId() != null
+            ? message.getUserId() + ":" + message.getClientMessageId()
+            : null;
+        if (dedupKey != null) {
+            PendingMessage existing = recentlyAccepted.asMap().putIfAbsent(dedupKey, message);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        if (!queue.offer(message, enqueueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            if (dedupKey != null) {
+                recentlyAccepted.asMap().remove(dedupKey, message);
+            }
+            rejected.incrementAndGet();
+            return null;
+        }
+        return message;
+    }
+
+    // Writes everything currently queued on the calling thread; returns the number of messages taken
+    int flush() {
+        int taken = 0;
+        List<PendingMessage> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            taken += batch.size();
+            writeWithRetry(batch);
+            batch.clear();
+        }
+        return taken;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    private void runWriter() {
+        List<PendingMessage> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                // Block for the first message, then commit whatever else arrived meanwhile with it
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                writeWithRetry(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeWithRetry(List<PendingMessage> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                writer.write(batch);
+                break;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    log.error("Giving up on batch of {} messages after {} attempts", batch.size(), attempt, e);
+                    batch.forEach(message -> message.getPersisted().completeExceptionally(e));
+                    break;
+                }
+                log.warn("Batch of {} messages failed (attempt {}), retrying: {}", batch.size(), attempt, e.getMessage());
+                try {
+                    Thread.sleep(100L * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        for (PendingMessage message : batch) {
+            if (message.getPersisted().isCompletedExceptionally()) {
+                failed.incrementAndGet();
+                forget(message);
+            } else {
+                written.incrementAndGet();
+            }
+        }
+    }
+
+    // A failed message may be resent under the same clientMessageId and must then be accepted again
+    private void forget(PendingMessage message) {
+        if (message.getClientMessageId() != null) {
+            recentlyAccepted.asMap().remove(message.getUserId() + ":" + message.getClientMessageId(), message);
+        }
+    }
+}
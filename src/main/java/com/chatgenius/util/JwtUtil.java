@@ -1,10 +1,13 @@
 package com.chatgenius.util;
 
-import com.chatgenius.model.User;
-import com.chatgenius.repository.TokenBlacklistRepository;
+import com.chatgenius.service.TokenBlacklistService;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,36 +17,82 @@ import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
-import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+// Immutable and thread-safe: keys and the parser are built once at startup and shared by all requests
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
-
-    @Value("${jwt.expiration}")
-    private Long expiration;
-
-    @Value("${jwt.refresh-expiration}")
-    private Long refreshExpiration;
-
-    private final TokenBlacklistRepository tokenBlacklistRepository;
+    private final TokenBlacklistService tokenBlacklistService;
+    private final long expiration;
+    private final long refreshExpiration;
+    private final String activeKeyId;
+    private final Key signingKey;
+    // Keys accepted for verification by kid: the active key plus any previous keys still in rotation
+    private final Map<String, Key> verificationKeys;
+    private final JwtParser parser;
 
     @Autowired
-    public JwtUtil(TokenBlacklistRepository tokenBlacklistRepository) {
-        this.tokenBlacklistRepository = tokenBlacklistRepository;
+    public JwtUtil(TokenBlacklistService tokenBlacklistService,
+                   @Value("${jwt.secret}") String secret,
+                   @Value("${jwt.expiration}") long expiration,
+                   @Value("${jwt.refresh-expiration}") long refreshExpiration,
+                   @Value("${jwt.key-id:default}") String activeKeyId,
+                   @Value("${jwt.previous-keys:}") List<String> previousKeys) {
+        this.tokenBlacklistService = tokenBlacklistService;
+        this.expiration = expiration;
+        this.refreshExpiration = refreshExpiration;
+        this.activeKeyId = activeKeyId;
+        this.signingKey = hmacKey(secret);
+
+        Map<String, Key> keys = new HashMap<>();
+        // Entries are "kid:secret"
+        for (String entry : previousKeys) {
+            int separator = entry.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("jwt.previous-keys entries must be 'kid:secret'");
+            }
+            keys.put(entry.substring(0, separator).trim(), hmacKey(entry.substring(separator + 1).trim()));
+        }
+        keys.put(activeKeyId, signingKey);
+        this.verificationKeys = Map.copyOf(keys);
+
+        this.parser = Jwts.parserBuilder()
+                .setAllowedClockSkewSeconds(0)
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        // Tokens issued before kids were stamped are verified with the active key
+                        String kid = header.getKeyId() != null ? header.getKeyId() : activeKeyId;
+                        Key key = verificationKeys.get(kid);
+                        if (key == null) {
+                            throw new UnsupportedJwtException("Unknown signing key id: " + kid);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
+    public JwtUtil(TokenBlacklistService tokenBlacklistService, String secret, long expiration, long refreshExpiration) {
+        this(tokenBlacklistService, secret, expiration, refreshExpiration, "default", List.of());
     }
 
-    private Key getSigningKey() {
+    private static Key hmacKey(String secret) {
         return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
     }
 
+    // Single parse-and-verify entry point: checks signature and expiry once and returns the claims.
+    // Throws ExpiredJwtException for expired tokens and another JwtException for anything else invalid.
+    public Claims parseAndVerify(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
     public String extractUsername(String token) {
         try {
             return extractClaim(token, Claims::getSubject);
@@ -70,17 +119,18 @@ public class JwtUtil {
         return createToken(claims, userDetails.getUsername(), refreshExpiration);
     }
 
-    private String createToken(Map<String, Object> claims, String subject, Long expirationTime) {
+    private String createToken(Map<String, Object> claims, String subject, long expirationTime) {
         if (expirationTime <= 0) {
             throw new IllegalArgumentException("Token expiration time must be positive");
         }
 
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, activeKeyId)
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expirationTime))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -88,7 +138,7 @@ public class JwtUtil {
         try {
             // Try to check blacklist, but don't fail validation if Redis is down
             try {
-                if (tokenBlacklistRepository.isTokenBlacklisted(token)) {
+                if (tokenBlacklistService.isTokenBlacklisted(token)) {
                     System.out.println("JWT Validation - Token is blacklisted");
                     return false;
                 }
@@ -97,26 +147,7 @@ public class JwtUtil {
                 // Continue with validation even if Redis is down
             }
 
-            Claims claims = extractAllClaims(token);
-            String username = claims.getSubject();
-            Date expiration = claims.getExpiration();
-            Date issuedAt = claims.getIssuedAt();
-            
-            System.out.println("JWT Validation - Token details:");
-            System.out.println("  Username from token: " + username);
-            System.out.println("  Username from userDetails: " + userDetails.getUsername());
-            System.out.println("  Issued at: " + issuedAt);
-            System.out.println("  Expires at: " + expiration);
-            System.out.println("  Current time: " + new Date());
-            
-            if (expiration != null && expiration.before(new Date())) {
-                System.out.println("JWT Validation - Token has expired");
-                throw new ExpiredJwtException(null, claims, "Token has expired");
-            }
-            
-            boolean isValid = username.equals(userDetails.getUsername());
-            System.out.println("JWT Validation - Username match: " + isValid);
-            return isValid;
+            return validateClaims(extractAllClaims(token), userDetails);
         } catch (ExpiredJwtException e) {
             System.out.println("JWT Validation - Token expired exception: " + e.getMessage());
             throw e;
@@ -126,14 +157,18 @@ public class JwtUtil {
         }
     }
 
+    // Checks already-verified claims against the user without parsing the token again
+    public boolean validateClaims(Claims claims, UserDetails userDetails) {
+        Date expiration = claims.getExpiration();
+        if (expiration != null && expiration.before(new Date())) {
+            throw new ExpiredJwtException(null, claims, "Token has expired");
+        }
+        return claims.getSubject() != null && claims.getSubject().equals(userDetails.getUsername());
+    }
+
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .setAllowedClockSkewSeconds(0)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return parseAndVerify(token);
         } catch (ExpiredJwtException e) {
             throw e;
         } catch (Exception e) {
@@ -144,10 +179,9 @@ public class JwtUtil {
     public void invalidateToken(String token) {
         try {
             Claims claims = extractAllClaims(token);
-            Date expiration = claims.getExpiration();
-            long expirationTimeInMillis = expiration.getTime() - System.currentTimeMillis();
+            long expirationTimeInMillis = getRemainingMillis(claims);
             if (expirationTimeInMillis > 0) {
-                tokenBlacklistRepository.blacklistToken(token, expirationTimeInMillis);
+                tokenBlacklistService.blacklistToken(token, expirationTimeInMillis);
             }
         } catch (Exception e) {
             throw new RuntimeException("Error invalidating token", e);
@@ -159,15 +193,14 @@ public class JwtUtil {
     }
 
     public boolean isTokenBlacklisted(String token) {
-        return tokenBlacklistRepository.isTokenBlacklisted(token);
+        return tokenBlacklistService.isTokenBlacklisted(token);
     }
 
     public long getExpirationTimeFromToken(String token) {
-        final Date expiration = extractExpiration(token);
-        return expiration.getTime() - System.currentTimeMillis();
+        return getRemainingMillis(extractAllClaims(token));
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public long getRemainingMillis(Claims claims) {
+        return claims.getExpiration().getTime() - System.currentTimeMillis();
     }
-} 
\ No newline at end of file
+}
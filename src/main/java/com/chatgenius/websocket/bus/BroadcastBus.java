@@ -0,0 +1,22 @@
+package com.chatgenius.websocket.bus;
+
+import com.chatgenius.websocket.event.WebSocketEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.springframework.web.socket.TextMessage;
+
+// Carries channel events to every node's local subscribers. Selected by websocket.broadcast.bus (local | redis).
+public interface BroadcastBus {
+
+    // Receives an encoded frame for the sessions subscribed to a channel on this node
+    @FunctionalInterface
+    interface Delivery {
+        void deliver(String channelId, TextMessage frame);
+    }
+
+    void setDelivery(Delivery delivery);
+
+    void publish(String channelId, WebSocketEvent event) throws JsonProcessingException;
+
+    // For frames already encoded, e.g. by WebSocketEventCodec
+    void publish(String channelId, TextMessage frame);
+}
@@ -0,0 +1,34 @@
+package com.chatgenius.websocket.bus;
+
+import com.chatgenius.websocket.event.WebSocketEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
+
+// Single-node bus: events only reach sessions connected to this JVM
+@Component
+@ConditionalOnProperty(name = "websocket.broadcast.bus", havingValue = "local", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LocalBroadcastBus implements BroadcastBus {
+
+    private final ObjectMapper objectMapper;
+    private volatile Delivery delivery = (channelId, frame) -> { };
+
+    @Override
+    public void setDelivery(Delivery delivery) {
+        this.delivery = delivery;
+    }
+
+    @Override
+    public void publish(String channelId, WebSocketEvent event) throws JsonProcessingException {
+        publish(channelId, new TextMessage(objectMapper.writeValueAsBytes(event)));
+    }
+
+    @Override
+    public void publish(String channelId, TextMessage frame) {
+        delivery.deliver(channelId, frame);
+    }
+}
@@ -0,0 +1,170 @@
+package com.chatgenius.websocket.bus;
+
+import com.chatgenius.websocket.event.WebSocketEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+// Cluster bus over Redis pub/sub. Events are delivered to local sessions immediately and published
+// once per event (or once per batch under load) tagged with this node's id; every other node
+// delivers them to its own local subscribers only.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "websocket.broadcast.bus", havingValue = "redis")
+public class RedisBroadcastBus implements BroadcastBus, MessageListener {
+
+    private final ObjectMapper objectMapper;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final String topic;
+    private final int maxBatch;
+    private final BlockingQueue<BroadcastEntry> outbox;
+    private final String nodeId = UUID.randomUUID().toString();
+    private volatile Delivery delivery = (channelId, frame) -> { };
+    private volatile boolean running;
+    private Thread publisher;
+
+    public RedisBroadcastBus(ObjectMapper objectMapper,
+                             RedisTemplate<String, String> redisTemplate,
+                             RedisMessageListenerContainer listenerContainer,
+                             @Value("${websocket.broadcast.redis.topic:chat:broadcast}") String topic,
+                             @Value("${websocket.broadcast.redis.max-batch:64}") int maxBatch,
+                             @Value("${websocket.broadcast.redis.outbox-capacity:10000}") int outboxCapacity) {
+        this.objectMapper = objectMapper;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.topic = topic;
+        this.maxBatch = maxBatch;
+        this.outbox = new LinkedBlockingQueue<>(outboxCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(topic));
+        running = true;
+        publisher = new Thread(this::runPublisher, "ws-bus-publisher");
+        publisher.setDaemon(true);
+        publisher.start();
+        log.info("Redis broadcast bus started on topic {} as node {}", topic, nodeId);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (publisher != null) {
+            publisher.interrupt();
+        }
+        flush();
+    }
+
+    @Override
+    public void setDelivery(Delivery delivery) {
+        this.delivery = delivery;
+    }
+
+    @Override
+    public void publish(String channelId, WebSocketEvent event) throws JsonProcessingException {
+        publish(channelId, new TextMessage(objectMapper.writeValueAsBytes(event)));
+    }
+
+    @Override
+    public void publish(String channelId, TextMessage frame) {
+        delivery.deliver(channelId, frame);
+        if (!outbox.offer(new BroadcastEntry(channelId, frame.getPayload()))) {
+            log.warn("Broadcast outbox full, event for channel {} not published to other nodes", channelId);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            BroadcastBatch batch = objectMapper.readValue(message.getBody(), BroadcastBatch.class);
+            if (nodeId.equals(batch.getOrigin())) {
+                return;
+            }
+            for (BroadcastEntry entry : batch.getEntries()) {
+                delivery.deliver(entry.getChannelId(), new TextMessage(entry.getPayload()));
+            }
+        } catch (IOException e) {
+            log.error("Failed to decode broadcast batch", e);
+        }
+    }
+
+    // Publishes everything currently queued; returns the number of entries sent
+    int flush() {
+        int published = 0;
+        List<BroadcastEntry> batch = new ArrayList<>(maxBatch);
+        while (outbox.drainTo(batch, maxBatch) > 0) {
+            published += batch.size();
+            publishBatch(batch);
+            batch.clear();
+        }
+        return published;
+    }
+
+    private void runPublisher() {
+        List<BroadcastEntry> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                // Block for the first entry, then take whatever else piled up meanwhile
+                batch.add(outbox.take());
+                outbox.drainTo(batch, maxBatch - 1);
+                publishBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to publish {} broadcast entries", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void publishBatch(List<BroadcastEntry> entries) {
+        try {
+            String body = objectMapper.writeValueAsString(new BroadcastBatch(nodeId, new ArrayList<>(entries)));
+            redisTemplate.convertAndSend(topic, body);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to encode broadcast batch", e);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class BroadcastBatch {
+        private String origin;
+        private List<BroadcastEntry> entries;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class BroadcastEntry {
+        private String channelId;
+        // Already-encoded WebSocketEvent JSON, forwarded to sessions without re-serializing
+        private String payload;
+    }
+}
@@ -0,0 +1,92 @@
+package com.chatgenius.websocket.event;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+// Typed "data" of the events clients send, one class per event type (see WebSocketEventCodec)
+public final class ClientEvents {
+
+    private ClientEvents() {
+    }
+
+    // chat:message, chat:thread:create
+    @Data
+    @NoArgsConstructor
+    public static class ChatMessage {
+        private String channelId;
+        private String content;
+        private String clientMessageId;
+    }
+
+    // chat:thread:reply
+    @Data
+    @NoArgsConstructor
+    public static class ThreadReply {
+        private String channelId;
+        private String threadId;
+        private String content;
+    }
+
+    // chat:thread:list
+    @Data
+    @NoArgsConstructor
+    public static class ThreadList {
+        private String threadId;
+    }
+
+    // chat:typing
+    @Data
+    @NoArgsConstructor
+    public static class Typing {
+        private String channelId;
+        @JsonProperty("isTyping")
+        private boolean typing;
+    }
+
+    // chat:join, chat:leave
+    @Data
+    @NoArgsConstructor
+    public static class ChannelRef {
+        private String channelId;
+    }
+
+    // chat:message:delete
+    @Data
+    @NoArgsConstructor
+    public static class MessageDelete {
+        private String messageId;
+        private String channelId;
+    }
+
+    // chat:read: everything up to and including messageId has been read
+    @Data
+    @NoArgsConstructor
+    public static class ReadMarker {
+        private String channelId;
+        private String messageId;
+    }
+
+    // chat:list_channels
+    @Data
+    @NoArgsConstructor
+    public static class Empty {
+    }
+
+    // presence:status
+    @Data
+    @NoArgsConstructor
+    public static class PresenceStatus {
+        private String status;
+    }
+
+    // presence:subscribe
+    @Data
+    @NoArgsConstructor
+    public static class PresenceSubscribe {
+        private List<UUID> userIds;
+    }
+}
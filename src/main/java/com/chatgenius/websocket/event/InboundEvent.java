@@ -0,0 +1,14 @@
+package com.chatgenius.websocket.event;
+
+import lombok.Value;
+
+// A decoded client event; payload is null for event types the codec does not know
+@Value
+public class InboundEvent {
+    String type;
+    Object payload;
+
+    public <T> T payload(Class<T> payloadType) {
+        return payloadType.cast(payload);
+    }
+}
@@ -0,0 +1,109 @@
+package com.chatgenius.websocket.event;
+
+import com.chatgenius.dto.response.PresenceResponse;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Value;
+
+import java.util.List;
+
+// Typed "data" of the events the server sends. Field names and shapes match the former Map payloads,
+// so clients see the same JSON; optional fields are left out when null.
+public final class ServerEvents {
+
+    private ServerEvents() {
+    }
+
+    // connected
+    @Value
+    public static class Connected {
+        String sessionId;
+        String username;
+    }
+
+    // chat:message, chat:thread:created, chat:thread:reply and the entries of chat:thread:messages.
+    // seq is the message's number in its channel; a client that sees it jump can fetch the missing
+    // range from /api/messages/since
+    @Value
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ChatMessage {
+        String messageId;
+        String threadId;
+        String channelId;
+        String userId;
+        String content;
+        String type;
+        long timestamp;
+        String clientMessageId;
+        Long seq;
+    }
+
+    // chat:message:ack
+    @Value
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class MessageAck {
+        String messageId;
+        String channelId;
+        String status;
+        String clientMessageId;
+        Long seq;
+    }
+
+    // chat:message:deleted
+    @Value
+    public static class MessageDeleted {
+        String messageId;
+        String channelId;
+        long timestamp;
+    }
+
+    // chat:thread:messages
+    @Value
+    public static class ThreadMessages {
+        String threadId;
+        List<ChatMessage> messages;
+    }
+
+    // chat:joined, chat:left
+    @Value
+    public static class ChannelMembership {
+        String channelId;
+        String userId;
+        long timestamp;
+    }
+
+    // chat:channels
+    @Value
+    public static class Channels {
+        List<ChannelEntry> channels;
+    }
+
+    @Value
+    public static class ChannelEntry {
+        String id;
+        String name;
+        String type;
+        long unreadCount;
+    }
+
+    // chat:typing:users
+    @Value
+    public static class TypingUsers {
+        String channelId;
+        List<String> users;
+        long timestamp;
+    }
+
+    // presence:delta, presence:snapshot
+    @Value
+    public static class PresenceUsers {
+        List<PresenceResponse> users;
+        long timestamp;
+    }
+
+    // error
+    @Value
+    public static class Error {
+        String message;
+        long timestamp;
+    }
+}
@@ -0,0 +1,112 @@
+package com.chatgenius.websocket.event;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Streams {"type": ..., "data": {...}} frames straight to and from the typed payloads in ClientEvents
+// and ServerEvents. Readers and writers are resolved once per type and reused, so no intermediate
+// Map tree is built and nothing is looked up reflectively per frame.
+@Component
+public class WebSocketEventCodec {
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, ObjectReader> readers;
+    private final ObjectWriter frameWriter;
+
+    public WebSocketEventCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.readers = Map.ofEntries(
+            reader("chat:message", ClientEvents.ChatMessage.class),
+            reader("chat:thread:create", ClientEvents.ChatMessage.class),
+            reader("chat:thread:reply", ClientEvents.ThreadReply.class),
+            reader("chat:thread:list", ClientEvents.ThreadList.class),
+            reader("chat:typing", ClientEvents.Typing.class),
+            reader("chat:join", ClientEvents.ChannelRef.class),
+            reader("chat:leave", ClientEvents.ChannelRef.class),
+            reader("chat:list_channels", ClientEvents.Empty.class),
+            reader("chat:message:delete", ClientEvents.MessageDelete.class),
+            reader("chat:read", ClientEvents.ReadMarker.class),
+            reader("presence:status", ClientEvents.PresenceStatus.class),
+            reader("presence:subscribe", ClientEvents.PresenceSubscribe.class));
+        this.frameWriter = objectMapper.writerFor(Frame.class);
+    }
+
+    // Both fields are required and data must be an object; "type" may come before or after "data"
+    public InboundEvent decode(String json) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Invalid event format");
+            }
+            String type = null;
+            Object payload = null;
+            boolean hasData = false;
+            TokenBuffer bufferedData = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("type".equals(field) && value == JsonToken.VALUE_STRING) {
+                    type = parser.getText();
+                } else if ("data".equals(field) && value == JsonToken.START_OBJECT) {
+                    hasData = true;
+                    if (type == null) {
+                        bufferedData = new TokenBuffer(parser);
+                        bufferedData.copyCurrentStructure(parser);
+                    } else {
+                        payload = read(type, parser);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (type == null || !hasData) {
+                throw new IllegalArgumentException("Invalid event format");
+            }
+            if (bufferedData != null) {
+                try (JsonParser data = bufferedData.asParser()) {
+                    data.nextToken();
+                    payload = read(type, data);
+                }
+            }
+            return new InboundEvent(type, payload);
+        }
+    }
+
+    // The payload serializer is resolved per runtime class once and then served from Jackson's cache
+    public TextMessage encode(String type, Object payload) throws IOException {
+        return new TextMessage(frameWriter.writeValueAsBytes(new Frame(type, payload)));
+    }
+
+    private Object read(String type, JsonParser parser) throws IOException {
+        ObjectReader reader = readers.get(type);
+        if (reader == null) {
+            parser.skipChildren();
+            return null;
+        }
+        return reader.readValue(parser);
+    }
+
+    private static final class Frame {
+        public final String type;
+        public final Object data;
+
+        Frame(String type, Object data) {
+            this.type = type;
+            this.data = data;
+        }
+    }
+
+    private Map.Entry<String, ObjectReader> reader(String type, Class<?> payloadType) {
+        return Map.entry(type, objectMapper.readerFor(payloadType)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+    }
+}
@@ -4,10 +4,15 @@ import com.chatgenius.model.Channel;
 import com.chatgenius.model.Message;
 import com.chatgenius.model.User;
 import com.chatgenius.model.enums.MessageType;
+import com.chatgenius.model.enums.UserStatus;
 import com.chatgenius.service.ChatService;
 import com.chatgenius.service.MessageService;
 import com.chatgenius.service.UserService;
+import com.chatgenius.service.presence.PresenceService;
 import com.chatgenius.websocket.event.WebSocketEvent;
+import com.chatgenius.websocket.presence.PresenceDeltaAggregator;
+import com.chatgenius.websocket.session.ChannelSessionRegistry;
+import com.chatgenius.websocket.session.WebSocketSender;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,7 +24,6 @@ import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
@@ -33,7 +37,10 @@ public class BasicWebSocketHandler extends TextWebSocketHandler {
     private final ChatService chatService;
     private final MessageService messageService;
     private final UserService userService;
-    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    private final ChannelSessionRegistry sessionRegistry;
+    private final WebSocketSender sender;
+    private final PresenceService presenceService;
+    private final PresenceDeltaAggregator presenceDeltas;
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
@@ -51,7 +58,10 @@ public class BasicWebSocketHandler extends TextWebSocketHandler {
             return;
         }
         
-        sessions.put(sessionId, session);
+        // Resolve the user's channels once; broadcasts then route from memory
+        UUID userId = getUserId(username);
+        sender.register(session);
+        sessionRegistry.register(session, userId, presenceService.connected(sessionId, userId, username).getChannelIds());
         log.info("WebSocket connection established and session stored. Session ID: {}, User: {}", sessionId, username);
         
         // Send welcome message
@@ -60,12 +70,6 @@ public class BasicWebSocketHandler extends TextWebSocketHandler {
             "username", username
         )));
         
-        // Broadcast user online status
-        broadcastToAll(new WebSocketEvent("presence:online", Map.of(
-            "userId", username,
-            "timestamp", System.currentTimeMillis()
-        )));
-        
         log.info("Sent welcome message to session: {}", sessionId);
     }
 
@@ -207,13 +211,13 @@ public class BasicWebSocketHandler extends TextWebSocketHandler {
             return;
         }
         
-        WebSocketEvent response = new WebSocketEvent("presence:update", Map.of(
-            "userId", username,
-            "status", status,
-            "timestamp", System.currentTimeMillis()
-        ));
+        if (status == null) {
+            sendError(session, "Status is required");
+            return;
+        }
         
-        broadcastToAll(response);
+        // Channel peers get it in their next presence:delta
+        presenceService.updateStatus(getUserId(username), UserStatus.valueOf(status.toUpperCase()));
     }
 
     private void handleListChannels(WebSocketSession session) throws Exception {
@@ -286,47 +290,13 @@ public class BasicWebSocketHandler extends TextWebSocketHandler {
         }
     }
 
+    // Presence deltas are written from the sender's threads too, so every frame goes through its queue
     private void sendEvent(WebSocketSession session, WebSocketEvent event) throws Exception {
-        String json = objectMapper.writeValueAsString(event);
-        session.sendMessage(new TextMessage(json));
+        sender.send(session, event);
     }
 
     private void broadcastToChannel(String channelId, WebSocketEvent event) throws Exception {
-        String json = objectMapper.writeValueAsString(event);
-        TextMessage message = new TextMessage(json);
-        UUID channelUuid = UUID.fromString(channelId);
-        
-        try {
-            // Broadcast to sessions of channel members
-            for (WebSocketSession session : sessions.values()) {
-                if (session.isOpen()) {
-                    String sessionUsername = getUsername(session);
-                    if (sessionUsername != null) {
-                        UUID sessionUserId = getUserId(sessionUsername);
-                        List<Channel> userChannels = chatService.getUserChannels(sessionUserId);
-                        boolean isMember = userChannels.stream()
-                            .anyMatch(c -> c.getId().equals(channelUuid));
-                        
-                        if (isMember) {
-                            session.sendMessage(message);
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            log.error("Error broadcasting to channel {}", channelId, e);
-        }
-    }
-
-    private void broadcastToAll(WebSocketEvent event) throws Exception {
-        String json = objectMapper.writeValueAsString(event);
-        TextMessage message = new TextMessage(json);
-        
-        for (WebSocketSession session : sessions.values()) {
-            if (session.isOpen()) {
-                session.sendMessage(message);
-            }
-        }
+        sender.broadcast(sessionRegistry.getChannelSessions(UUID.fromString(channelId)), event);
     }
 
     @Override
@@ -335,14 +305,11 @@ public class BasicWebSocketHandler extends TextWebSocketHandler {
         log.info("WebSocket connection closing - Session ID: {}", sessionId);
         log.info("Close Status: {}", status);
         
-        sessions.remove(sessionId);
+        sessionRegistry.unregister(sessionId);
+        sender.unregister(sessionId);
+        presenceDeltas.unsubscribeAll(sessionId);
+        presenceService.disconnected(sessionId);
         log.info("Session removed from active sessions. Session ID: {}", sessionId);
-        
-        // Broadcast offline status
-        broadcastToAll(new WebSocketEvent("presence:offline", Map.of(
-            "userId", sessionId,
-            "timestamp", System.currentTimeMillis()
-        )));
     }
 
     @Override
@@ -2,17 +2,36 @@ package com.chatgenius.websocket.handler;
 
 import com.chatgenius.model.Channel;
 import com.chatgenius.model.Message;
+import com.chatgenius.dto.response.PresenceResponse;
+import com.chatgenius.dto.response.UnreadCountResponse;
 import com.chatgenius.model.User;
 import com.chatgenius.model.enums.MessageType;
+import com.chatgenius.model.enums.UserStatus;
 import com.chatgenius.service.ChatService;
 import com.chatgenius.service.MessageService;
 import com.chatgenius.service.UserService;
-import com.chatgenius.websocket.event.WebSocketEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.chatgenius.service.presence.PresenceService;
+import com.chatgenius.service.presence.PresenceSession;
+import com.chatgenius.service.read.ReadCursorService;
+import com.chatgenius.service.sequence.MessageSequencer;
+import com.chatgenius.service.writebehind.PendingMessage;
+import com.chatgenius.service.writebehind.WriteBehindMessagePipeline;
+import com.chatgenius.websocket.bus.BroadcastBus;
+import com.chatgenius.websocket.event.ClientEvents;
+import com.chatgenius.websocket.event.InboundEvent;
+import com.chatgenius.websocket.event.ServerEvents;
+import com.chatgenius.websocket.event.WebSocketEventCodec;
+import com.chatgenius.websocket.presence.PresenceDeltaAggregator;
+import com.chatgenius.websocket.session.ChannelSessionRegistry;
+import com.chatgenius.websocket.session.IdleSessionReaper;
+import com.chatgenius.websocket.session.WebSocketSender;
+import com.chatgenius.websocket.typing.TypingIndicatorAggregator;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PongMessage;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
@@ -27,14 +46,32 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ChatWebSocketHandler extends TextWebSocketHandler {
 
-    private final ObjectMapper objectMapper;
+    private final WebSocketEventCodec codec;
     private final ChatService chatService;
     private final MessageService messageService;
     private final UserService userService;
+    private final WebSocketSender sender;
+    private final BroadcastBus broadcastBus;
+    private final PresenceService presenceService;
+    private final PresenceDeltaAggregator presenceDeltas;
+    private final ChannelSessionRegistry sessionRegistry;
+    private final TypingIndicatorAggregator typingIndicators;
+    private final IdleSessionReaper idleSessionReaper;
+    private final ReadCursorService readCursors;
+    private final MessageSequencer sequencer;
+    // Present when chat.message.write-behind.enabled=true
+    private final Optional<WriteBehindMessagePipeline> writeBehind;
     private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
     private final Map<String, Set<String>> channelSubscriptions = new ConcurrentHashMap<>();
-    private final Map<String, Long> lastActivityTimestamp = new ConcurrentHashMap<>();
-    private static final long INACTIVE_TIMEOUT = 1800000; // 30 minutes in milliseconds
+    // Reverse of channelSubscriptions, so closing a session touches only its own channels
+    private final Map<String, Set<String>> subscriptionsBySession = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void registerBroadcastDelivery() {
+        broadcastBus.setDelivery(this::deliverToLocalSubscribers);
+        typingIndicators.setDelivery(this::deliverToLocalSubscribers);
+        idleSessionReaper.setReapListener(this::releaseSessions);
+    }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
@@ -50,51 +87,64 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
         }
         
         sessions.put(sessionId, session);
-        updateLastActivity(sessionId);
+        sender.register(session);
+        idleSessionReaper.register(session);
         
-        sendEvent(session, new WebSocketEvent("connected", Map.of(
-            "sessionId", sessionId,
-            "username", username
-        )));
+        UUID userId = getUserId(username);
+        if (userId != null) {
+            // Membership channels route this session's presence:delta frames
+            PresenceSession presence = presenceService.connected(sessionId, userId, username);
+            sessionRegistry.register(session, userId, presence.getChannelIds());
+        }
+        
+        sendEvent(session, "connected", new ServerEvents.Connected(sessionId, username));
     }
 
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
         String sessionId = session.getId();
         String payload = message.getPayload();
-        updateLastActivity(sessionId);
+        idleSessionReaper.messageReceived(sessionId);
         
         try {
-            WebSocketEvent event = objectMapper.readValue(payload, WebSocketEvent.class);
-            validateEvent(event);
+            InboundEvent event = codec.decode(payload);
             
             switch (event.getType()) {
                 case "chat:message":
-                    handleChatMessage(session, event);
+                    handleChatMessage(session, event.payload(ClientEvents.ChatMessage.class));
                     break;
                 case "chat:thread:create":
-                    handleThreadCreate(session, event);
+                    handleThreadCreate(session, event.payload(ClientEvents.ChatMessage.class));
                     break;
                 case "chat:thread:reply":
-                    handleThreadReply(session, event);
+                    handleThreadReply(session, event.payload(ClientEvents.ThreadReply.class));
                     break;
                 case "chat:thread:list":
-                    handleThreadList(session, event);
+                    handleThreadList(session, event.payload(ClientEvents.ThreadList.class));
                     break;
                 case "chat:typing":
-                    handleTypingIndicator(session, event);
+                    handleTypingIndicator(session, event.payload(ClientEvents.Typing.class));
                     break;
                 case "chat:join":
-                    handleJoinChannel(session, event);
+                    handleJoinChannel(session, event.payload(ClientEvents.ChannelRef.class));
                     break;
                 case "chat:leave":
-                    handleLeaveChannel(session, event);
+                    handleLeaveChannel(session, event.payload(ClientEvents.ChannelRef.class));
                     break;
                 case "chat:list_channels":
                     handleListChannels(session);
                     break;
                 case "chat:message:delete":
-                    handleMessageDelete(session, event);
+                    handleMessageDelete(session, event.payload(ClientEvents.MessageDelete.class));
+                    break;
+                case "chat:read":
+                    handleReadMarker(session, event.payload(ClientEvents.ReadMarker.class));
+                    break;
+                case "presence:status":
+                    handlePresenceStatus(session, event.payload(ClientEvents.PresenceStatus.class));
+                    break;
+                case "presence:subscribe":
+                    handlePresenceSubscribe(session, event.payload(ClientEvents.PresenceSubscribe.class));
                     break;
                 default:
                     handleUnknownEvent(session, event);
@@ -107,10 +157,14 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
         }
     }
 
-    private void handleChatMessage(WebSocketSession session, WebSocketEvent event) throws Exception {
-        Map<String, Object> data = event.getData();
-        String channelId = (String) data.get("channelId");
-        String content = (String) data.get("content");
+    @Override
+    protected void handlePongMessage(WebSocketSession session, PongMessage message) {
+        idleSessionReaper.pongReceived(session.getId());
+    }
+
+    private void handleChatMessage(WebSocketSession session, ClientEvents.ChatMessage data) throws Exception {
+        String channelId = data.getChannelId();
+        String content = data.getContent();
         String username = getUsername(session);
         
         if (!validateUserAndChannel(username, channelId)) {
@@ -121,6 +175,12 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
         UUID userId = getUserId(username);
         UUID channelUuid = UUID.fromString(channelId);
         
+        if (writeBehind.isPresent()) {
+            handleChatMessageWriteBehind(session, writeBehind.get(), channelUuid, userId, username, content,
+                data.getClientMessageId());
+            return;
+        }
+        
         // Save the message first
         Message message = chatService.sendMessage(
             channelUuid,
@@ -130,21 +190,52 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
         );
         
         // Then broadcast to all subscribers
-        WebSocketEvent response = new WebSocketEvent("chat:message", Map.of(
-            "messageId", message.getId().toString(),
-            "channelId", channelId,
-            "userId", username,
-            "content", content,
-            "timestamp", message.getCreatedAt().toInstant().toEpochMilli()
-        ));
-        
         log.debug("Broadcasting new message to channel {}. Message ID: {}", channelId, message.getId());
-        broadcastToChannel(channelId, response);
+        broadcastToChannel(channelId, "chat:message", new ServerEvents.ChatMessage(message.getId().toString(), null,
+            channelId, username, content, null, message.getCreatedAt().toInstant().toEpochMilli(), null,
+            message.getSeq()));
     }
 
-    private void handleJoinChannel(WebSocketSession session, WebSocketEvent event) throws Exception {
-        Map<String, Object> data = event.getData();
-        String channelId = (String) data.get("channelId");
+    // Broadcast first, persist in the background; the sender gets chat:message:ack once the row is committed
+    private void handleChatMessageWriteBehind(WebSocketSession session, WriteBehindMessagePipeline pipeline,
+                                              UUID channelId, UUID userId, String username, String content,
+                                              String clientMessageId) throws Exception {
+        if (userId == null || !chatService.isChannelMember(channelId, userId)) {
+            sendError(session, "User is not a member of this channel");
+            return;
+        }
+        
+        PendingMessage candidate = PendingMessage.create(channelId, userId, content, MessageType.TEXT, clientMessageId);
+        // Numbered now when the store allows it, so the broadcast carries the number too; a resend that
+        // is dropped below leaves a gap, which clients handle like any other
+        sequencer.reserveAhead(channelId).ifPresent(candidate::numbered);
+        PendingMessage message = pipeline.submit(candidate);
+        if (message == null) {
+            sendError(session, "Server busy, message not accepted. Please retry");
+            return;
+        }
+        
+        // A resend of a message accepted moments ago is only acked again, not re-broadcast
+        if (message == candidate) {
+            broadcastToChannel(channelId.toString(), "chat:message", new ServerEvents.ChatMessage(
+                message.getId().toString(), null, channelId.toString(), username, content, null,
+                message.getCreatedAt().toInstant().toEpochMilli(), clientMessageId, message.getSeq()));
+        }
+        
+        message.getPersisted().whenComplete((storedId, error) -> {
+            ServerEvents.MessageAck ack = new ServerEvents.MessageAck(
+                (storedId != null ? storedId : message.getId()).toString(), channelId.toString(),
+                error == null ? "persisted" : "failed", clientMessageId, message.getSeq());
+            try {
+                sendEvent(session, "chat:message:ack", ack);
+            } catch (IOException e) {
+                log.debug("Could not ack message {} to session {}", message.getId(), session.getId());
+            }
+        });
+    }
+
+    private void handleJoinChannel(WebSocketSession session, ClientEvents.ChannelRef data) throws Exception {
+        String channelId = data.getChannelId();
         String username = getUsername(session);
         
         if (username == null) {
@@ -162,19 +253,12 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
             username, session.getId(), channelId, 
             channelSubscriptions.getOrDefault(channelId, Collections.emptySet()));
         
-        WebSocketEvent response = new WebSocketEvent("chat:joined", Map.of(
-            "channelId", channelId,
-            "userId", username,
-            "timestamp", System.currentTimeMillis()
-        ));
-        
         // Only send the join confirmation to the user who joined
-        sendEvent(session, response);
+        sendEvent(session, "chat:joined", new ServerEvents.ChannelMembership(channelId, username, System.currentTimeMillis()));
     }
 
-    private void handleLeaveChannel(WebSocketSession session, WebSocketEvent event) throws Exception {
-        Map<String, Object> data = event.getData();
-        String channelId = (String) data.get("channelId");
+    private void handleLeaveChannel(WebSocketSession session, ClientEvents.ChannelRef data) throws Exception {
+        String channelId = data.getChannelId();
         String username = getUsername(session);
         
         if (username == null) {
@@ -188,34 +272,54 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
             username, session.getId(), channelId, 
             channelSubscriptions.getOrDefault(channelId, Collections.emptySet()));
         
-        WebSocketEvent response = new WebSocketEvent("chat:left", Map.of(
-            "channelId", channelId,
-            "userId", username,
-            "timestamp", System.currentTimeMillis()
-        ));
-        
         // Only send the leave confirmation to the user who left
-        sendEvent(session, response);
+        sendEvent(session, "chat:left", new ServerEvents.ChannelMembership(channelId, username, System.currentTimeMillis()));
+    }
+
+    private void handleTypingIndicator(WebSocketSession session, ClientEvents.Typing data) throws Exception {
+        String channelId = data.getChannelId();
+        String username = getUsername(session);
+        
+        if (!validateUserAndChannel(username, channelId)) {
+            sendError(session, "Invalid user or channel");
+            return;
+        }
+        
+        // Folded into the channel's next chat:typing:users frame; events over the rate limit are dropped quietly
+        typingIndicators.typing(session.getId(), channelId, username, data.isTyping());
     }
 
-    private void handleTypingIndicator(WebSocketSession session, WebSocketEvent event) throws Exception {
-        Map<String, Object> data = event.getData();
-        String channelId = (String) data.get("channelId");
-        boolean isTyping = (boolean) data.get("isTyping");
+    private void handlePresenceStatus(WebSocketSession session, ClientEvents.PresenceStatus data) throws Exception {
         String username = getUsername(session);
+        String status = data.getStatus();
         
         if (username == null) {
             sendError(session, "Not authenticated");
             return;
         }
+        if (status == null) {
+            sendError(session, "Status is required");
+            return;
+        }
         
-        WebSocketEvent response = new WebSocketEvent("chat:typing", Map.of(
-            "channelId", channelId,
-            "userId", username,
-            "isTyping", isTyping
-        ));
+        // Other sessions hear about it through the PresenceChangedEvent the service publishes
+        presenceService.updateStatus(getUserId(username), UserStatus.valueOf(status.toUpperCase()));
+    }
+
+    private void handlePresenceSubscribe(WebSocketSession session, ClientEvents.PresenceSubscribe data) throws Exception {
+        if (getUsername(session) == null) {
+            sendError(session, "Not authenticated");
+            return;
+        }
+        if (data.getUserIds() == null) {
+            sendError(session, "userIds must be a list");
+            return;
+        }
+        
+        // Replaces any earlier subscription; an empty list clears it
+        List<PresenceResponse> snapshot = presenceDeltas.subscribe(session.getId(), new HashSet<>(data.getUserIds()));
         
-        broadcastToChannel(channelId, response);
+        sendEvent(session, "presence:snapshot", new ServerEvents.PresenceUsers(snapshot, System.currentTimeMillis()));
     }
 
     private void handleListChannels(WebSocketSession session) throws Exception {
@@ -227,23 +331,32 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
 
         UUID userId = getUserId(username);
         List<Channel> channels = chatService.getUserChannels(userId);
+        Map<UUID, Long> unread = readCursors.getReadStates(userId).stream()
+            .map(UnreadCountResponse::fromState)
+            .collect(Collectors.toMap(UnreadCountResponse::getChannelId, UnreadCountResponse::getUnreadCount));
         
-        List<Map<String, Object>> channelList = channels.stream()
-            .map(channel -> {
-                Map<String, Object> channelData = new HashMap<>();
-                channelData.put("id", channel.getId().toString());
-                channelData.put("name", channel.getName());
-                channelData.put("type", channel.getType().toString());
-                return channelData;
-            })
+        List<ServerEvents.ChannelEntry> channelList = channels.stream()
+            .map(channel -> new ServerEvents.ChannelEntry(channel.getId().toString(), channel.getName(),
+                channel.getType().toString(), unread.getOrDefault(channel.getId(), 0L)))
             .collect(Collectors.toList());
 
-        sendEvent(session, new WebSocketEvent("chat:channels", Map.of(
-            "channels", channelList
-        )));
+        sendEvent(session, "chat:channels", new ServerEvents.Channels(channelList));
     }
 
-    private void handleUnknownEvent(WebSocketSession session, WebSocketEvent event) throws IOException {
+    // Buffered and written with the next read-cursor flush; no reply
+    private void handleReadMarker(WebSocketSession session, ClientEvents.ReadMarker data) throws Exception {
+        String username = getUsername(session);
+        
+        if (!validateUserAndChannel(username, data.getChannelId()) || data.getMessageId() == null) {
+            sendError(session, "channelId and messageId are required");
+            return;
+        }
+        
+        readCursors.markRead(getUserId(username), UUID.fromString(data.getChannelId()),
+            UUID.fromString(data.getMessageId()));
+    }
+
+    private void handleUnknownEvent(WebSocketSession session, InboundEvent event) throws IOException {
         log.warn("Received unknown event type: {}", event.getType());
         sendError(session, "Unknown event type: " + event.getType());
     }
@@ -260,16 +373,32 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
         String sessionId = session.getId();
-        sessions.remove(sessionId);
-        channelSubscriptions.remove(sessionId);
-        lastActivityTimestamp.remove(sessionId);
+        releaseSessions(List.of(sessionId));
         log.info("WebSocket connection closed - Session ID: {}, Status: {}", sessionId, status);
     }
 
-    private void validateEvent(WebSocketEvent event) {
-        if (event == null || event.getType() == null || event.getData() == null) {
-            throw new IllegalArgumentException("Invalid event format");
+    // Drops all per-session state. Called for each closed connection and once per reaper tick for the
+    // sessions it closed, whose close callback may never arrive on a half-open connection; safe to repeat.
+    private void releaseSessions(Collection<String> sessionIds) {
+        Map<String, List<String>> leavingByChannel = new HashMap<>();
+        for (String sessionId : sessionIds) {
+            sessions.remove(sessionId);
+            sender.unregister(sessionId);
+            idleSessionReaper.unregister(sessionId);
+            sessionRegistry.unregister(sessionId);
+            presenceDeltas.unsubscribeAll(sessionId);
+            typingIndicators.sessionClosed(sessionId);
+            presenceService.disconnected(sessionId);
+            Set<String> channelIds = subscriptionsBySession.remove(sessionId);
+            if (channelIds != null) {
+                channelIds.forEach(channelId -> leavingByChannel.computeIfAbsent(channelId, k -> new ArrayList<>()).add(sessionId));
+            }
         }
+        leavingByChannel.forEach((channelId, leaving) ->
+            channelSubscriptions.computeIfPresent(channelId, (k, subscribers) -> {
+                leaving.forEach(subscribers::remove);
+                return subscribers.isEmpty() ? null : subscribers;
+            }));
     }
 
     private boolean validateUserAndChannel(String username, String channelId) {
@@ -295,61 +424,57 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
         return user != null ? user.getId() : null;
     }
 
-    private void sendEvent(WebSocketSession session, WebSocketEvent event) throws IOException {
+    private void sendEvent(WebSocketSession session, String type, Object data) throws IOException {
         if (session.isOpen()) {
-            String payload = objectMapper.writeValueAsString(event);
-            session.sendMessage(new TextMessage(payload));
+            sender.send(session, codec.encode(type, data));
         }
     }
 
     private void sendError(WebSocketSession session, String message) throws IOException {
-        WebSocketEvent errorEvent = new WebSocketEvent("error", Map.of(
-            "message", message,
-            "timestamp", System.currentTimeMillis()
-        ));
-        sendEvent(session, errorEvent);
+        sendEvent(session, "error", new ServerEvents.Error(message, System.currentTimeMillis()));
+    }
+
+    private void broadcastToChannel(String channelId, String type, Object data) {
+        try {
+            // Encoded once; the bus hands the frame to this node's subscribers and to other nodes
+            broadcastBus.publish(channelId, codec.encode(type, data));
+        } catch (IOException e) {
+            log.error("Failed to encode broadcast for channel {}", channelId, e);
+        }
     }
 
-    private void broadcastToChannel(String channelId, WebSocketEvent event) {
+    private void deliverToLocalSubscribers(String channelId, TextMessage frame) {
         Set<String> subscribers = channelSubscriptions.getOrDefault(channelId, Collections.emptySet());
-        log.debug("Broadcasting to channel {}. Subscribers: {}", channelId, subscribers);
+        log.debug("Delivering to channel {}. Local subscribers: {}", channelId, subscribers);
         
-        subscribers.stream()
+        List<WebSocketSession> targets = subscribers.stream()
             .map(sessions::get)
             .filter(Objects::nonNull)
             .filter(WebSocketSession::isOpen)
-            .forEach(session -> {
-                try {
-                    sendEvent(session, event);
-                    log.debug("Successfully sent message to session: {}", session.getId());
-                } catch (IOException e) {
-                    log.error("Failed to broadcast message to session: {}", session.getId(), e);
-                }
-            });
+            .collect(Collectors.toList());
+        int delivered = sender.broadcast(targets, frame);
+        log.debug("Queued broadcast for {} of {} sessions in channel {}", delivered, targets.size(), channelId);
     }
 
     private void addToChannelSubscriptions(String sessionId, String channelId) {
         channelSubscriptions.computeIfAbsent(channelId, k -> ConcurrentHashMap.newKeySet()).add(sessionId);
+        subscriptionsBySession.computeIfAbsent(sessionId, k -> ConcurrentHashMap.newKeySet()).add(channelId);
     }
 
     private void removeFromChannelSubscriptions(String sessionId, String channelId) {
-        Set<String> subscribers = channelSubscriptions.get(channelId);
-        if (subscribers != null) {
+        channelSubscriptions.computeIfPresent(channelId, (k, subscribers) -> {
             subscribers.remove(sessionId);
-            if (subscribers.isEmpty()) {
-                channelSubscriptions.remove(channelId);
-            }
-        }
-    }
-
-    private void updateLastActivity(String sessionId) {
-        lastActivityTimestamp.put(sessionId, System.currentTimeMillis());
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        subscriptionsBySession.computeIfPresent(sessionId, (k, channelIds) -> {
+            channelIds.remove(channelId);
+            return channelIds.isEmpty() ? null : channelIds;
+        });
     }
 
-    private void handleThreadCreate(WebSocketSession session, WebSocketEvent event) throws Exception {
-        Map<String, Object> data = event.getData();
-        String channelId = (String) data.get("channelId");
-        String content = (String) data.get("content");
+    private void handleThreadCreate(WebSocketSession session, ClientEvents.ChatMessage data) throws Exception {
+        String channelId = data.getChannelId();
+        String content = data.getContent();
         String username = getUsername(session);
         
         if (!validateUserAndChannel(username, channelId)) {
@@ -367,22 +492,15 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
             MessageType.THREAD_START
         );
         
-        WebSocketEvent response = new WebSocketEvent("chat:thread:created", Map.of(
-            "messageId", threadMessage.getId().toString(),
-            "channelId", channelId,
-            "userId", username,
-            "content", content,
-            "timestamp", threadMessage.getCreatedAt().toInstant().toEpochMilli()
-        ));
-        
-        broadcastToChannel(channelId, response);
+        broadcastToChannel(channelId, "chat:thread:created", new ServerEvents.ChatMessage(
+            threadMessage.getId().toString(), null, channelId, username, content, null,
+            threadMessage.getCreatedAt().toInstant().toEpochMilli(), null, threadMessage.getSeq()));
     }
 
-    private void handleThreadReply(WebSocketSession session, WebSocketEvent event) throws Exception {
-        Map<String, Object> data = event.getData();
-        String channelId = (String) data.get("channelId");
-        String threadId = (String) data.get("threadId");
-        String content = (String) data.get("content");
+    private void handleThreadReply(WebSocketSession session, ClientEvents.ThreadReply data) throws Exception {
+        String channelId = data.getChannelId();
+        String threadId = data.getThreadId();
+        String content = data.getContent();
         String username = getUsername(session);
         
         if (!validateUserAndChannel(username, channelId)) {
@@ -401,21 +519,13 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
             content
         );
         
-        WebSocketEvent response = new WebSocketEvent("chat:thread:reply", Map.of(
-            "messageId", reply.getId().toString(),
-            "threadId", threadId,
-            "channelId", channelId,
-            "userId", username,
-            "content", content,
-            "timestamp", reply.getCreatedAt().toInstant().toEpochMilli()
-        ));
-        
-        broadcastToChannel(channelId, response);
+        broadcastToChannel(channelId, "chat:thread:reply", new ServerEvents.ChatMessage(
+            reply.getId().toString(), threadId, channelId, username, content, null,
+            reply.getCreatedAt().toInstant().toEpochMilli(), null, reply.getSeq()));
     }
 
-    private void handleThreadList(WebSocketSession session, WebSocketEvent event) throws Exception {
-        Map<String, Object> data = event.getData();
-        String threadId = (String) data.get("threadId");
+    private void handleThreadList(WebSocketSession session, ClientEvents.ThreadList data) throws Exception {
+        String threadId = data.getThreadId();
         String username = getUsername(session);
         
         if (username == null) {
@@ -426,30 +536,19 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
         UUID threadUuid = UUID.fromString(threadId);
         List<Message> replies = messageService.getThreadReplies(threadUuid);
         
-        List<Map<String, Object>> messageList = replies.stream()
-            .map(message -> {
-                Map<String, Object> messageData = new HashMap<>();
-                messageData.put("messageId", message.getId().toString());
-                messageData.put("threadId", threadId);
-                messageData.put("channelId", message.getChannel().getId().toString());
-                messageData.put("userId", message.getUser().getUsername());
-                messageData.put("content", message.getContent());
-                messageData.put("type", message.getType().toString());
-                messageData.put("timestamp", message.getCreatedAt().toInstant().toEpochMilli());
-                return messageData;
-            })
+        List<ServerEvents.ChatMessage> messageList = replies.stream()
+            .map(message -> new ServerEvents.ChatMessage(message.getId().toString(), threadId,
+                message.getChannel().getId().toString(), message.getUser().getUsername(), message.getContent(),
+                message.getType().toString(), message.getCreatedAt().toInstant().toEpochMilli(), null,
+                message.getSeq()))
             .collect(Collectors.toList());
 
-        sendEvent(session, new WebSocketEvent("chat:thread:messages", Map.of(
-            "threadId", threadId,
-            "messages", messageList
-        )));
+        sendEvent(session, "chat:thread:messages", new ServerEvents.ThreadMessages(threadId, messageList));
     }
 
-    private void handleMessageDelete(WebSocketSession session, WebSocketEvent event) throws Exception {
-        Map<String, Object> data = event.getData();
-        String messageId = (String) data.get("messageId");
-        String channelId = (String) data.get("channelId");
+    private void handleMessageDelete(WebSocketSession session, ClientEvents.MessageDelete data) throws Exception {
+        String messageId = data.getMessageId();
+        String channelId = data.getChannelId();
         String username = getUsername(session);
         
         if (!validateUserAndChannel(username, channelId)) {
@@ -458,12 +557,7 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
         }
 
         // Broadcast deletion event
-        WebSocketEvent response = new WebSocketEvent("chat:message:deleted", Map.of(
-            "messageId", messageId,
-            "channelId", channelId,
-            "timestamp", System.currentTimeMillis()
-        ));
-        
-        broadcastToChannel(channelId, response);
+        broadcastToChannel(channelId, "chat:message:deleted",
+            new ServerEvents.MessageDeleted(messageId, channelId, System.currentTimeMillis()));
     }
 } 
\ No newline at end of file
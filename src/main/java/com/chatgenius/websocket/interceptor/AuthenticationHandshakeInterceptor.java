@@ -35,21 +35,22 @@ public class AuthenticationHandshakeInterceptor implements HandshakeInterceptor
                 return false;
             }
 
-            // Extract username and validate token
-            String username = jwtUtil.extractUsername(token);
-            if (username == null) {
-                log.warn("Could not extract username from token");
-                return false;
-            }
-
             // Check if token is blacklisted
             if (jwtUtil.isTokenBlacklisted(token)) {
                 log.warn("Token is blacklisted");
                 return false;
             }
 
+            // Parse and verify once, then read username and expiry from the same claims
+            Claims claims = jwtUtil.parseAndVerify(token);
+            String username = claims.getSubject();
+            if (username == null) {
+                log.warn("Could not extract username from token");
+                return false;
+            }
+
             // Check token expiration
-            long expirationTime = jwtUtil.getExpirationTimeFromToken(token);
+            long expirationTime = jwtUtil.getRemainingMillis(claims);
             if (expirationTime <= 0) {
                 log.warn("Token has expired");
                 return false;
@@ -0,0 +1,227 @@
+package com.chatgenius.websocket.presence;
+
+import com.chatgenius.dto.response.PresenceResponse;
+import com.chatgenius.event.PresenceChangedEvent;
+import com.chatgenius.exception.ValidationException;
+import com.chatgenius.model.enums.UserStatus;
+import com.chatgenius.service.presence.PresenceService;
+import com.chatgenius.websocket.event.ServerEvents;
+import com.chatgenius.websocket.event.WebSocketEventCodec;
+import com.chatgenius.websocket.session.ChannelSessionRegistry;
+import com.chatgenius.websocket.session.WebSocketSender;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Coalesces presence changes into one presence:delta frame per session per window. Only the latest
+// change of each user within a window is kept, and a session hears about a user only if they share a
+// channel or the session asked for that user with presence:subscribe. With the redis presence store
+// each window's changes are also relayed once to the other nodes for their own sessions.
+@Slf4j
+@Component
+public class PresenceDeltaAggregator implements MessageListener {
+
+    private final ChannelSessionRegistry sessionRegistry;
+    private final WebSocketSender sender;
+    private final PresenceService presenceService;
+    private final ObjectMapper objectMapper;
+    private final WebSocketEventCodec codec;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Duration window;
+    private final int maxSubscriptions;
+    private final boolean clustered;
+    private final String topic;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<UUID, PresenceChange> pending = new ConcurrentHashMap<>();
+    private final Map<String, Set<UUID>> subscriptionsBySession = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<String>> watchersByUser = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+
+    public PresenceDeltaAggregator(ChannelSessionRegistry sessionRegistry,
+                                   WebSocketSender sender,
+                                   PresenceService presenceService,
+                                   ObjectMapper objectMapper,
+                                   WebSocketEventCodec codec,
+                                   RedisTemplate<String, String> redisTemplate,
+                                   RedisMessageListenerContainer listenerContainer,
+                                   @Value("${websocket.presence.delta-window:250ms}") Duration window,
+                                   @Value("${websocket.presence.max-subscriptions:100}") int maxSubscriptions,
+                                   @Value("${chat.presence.store:local}") String presenceStore,
+                                   @Value("${websocket.presence.redis.topic:chat:presence}") String topic) {
+        this.sessionRegistry = sessionRegistry;
+        this.sender = sender;
+        this.presenceService = presenceService;
+        this.objectMapper = objectMapper;
+        this.codec = codec;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.window = window;
+        this.maxSubscriptions = maxSubscriptions;
+        this.clustered = "redis".equals(presenceStore);
+        this.topic = topic;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (clustered) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(topic));
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "presence-delta");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = window.toMillis();
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+    }
+
+    @EventListener
+    public void onPresenceChanged(PresenceChangedEvent event) {
+        pending.put(event.getUserId(), new PresenceChange(event.getUserId(), event.getUsername(),
+            event.getStatus(), event.getChannelIds()));
+    }
+
+    // Replaces the session's explicit watch list and returns the watched users' current presence
+    public List<PresenceResponse> subscribe(String sessionId, Collection<UUID> userIds) {
+        if (userIds.size() > maxSubscriptions) {
+            throw new ValidationException("At most " + maxSubscriptions + " users can be subscribed to");
+        }
+        Set<UUID> watched = ConcurrentHashMap.newKeySet();
+        watched.addAll(userIds);
+        unsubscribeAll(sessionId);
+        subscriptionsBySession.put(sessionId, watched);
+        watched.forEach(userId -> watchersByUser.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet()).add(sessionId));
+        List<PresenceResponse> snapshot = new ArrayList<>(watched.size());
+        watched.forEach(userId -> snapshot.add(presenceService.getPresence(userId)));
+        return snapshot;
+    }
+
+    public void unsubscribeAll(String sessionId) {
+        Set<UUID> watched = subscriptionsBySession.remove(sessionId);
+        if (watched == null) {
+            return;
+        }
+        for (UUID userId : watched) {
+            watchersByUser.computeIfPresent(userId, (key, sessionIds) -> {
+                sessionIds.remove(sessionId);
+                return sessionIds.isEmpty() ? null : sessionIds;
+            });
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            PresenceBatch batch = objectMapper.readValue(message.getBody(), PresenceBatch.class);
+            if (!nodeId.equals(batch.getOrigin())) {
+                deliver(batch.getChanges());
+            }
+        } catch (IOException e) {
+            log.error("Failed to decode presence batch", e);
+        }
+    }
+
+    void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<PresenceChange> changes = new ArrayList<>(pending.size());
+        // Remove key by key so a change arriving meanwhile lands in the next window instead of being lost
+        for (UUID userId : pending.keySet()) {
+            PresenceChange change = pending.remove(userId);
+            if (change != null) {
+                changes.add(change);
+            }
+        }
+        try {
+            if (clustered) {
+                redisTemplate.convertAndSend(topic, objectMapper.writeValueAsString(new PresenceBatch(nodeId, changes)));
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to relay {} presence changes: {}", changes.size(), e.getMessage());
+        }
+        deliver(changes);
+    }
+
+    // Fan-out cost is the number of sessions sharing a channel with a changed user, not sessions x changes
+    private void deliver(List<PresenceChange> changes) {
+        Map<String, WebSocketSession> targets = new HashMap<>();
+        Map<String, List<PresenceResponse>> usersBySession = new HashMap<>();
+        for (PresenceChange change : changes) {
+            PresenceResponse user = new PresenceResponse(change.getUserId(), change.getUsername(), change.getStatus());
+            Set<String> reached = new HashSet<>();
+            for (UUID channelId : change.getChannelIds()) {
+                for (WebSocketSession session : sessionRegistry.getChannelSessions(channelId)) {
+                    if (reached.add(session.getId())) {
+                        targets.put(session.getId(), session);
+                        usersBySession.computeIfAbsent(session.getId(), key -> new ArrayList<>()).add(user);
+                    }
+                }
+            }
+            for (String sessionId : watchersByUser.getOrDefault(change.getUserId(), Collections.emptySet())) {
+                WebSocketSession session = sessionRegistry.getSession(sessionId);
+                if (session != null && reached.add(sessionId)) {
+                    targets.put(sessionId, session);
+                    usersBySession.computeIfAbsent(sessionId, key -> new ArrayList<>()).add(user);
+                }
+            }
+        }
+        long timestamp = System.currentTimeMillis();
+        usersBySession.forEach((sessionId, users) -> {
+            try {
+                sender.send(targets.get(sessionId), codec.encode("presence:delta", new ServerEvents.PresenceUsers(users, timestamp)));
+            } catch (IOException e) {
+                log.error("Failed to encode presence delta for session {}", sessionId, e);
+            }
+        });
+        log.debug("Delivered {} presence changes to {} sessions", changes.size(), usersBySession.size());
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class PresenceBatch {
+        private String origin;
+        private List<PresenceChange> changes;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class PresenceChange {
+        private UUID userId;
+        private String username;
+        private UserStatus status;
+        private Set<UUID> channelIds;
+    }
+}
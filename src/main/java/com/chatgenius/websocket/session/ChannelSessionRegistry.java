@@ -0,0 +1,111 @@
+package com.chatgenius.websocket.session;
+
+import com.chatgenius.event.ChannelMembershipChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory routing index of open sessions by user and by channel, so broadcasts never touch the database
+@Slf4j
+@Component
+public class ChannelSessionRegistry {
+
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, UUID> userBySession = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<String>> sessionsByUser = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<String>> sessionsByChannel = new ConcurrentHashMap<>();
+    private final Map<String, Set<UUID>> channelsBySession = new ConcurrentHashMap<>();
+
+    public void register(WebSocketSession session, UUID userId, Collection<UUID> channelIds) {
+        String sessionId = session.getId();
+        sessions.put(sessionId, session);
+        userBySession.put(sessionId, userId);
+        add(sessionsByUser, userId, sessionId);
+        channelIds.forEach(channelId -> subscribe(sessionId, channelId));
+        log.debug("Registered session {} for user {} in {} channels", sessionId, userId, channelIds.size());
+    }
+
+    public void unregister(String sessionId) {
+        sessions.remove(sessionId);
+        UUID userId = userBySession.remove(sessionId);
+        if (userId != null) {
+            remove(sessionsByUser, userId, sessionId);
+        }
+        Set<UUID> channelIds = channelsBySession.remove(sessionId);
+        if (channelIds != null) {
+            channelIds.forEach(channelId -> remove(sessionsByChannel, channelId, sessionId));
+        }
+    }
+
+    public void subscribe(String sessionId, UUID channelId) {
+        if (!sessions.containsKey(sessionId)) {
+            return;
+        }
+        add(sessionsByChannel, channelId, sessionId);
+        add(channelsBySession, sessionId, channelId);
+    }
+
+    public void unsubscribe(String sessionId, UUID channelId) {
+        remove(sessionsByChannel, channelId, sessionId);
+        remove(channelsBySession, sessionId, channelId);
+    }
+
+    public boolean isSubscribed(String sessionId, UUID channelId) {
+        return channelsBySession.getOrDefault(sessionId, Collections.emptySet()).contains(channelId);
+    }
+
+    public List<WebSocketSession> getChannelSessions(UUID channelId) {
+        Set<String> sessionIds = sessionsByChannel.getOrDefault(channelId, Collections.emptySet());
+        List<WebSocketSession> result = new ArrayList<>(sessionIds.size());
+        for (String sessionId : sessionIds) {
+            WebSocketSession session = sessions.get(sessionId);
+            if (session != null && session.isOpen()) {
+                result.add(session);
+            }
+        }
+        return result;
+    }
+
+    public WebSocketSession getSession(String sessionId) {
+        WebSocketSession session = sessions.get(sessionId);
+        return session != null && session.isOpen() ? session : null;
+    }
+
+    public Collection<WebSocketSession> getSessions() {
+        return Collections.unmodifiableCollection(sessions.values());
+    }
+
+    // Runs after the membership change commits so a rolled-back join never routes messages
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMembershipChanged(ChannelMembershipChangedEvent event) {
+        Set<String> userSessions = sessionsByUser.getOrDefault(event.getUserId(), Collections.emptySet());
+        for (String sessionId : userSessions) {
+            if (event.getChange() == ChannelMembershipChangedEvent.Change.ADDED) {
+                subscribe(sessionId, event.getChannelId());
+            } else {
+                unsubscribe(sessionId, event.getChannelId());
+            }
+        }
+        log.debug("Membership {} for user {} in channel {} applied to {} sessions",
+            event.getChange(), event.getUserId(), event.getChannelId(), userSessions.size());
+    }
+
+    private static <K, V> void add(Map<K, Set<V>> index, K key, V value) {
+        index.compute(key, (k, values) -> {
+            Set<V> set = values != null ? values : ConcurrentHashMap.newKeySet();
+            set.add(value);
+            return set;
+        });
+    }
+
+    private static <K, V> void remove(Map<K, Set<V>> index, K key, V value) {
+        index.computeIfPresent(key, (k, values) -> {
+            values.remove(value);
+            return values.isEmpty() ? null : values;
+        });
+    }
+}
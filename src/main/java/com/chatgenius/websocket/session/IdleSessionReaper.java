@@ -0,0 +1,233 @@
+package com.chatgenius.websocket.session;
+
+import com.chatgenius.dto.response.WebSocketReaperStatsResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+// Liveness checks for WebSocket sessions on a hashed timer wheel. Each session sits in the slot of its
+// next check; activity only updates timestamps, and a check that finds newer activity just moves the
+// session to a later slot. A session silent for ping-after is pinged, and one that neither answers
+// nor sends anything within pong-timeout is closed. Each tick only visits the sessions due in it.
+@Slf4j
+@Component
+public class IdleSessionReaper {
+
+    private final WebSocketSender sender;
+    private final LongSupplier clock;
+    private final long tickMillis;
+    private final long pingAfterMillis;
+    private final long pongTimeoutMillis;
+    private final long idleAfterMillis;
+    private final List<Queue<String>> wheel;
+    private final Map<String, TrackedSession> tracked = new ConcurrentHashMap<>();
+    private final AtomicInteger idleSessions = new AtomicInteger();
+    private final AtomicLong reapedSessions = new AtomicLong();
+    private final AtomicLong pingsSent = new AtomicLong();
+    private volatile long currentTick;
+    private volatile Consumer<Collection<String>> reapListener = sessionIds -> { };
+    private ScheduledExecutorService timer;
+
+    public IdleSessionReaper(WebSocketSender sender,
+                             @Value("${websocket.reaper.tick:1s}") Duration tick,
+                             @Value("${websocket.reaper.ping-after:25s}") Duration pingAfter,
+                             @Value("${websocket.reaper.pong-timeout:10s}") Duration pongTimeout,
+                             @Value("${websocket.reaper.idle-after:30m}") Duration idleAfter) {
+        this(sender, tick, pingAfter, pongTimeout, idleAfter, System::currentTimeMillis);
+    }
+
+    IdleSessionReaper(WebSocketSender sender, Duration tick, Duration pingAfter, Duration pongTimeout,
+                      Duration idleAfter, LongSupplier clock) {
+        this.sender = sender;
+        this.clock = clock;
+        this.tickMillis = tick.toMillis();
+        this.pingAfterMillis = pingAfter.toMillis();
+        this.pongTimeoutMillis = pongTimeout.toMillis();
+        this.idleAfterMillis = idleAfter.toMillis();
+        // Wide enough that no check is ever scheduled a full turn ahead
+        int slots = (int) (Math.max(pingAfterMillis, pongTimeoutMillis) / tickMillis) + 2;
+        this.wheel = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            wheel.add(new ConcurrentLinkedQueue<>());
+        }
+        this.currentTick = clock.getAsLong() / tickMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ws-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+    }
+
+    // Receives the ids of the sessions closed in one tick, so their state can be cleaned up together
+    public void setReapListener(Consumer<Collection<String>> reapListener) {
+        this.reapListener = reapListener;
+    }
+
+    public void register(WebSocketSession session) {
+        long now = clock.getAsLong();
+        tracked.put(session.getId(), new TrackedSession(session, now));
+        schedule(session.getId(), now + pingAfterMillis);
+    }
+
+    // Entries left in the wheel are skipped when their slot comes up
+    public void unregister(String sessionId) {
+        TrackedSession session = tracked.remove(sessionId);
+        if (session != null && session.idle.get()) {
+            idleSessions.decrementAndGet();
+        }
+    }
+
+    public void messageReceived(String sessionId) {
+        TrackedSession session = tracked.get(sessionId);
+        if (session != null) {
+            long now = clock.getAsLong();
+            session.lastSeen = now;
+            session.lastMessage = now;
+            if (session.idle.compareAndSet(true, false)) {
+                idleSessions.decrementAndGet();
+            }
+        }
+    }
+
+    public void pongReceived(String sessionId) {
+        TrackedSession session = tracked.get(sessionId);
+        if (session != null) {
+            session.lastSeen = clock.getAsLong();
+        }
+    }
+
+    public WebSocketReaperStatsResponse getStats() {
+        return WebSocketReaperStatsResponse.builder()
+            .liveSessions(tracked.size())
+            .idleSessions(idleSessions.get())
+            .reapedSessions(reapedSessions.get())
+            .pingsSent(pingsSent.get())
+            .build();
+    }
+
+    void advance() {
+        long now = clock.getAsLong();
+        long target = now / tickMillis;
+        // After a long stall every slot is due; one turn of the wheel covers them all
+        if (target - currentTick > wheel.size()) {
+            currentTick = target - wheel.size();
+        }
+        List<String> reaped = new ArrayList<>();
+        while (currentTick < target) {
+            currentTick++;
+            Queue<String> slot = wheel.get((int) (currentTick % wheel.size()));
+            // Only what was due before this tick started; sessions re-added below wait for a later turn
+            for (int due = slot.size(); due > 0; due--) {
+                String sessionId = slot.poll();
+                if (sessionId == null) {
+                    break;
+                }
+                check(sessionId, now, reaped);
+            }
+        }
+        if (!reaped.isEmpty()) {
+            log.info("Reaped {} unresponsive WebSocket sessions", reaped.size());
+            reapListener.accept(reaped);
+        }
+    }
+
+    private void check(String sessionId, long now, List<String> reaped) {
+        TrackedSession session = tracked.get(sessionId);
+        if (session == null) {
+            return;
+        }
+        if (!session.session.isOpen()) {
+            reap(sessionId, null, reaped);
+            return;
+        }
+        if (session.pingSentAt != 0) {
+            if (session.lastSeen >= session.pingSentAt) {
+                session.pingSentAt = 0;
+            } else if (now - session.pingSentAt >= pongTimeoutMillis) {
+                reap(sessionId, session.session, reaped);
+                return;
+            } else {
+                schedule(sessionId, session.pingSentAt + pongTimeoutMillis);
+                return;
+            }
+        }
+        if (now - session.lastMessage >= idleAfterMillis && session.idle.compareAndSet(false, true)) {
+            idleSessions.incrementAndGet();
+        }
+        long pingAt = session.lastSeen + pingAfterMillis;
+        if (now < pingAt) {
+            schedule(sessionId, pingAt);
+            return;
+        }
+        session.pingSentAt = now;
+        sender.ping(session.session);
+        pingsSent.incrementAndGet();
+        schedule(sessionId, now + pongTimeoutMillis);
+    }
+
+    private void reap(String sessionId, WebSocketSession session, List<String> reaped) {
+        unregister(sessionId);
+        reapedSessions.incrementAndGet();
+        reaped.add(sessionId);
+        if (session != null) {
+            try {
+                session.close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (IOException e) {
+                log.debug("Error closing unresponsive session {}", sessionId, e);
+            }
+        }
+    }
+
+    private void schedule(String sessionId, long dueAt) {
+        long tick = Math.max(dueAt / tickMillis, currentTick + 1);
+        wheel.get((int) (tick % wheel.size())).add(sessionId);
+    }
+
+    private static class TrackedSession {
+        final WebSocketSession session;
+        final AtomicBoolean idle = new AtomicBoolean();
+        volatile long lastSeen;
+        volatile long lastMessage;
+        volatile long pingSentAt;
+
+        TrackedSession(WebSocketSession session, long now) {
+            this.session = session;
+            this.lastSeen = now;
+            this.lastMessage = now;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.chatgenius.websocket.session;
+
+import com.chatgenius.dto.response.WebSocketSessionStatsResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded outbound buffer for one session. At most one drain task runs at a time, so frames are
+// written in order and never concurrently, and the enqueuing thread never blocks on the socket.
+@Slf4j
+public class OutboundQueue {
+
+    // Frames written per drain task before yielding the sender thread to other sessions
+    private static final int DRAIN_BATCH = 64;
+
+    private final WebSocketSession session;
+    private final Executor executor;
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final Deque<WebSocketMessage<?>> queue = new ArrayDeque<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicLong sentMessages = new AtomicLong();
+    private final AtomicLong sentBytes = new AtomicLong();
+    private final AtomicLong droppedMessages = new AtomicLong();
+    private volatile boolean closed;
+
+    public OutboundQueue(WebSocketSession session, Executor executor, int capacity, OverflowPolicy overflowPolicy) {
+        this.session = session;
+        this.executor = executor;
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public boolean offer(WebSocketMessage<?> message) {
+        if (closed || !session.isOpen()) {
+            return false;
+        }
+        boolean overflow = false;
+        synchronized (queue) {
+            if (queue.size() >= capacity) {
+                if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+                    overflow = true;
+                } else {
+                    queue.pollFirst();
+                    droppedMessages.incrementAndGet();
+                }
+            }
+            if (!overflow) {
+                queue.addLast(message);
+            }
+        }
+        if (overflow) {
+            log.warn("Outbound queue full for session {}, disconnecting slow consumer", session.getId());
+            droppedMessages.incrementAndGet();
+            disconnect(CloseStatus.SESSION_NOT_RELIABLE);
+            return false;
+        }
+        scheduleDrain();
+        return true;
+    }
+
+    public void close() {
+        closed = true;
+        synchronized (queue) {
+            queue.clear();
+        }
+    }
+
+    public WebSocketSessionStatsResponse stats() {
+        int queued;
+        synchronized (queue) {
+            queued = queue.size();
+        }
+        return WebSocketSessionStatsResponse.builder()
+            .sessionId(session.getId())
+            .username((String) session.getAttributes().get("username"))
+            .queuedMessages(queued)
+            .sentMessages(sentMessages.get())
+            .sentBytes(sentBytes.get())
+            .droppedMessages(droppedMessages.get())
+            .build();
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                log.warn("Sender executor rejected drain for session {}", session.getId());
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            for (int i = 0; i < DRAIN_BATCH; i++) {
+                WebSocketMessage<?> message;
+                synchronized (queue) {
+                    message = queue.pollFirst();
+                }
+                if (message == null) {
+                    break;
+                }
+                if (!session.isOpen()) {
+                    close();
+                    break;
+                }
+                session.sendMessage(message);
+                sentMessages.incrementAndGet();
+                sentBytes.addAndGet(message.getPayloadLength());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to send to session {}: {}", session.getId(), e.getMessage());
+            disconnect(CloseStatus.SERVER_ERROR);
+        } finally {
+            draining.set(false);
+            if (!closed && hasPending()) {
+                scheduleDrain();
+            }
+        }
+    }
+
+    private boolean hasPending() {
+        synchronized (queue) {
+            return !queue.isEmpty();
+        }
+    }
+
+    private void disconnect(CloseStatus status) {
+        close();
+        try {
+            session.close(status);
+        } catch (IOException e) {
+            log.debug("Error closing session {}", session.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.chatgenius.websocket.session;
+
+// What to do when a session's outbound queue is full
+public enum OverflowPolicy {
+    // Discard the oldest queued frame to make room; the client sees a gap but stays connected
+    DROP_OLDEST,
+    // Close the slow consumer so it reconnects and resyncs
+    DISCONNECT
+}
@@ -0,0 +1,125 @@
+package com.chatgenius.websocket.session;
+
+import com.chatgenius.dto.response.WebSocketSessionStatsResponse;
+import com.chatgenius.websocket.event.WebSocketEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.websocket.Session;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+// Encodes events once and hands the shared frame to per-session outbound queues drained by a
+// dedicated sender pool, so one slow client cannot stall a broadcast or the inbound thread
+@Slf4j
+@Component
+public class WebSocketSender {
+
+    // Tomcat's bound on a blocking frame write; without it a write waits up to 20 seconds
+    static final String BLOCKING_SEND_TIMEOUT = "org.apache.tomcat.websocket.BLOCKING_SEND_TIMEOUT";
+
+    private final ObjectMapper objectMapper;
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private final long sendTimeoutMillis;
+    private final ExecutorService executor;
+    private final Map<String, OutboundQueue> queues = new ConcurrentHashMap<>();
+
+    public WebSocketSender(ObjectMapper objectMapper,
+                           @Value("${websocket.outbound.queue-capacity:256}") int queueCapacity,
+                           @Value("${websocket.outbound.overflow-policy:DROP_OLDEST}") OverflowPolicy overflowPolicy,
+                           @Value("${websocket.outbound.sender-threads:4}") int senderThreads,
+                           @Value("${websocket.outbound.send-timeout:10000}") long sendTimeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.executor = Executors.newFixedThreadPool(senderThreads, new CustomizableThreadFactory("ws-sender-"));
+    }
+
+    public void register(WebSocketSession session) {
+        applySendTimeout(session);
+        queues.put(session.getId(), new OutboundQueue(session, executor, queueCapacity, overflowPolicy));
+    }
+
+    public void unregister(String sessionId) {
+        OutboundQueue queue = queues.remove(sessionId);
+        if (queue != null) {
+            queue.close();
+        }
+    }
+
+    public TextMessage encode(WebSocketEvent event) throws JsonProcessingException {
+        return new TextMessage(objectMapper.writeValueAsBytes(event));
+    }
+
+    public boolean send(WebSocketSession session, WebSocketEvent event) throws JsonProcessingException {
+        return send(session, encode(event));
+    }
+
+    public boolean send(WebSocketSession session, TextMessage frame) {
+        OutboundQueue queue = queues.get(session.getId());
+        if (queue == null) {
+            log.debug("Dropping frame for unregistered session {}", session.getId());
+            return false;
+        }
+        return queue.offer(frame);
+    }
+
+    // Queued behind pending frames so the ping never races a data frame on the socket
+    public boolean ping(WebSocketSession session) {
+        OutboundQueue queue = queues.get(session.getId());
+        return queue != null && queue.offer(new PingMessage());
+    }
+
+    public int broadcast(Collection<WebSocketSession> sessions, WebSocketEvent event) throws JsonProcessingException {
+        return broadcast(sessions, encode(event));
+    }
+
+    public int broadcast(Collection<WebSocketSession> sessions, TextMessage frame) {
+        int delivered = 0;
+        for (WebSocketSession session : sessions) {
+            if (send(session, frame)) {
+                delivered++;
+            }
+        }
+        return delivered;
+    }
+
+    public List<WebSocketSessionStatsResponse> getStats() {
+        return queues.values().stream()
+            .map(OutboundQueue::stats)
+            .collect(Collectors.toList());
+    }
+
+    // Drain tasks write through the blocking basic remote, which the container's async send timeout does
+    // not cover. Bounding each write lets a stalled client hold a sender thread only until it is disconnected.
+    private void applySendTimeout(WebSocketSession session) {
+        if (WebSocketSessionDecorator.unwrap(session) instanceof NativeWebSocketSession nativeSession) {
+            Session standardSession = nativeSession.getNativeSession(Session.class);
+            if (standardSession != null) {
+                standardSession.getUserProperties().put(BLOCKING_SEND_TIMEOUT, sendTimeoutMillis);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
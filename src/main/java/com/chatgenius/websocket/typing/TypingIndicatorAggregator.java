@@ -0,0 +1,294 @@
+package com.chatgenius.websocket.typing;
+
+import com.chatgenius.websocket.bus.BroadcastBus;
+import com.chatgenius.websocket.event.ServerEvents;
+import com.chatgenius.websocket.event.WebSocketEventCodec;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Server-side "who is typing" state. Each channel keeps the users typing in it with an expiry of ttl
+// after their last keystroke event; a session's events in a channel are accepted at most once per
+// min-interval, except for the stop that ends its typing. A user stays in a channel's set while any of
+// their sessions on this node is still typing there. Every interval each active channel whose set changed gets
+// one chat:typing:users frame for its local subscribers. With the redis broadcast bus, accepted events
+// are relayed to the other nodes once per interval so every node sees the same set.
+@Slf4j
+@Component
+public class TypingIndicatorAggregator implements MessageListener {
+
+    private final ObjectMapper objectMapper;
+    private final WebSocketEventCodec codec;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final long ttlMillis;
+    private final long minIntervalMillis;
+    private final Duration interval;
+    private final boolean clustered;
+    private final String topic;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, ChannelTyping> channels = new ConcurrentHashMap<>();
+    private final Map<String, SessionTyping> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> sessionIdsByUser = new ConcurrentHashMap<>();
+    private final Queue<TypingSignal> outbox = new ConcurrentLinkedQueue<>();
+    private volatile BroadcastBus.Delivery delivery = (channelId, frame) -> { };
+    private ScheduledExecutorService flusher;
+
+    public TypingIndicatorAggregator(ObjectMapper objectMapper,
+                                     WebSocketEventCodec codec,
+                                     RedisTemplate<String, String> redisTemplate,
+                                     RedisMessageListenerContainer listenerContainer,
+                                     @Value("${websocket.typing.ttl:6s}") Duration ttl,
+                                     @Value("${websocket.typing.min-interval:1s}") Duration minInterval,
+                                     @Value("${websocket.typing.interval:500ms}") Duration interval,
+                                     @Value("${websocket.broadcast.bus:local}") String bus,
+                                     @Value("${websocket.typing.redis.topic:chat:typing}") String topic) {
+        this.objectMapper = objectMapper;
+        this.codec = codec;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.ttlMillis = ttl.toMillis();
+        this.minIntervalMillis = minInterval.toMillis();
+        this.interval = interval;
+        this.clustered = "redis".equals(bus);
+        this.topic = topic;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (clustered) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(topic));
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "typing-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flush, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+    }
+
+    // Receives the compacted frames for the sessions subscribed to a channel on this node
+    public void setDelivery(BroadcastBus.Delivery delivery) {
+        this.delivery = delivery;
+    }
+
+    // Returns false when the event was dropped by the per-session, per-channel rate limit
+    public boolean typing(String sessionId, String channelId, String username, boolean isTyping) {
+        return typing(sessionId, channelId, username, isTyping, System.currentTimeMillis());
+    }
+
+    boolean typing(String sessionId, String channelId, String username, boolean isTyping, long now) {
+        SessionTyping session = sessions.computeIfAbsent(sessionId, key -> {
+            sessionIdsByUser.computeIfAbsent(username, user -> ConcurrentHashMap.newKeySet()).add(key);
+            return new SessionTyping(username);
+        });
+        synchronized (session) {
+            boolean stopping = !isTyping && session.typingUntil.containsKey(channelId);
+            Long lastAccepted = session.lastAccepted.get(channelId);
+            if (!stopping && lastAccepted != null && now - lastAccepted < minIntervalMillis) {
+                return false;
+            }
+            if (isTyping) {
+                session.typingUntil.put(channelId, now + ttlMillis);
+                session.lastAccepted.put(channelId, now);
+            } else {
+                session.typingUntil.remove(channelId);
+            }
+        }
+        if (!isTyping && typingInOtherSession(sessionId, username, channelId, now)) {
+            return true;
+        }
+        apply(channelId, username, isTyping, now);
+        if (clustered) {
+            outbox.add(new TypingSignal(channelId, username, isTyping));
+        }
+        return true;
+    }
+
+    // A closed session stops typing everywhere it was, unless another session of the user still types there
+    public void sessionClosed(String sessionId) {
+        sessionClosed(sessionId, System.currentTimeMillis());
+    }
+
+    void sessionClosed(String sessionId, long now) {
+        SessionTyping session = sessions.remove(sessionId);
+        if (session == null) {
+            return;
+        }
+        sessionIdsByUser.computeIfPresent(session.username, (user, ids) -> {
+            ids.remove(sessionId);
+            return ids.isEmpty() ? null : ids;
+        });
+        List<String> channelIds;
+        synchronized (session) {
+            channelIds = new ArrayList<>(session.typingUntil.keySet());
+        }
+        for (String channelId : channelIds) {
+            if (typingInOtherSession(sessionId, session.username, channelId, now)) {
+                continue;
+            }
+            apply(channelId, session.username, false, now);
+            if (clustered) {
+                outbox.add(new TypingSignal(channelId, session.username, false));
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            TypingBatch batch = objectMapper.readValue(message.getBody(), TypingBatch.class);
+            if (nodeId.equals(batch.getOrigin())) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            for (TypingSignal signal : batch.getSignals()) {
+                // Another node's session stopping must not clear a local session that is still typing
+                if (!signal.isTyping() && typingInOtherSession(null, signal.getUsername(), signal.getChannelId(), now)) {
+                    continue;
+                }
+                apply(signal.getChannelId(), signal.getUsername(), signal.isTyping(), now);
+            }
+        } catch (IOException e) {
+            log.error("Failed to decode typing batch", e);
+        }
+    }
+
+    void flush() {
+        flush(System.currentTimeMillis());
+    }
+
+    void flush(long now) {
+        relay();
+        for (String channelId : channels.keySet()) {
+            List<List<String>> changed = new ArrayList<>(1);
+            channels.computeIfPresent(channelId, (key, typing) -> {
+                typing.expiresAt.values().removeIf(expiresAt -> expiresAt <= now);
+                List<String> users = new ArrayList<>(typing.expiresAt.keySet());
+                Collections.sort(users);
+                if (!users.equals(typing.lastSent)) {
+                    typing.lastSent = users;
+                    changed.add(users);
+                }
+                // An idle channel is dropped once its empty set has been sent
+                return users.isEmpty() && changed.isEmpty() ? null : typing;
+            });
+            if (!changed.isEmpty()) {
+                deliver(channelId, changed.get(0), now);
+            }
+        }
+    }
+
+    private boolean typingInOtherSession(String sessionId, String username, String channelId, long now) {
+        for (String otherId : sessionIdsByUser.getOrDefault(username, Set.of())) {
+            SessionTyping other = otherId.equals(sessionId) ? null : sessions.get(otherId);
+            if (other == null) {
+                continue;
+            }
+            synchronized (other) {
+                Long until = other.typingUntil.get(channelId);
+                if (until != null && until > now) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void apply(String channelId, String username, boolean isTyping, long now) {
+        if (isTyping) {
+            channels.computeIfAbsent(channelId, key -> new ChannelTyping()).expiresAt.put(username, now + ttlMillis);
+        } else {
+            channels.computeIfPresent(channelId, (key, typing) -> {
+                typing.expiresAt.remove(username);
+                return typing;
+            });
+        }
+    }
+
+    private void deliver(String channelId, List<String> users, long now) {
+        try {
+            delivery.deliver(channelId, codec.encode("chat:typing:users", new ServerEvents.TypingUsers(channelId, users, now)));
+        } catch (IOException e) {
+            log.error("Failed to encode typing state for channel {}", channelId, e);
+        }
+    }
+
+    private void relay() {
+        if (outbox.isEmpty()) {
+            return;
+        }
+        List<TypingSignal> signals = new ArrayList<>();
+        TypingSignal signal;
+        while ((signal = outbox.poll()) != null) {
+            signals.add(signal);
+        }
+        try {
+            redisTemplate.convertAndSend(topic, objectMapper.writeValueAsString(new TypingBatch(nodeId, signals)));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to relay {} typing events: {}", signals.size(), e.getMessage());
+        }
+    }
+
+    private static class ChannelTyping {
+        final Map<String, Long> expiresAt = new ConcurrentHashMap<>();
+        List<String> lastSent = List.of();
+    }
+
+    private static class SessionTyping {
+        final String username;
+        // channelId -> when this session's typing there expires
+        final Map<String, Long> typingUntil = new HashMap<>();
+        final Map<String, Long> lastAccepted = new HashMap<>();
+
+        SessionTyping(String username) {
+            this.username = username;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class TypingBatch {
+        private String origin;
+        private List<TypingSignal> signals;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class TypingSignal {
+        private String channelId;
+        private String username;
+        private boolean typing;
+    }
+}
@@ -0,0 +1,10 @@
+-- PostgreSQL-only objects, applied after schema.sql
+
+-- Full-text search: search_vector is maintained by PostgreSQL on every insert/update, and the
+-- btree_gin composite lets a single index scan answer "matches in this channel"
+ALTER TABLE messages
+    ADD COLUMN IF NOT EXISTS search_vector TSVECTOR
+    GENERATED ALWAYS AS (to_tsvector('english', content)) STORED;
+
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+CREATE INDEX IF NOT EXISTS idx_messages_channel_search ON messages USING GIN (channel_id, search_vector);
@@ -0,0 +1,55 @@
+-- Brings a PostgreSQL database created from an older schema.sql up to date. Every statement is
+-- idempotent; SchemaUpgrade runs this file at startup.
+
+ALTER TABLE channels ADD COLUMN IF NOT EXISTS message_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE channels ADD COLUMN IF NOT EXISTS last_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE messages ADD COLUMN IF NOT EXISTS client_message_id VARCHAR(64);
+ALTER TABLE messages ADD COLUMN IF NOT EXISTS seq BIGINT;
+
+CREATE INDEX IF NOT EXISTS idx_messages_channel_created_id ON messages (channel_id, created_at DESC, id DESC);
+CREATE UNIQUE INDEX IF NOT EXISTS uq_messages_user_client_message_id ON messages (user_id, client_message_id);
+CREATE INDEX IF NOT EXISTS idx_messages_thread_created_id ON messages (thread_id, created_at, id);
+CREATE UNIQUE INDEX IF NOT EXISTS uq_messages_channel_seq ON messages (channel_id, seq);
+
+CREATE TABLE IF NOT EXISTS thread_summaries (
+    thread_id UUID PRIMARY KEY,
+    channel_id UUID NOT NULL,
+    reply_count BIGINT NOT NULL DEFAULT 0,
+    last_reply_at TIMESTAMP,
+    recent_participant_ids VARCHAR(1024) NOT NULL DEFAULT '',
+    FOREIGN KEY (thread_id) REFERENCES messages(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS read_cursors (
+    user_id UUID NOT NULL,
+    channel_id UUID NOT NULL,
+    last_read_message_id UUID NOT NULL,
+    last_read_seq BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (user_id, channel_id),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (channel_id) REFERENCES channels(id) ON DELETE CASCADE
+);
+
+-- Messages written before sequence numbers existed are numbered oldest first. Only channels that have
+-- never handed out a number are touched, so once numbered a channel is left alone.
+UPDATE messages m SET seq = numbered.seq
+FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY channel_id ORDER BY created_at, id) AS seq
+      FROM messages
+      WHERE channel_id IN (SELECT id FROM channels WHERE last_seq = 0)) numbered
+WHERE m.id = numbered.id AND m.seq IS NULL;
+
+UPDATE channels c SET last_seq = (SELECT COALESCE(MAX(m.seq), 0) FROM messages m WHERE m.channel_id = c.id)
+WHERE c.last_seq = 0;
+
+-- Summaries of threads that got replies before summaries were kept, with the default five
+-- (chat.thread.summary.participants) most recent reply authors
+INSERT INTO thread_summaries (thread_id, channel_id, reply_count, last_reply_at, recent_participant_ids)
+SELECT r.thread_id, root.channel_id, COUNT(*), MAX(r.created_at),
+       COALESCE((SELECT string_agg(p.user_id::text, ',' ORDER BY p.last_at DESC)
+                 FROM (SELECT user_id, MAX(created_at) AS last_at FROM messages
+                       WHERE thread_id = r.thread_id AND user_id IS NOT NULL
+                       GROUP BY user_id ORDER BY last_at DESC LIMIT 5) p), '')
+FROM messages r JOIN messages root ON root.id = r.thread_id
+WHERE NOT EXISTS (SELECT 1 FROM thread_summaries s WHERE s.thread_id = r.thread_id)
+GROUP BY r.thread_id, root.channel_id;
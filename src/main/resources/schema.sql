@@ -1,6 +1,8 @@
 -- Drop tables in reverse order of dependencies
 DROP TABLE IF EXISTS reactions CASCADE;
 DROP TABLE IF EXISTS attachments CASCADE;
+DROP TABLE IF EXISTS thread_summaries CASCADE;
+DROP TABLE IF EXISTS read_cursors CASCADE;
 DROP TABLE IF EXISTS messages CASCADE;
 DROP TABLE IF EXISTS channel_members CASCADE;
 DROP TABLE IF EXISTS channel_invitations CASCADE;
@@ -24,7 +26,9 @@ CREATE TABLE IF NOT EXISTS channels (
     id UUID PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     type VARCHAR(20) NOT NULL,
-    created_at TIMESTAMP NOT NULL
+    created_at TIMESTAMP NOT NULL,
+    message_count BIGINT NOT NULL DEFAULT 0,
+    last_seq BIGINT NOT NULL DEFAULT 0
 );
 
 -- Channel invitations table
@@ -59,11 +63,51 @@ CREATE TABLE IF NOT EXISTS messages (
     thread_id UUID,
     created_at TIMESTAMP NOT NULL,
     updated_at TIMESTAMP,
+    client_message_id VARCHAR(64),
+    seq BIGINT,
     FOREIGN KEY (channel_id) REFERENCES channels(id),
     FOREIGN KEY (user_id) REFERENCES users(id),
     FOREIGN KEY (thread_id) REFERENCES messages(id)
 );
 
+-- Channel history is read newest first and paged by (created_at, id) keyset cursors;
+-- also serves COUNT(*) and "latest N" per channel as index-only range scans
+CREATE INDEX IF NOT EXISTS idx_messages_channel_created_id ON messages (channel_id, created_at DESC, id DESC);
+
+-- Resends of the same client message (e.g. after a write-behind node died before acking) resolve to one row
+CREATE UNIQUE INDEX IF NOT EXISTS uq_messages_user_client_message_id ON messages (user_id, client_message_id);
+
+-- Thread replies are read oldest first and paged by (created_at, id); also serves the reply
+-- count, last reply and recent participants when a thread summary is rebuilt
+CREATE INDEX IF NOT EXISTS idx_messages_thread_created_id ON messages (thread_id, created_at, id);
+
+-- Per-channel message sequence, handed out from channels.last_seq
+CREATE UNIQUE INDEX IF NOT EXISTS uq_messages_channel_seq ON messages (channel_id, seq);
+
+-- Reply count, last reply time and latest distinct reply authors of each thread with replies,
+-- maintained by the writers of the replies (comma-separated UUIDs, most recent first)
+CREATE TABLE IF NOT EXISTS thread_summaries (
+    thread_id UUID PRIMARY KEY,
+    channel_id UUID NOT NULL,
+    reply_count BIGINT NOT NULL DEFAULT 0,
+    last_reply_at TIMESTAMP,
+    recent_participant_ids VARCHAR(1024) NOT NULL DEFAULT '',
+    FOREIGN KEY (thread_id) REFERENCES messages(id) ON DELETE CASCADE
+);
+
+-- Last message each member has read in a channel; unread = channels.last_seq - last_read_seq.
+-- No foreign key to messages: the marker outlives the message it points at
+CREATE TABLE IF NOT EXISTS read_cursors (
+    user_id UUID NOT NULL,
+    channel_id UUID NOT NULL,
+    last_read_message_id UUID NOT NULL,
+    last_read_seq BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (user_id, channel_id),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (channel_id) REFERENCES channels(id) ON DELETE CASCADE
+);
+
 -- Attachments table
 CREATE TABLE IF NOT EXISTS attachments (
     id UUID PRIMARY KEY,
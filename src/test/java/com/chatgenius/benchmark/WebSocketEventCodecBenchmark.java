@@ -0,0 +1,112 @@
+package com.chatgenius.benchmark;
+
+import com.chatgenius.websocket.event.ClientEvents;
+import com.chatgenius.websocket.event.InboundEvent;
+import com.chatgenius.websocket.event.ServerEvents;
+import com.chatgenius.websocket.event.WebSocketEvent;
+import com.chatgenius.websocket.event.WebSocketEventCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.web.socket.TextMessage;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Encode and decode cost of the hottest frames (chat:message out, chat:message and chat:typing in):
+// Map payloads through ObjectMapper (the old handler path) versus the typed WebSocketEventCodec.
+// Compare gc.alloc.rate.norm for bytes allocated per operation. Run with:
+//   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.chatgenius.benchmark.WebSocketEventCodecBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebSocketEventCodecBenchmark {
+
+    private ObjectMapper objectMapper;
+    private WebSocketEventCodec codec;
+    private String messageId;
+    private String channelId;
+    private String inboundMessage;
+    private String inboundTyping;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        codec = new WebSocketEventCodec(objectMapper);
+        messageId = UUID.randomUUID().toString();
+        channelId = UUID.randomUUID().toString();
+        inboundMessage = "{\"type\":\"chat:message\",\"data\":{\"channelId\":\"" + channelId
+            + "\",\"content\":\"Hello there, is the deploy done yet?\",\"clientMessageId\":\"c-123\"}}";
+        inboundTyping = "{\"type\":\"chat:typing\",\"data\":{\"channelId\":\"" + channelId + "\",\"isTyping\":true}}";
+    }
+
+    @Benchmark
+    public TextMessage encodeMessageMap() throws IOException {
+        Map<String, Object> data = new HashMap<>();
+        data.put("messageId", messageId);
+        data.put("channelId", channelId);
+        data.put("userId", "alice");
+        data.put("content", "Hello there, is the deploy done yet?");
+        data.put("timestamp", 1700000000000L);
+        data.put("clientMessageId", "c-123");
+        data.put("seq", 1042L);
+        return new TextMessage(objectMapper.writeValueAsBytes(new WebSocketEvent("chat:message", data)));
+    }
+
+    @Benchmark
+    public TextMessage encodeMessageTyped() throws IOException {
+        return codec.encode("chat:message", new ServerEvents.ChatMessage(messageId, null, channelId, "alice",
+            "Hello there, is the deploy done yet?", null, 1700000000000L, "c-123", 1042L));
+    }
+
+    @Benchmark
+    public String decodeMessageMap() throws IOException {
+        WebSocketEvent event = objectMapper.readValue(inboundMessage, WebSocketEvent.class);
+        return (String) event.getData().get("channelId") + event.getData().get("content");
+    }
+
+    @Benchmark
+    public String decodeMessageTyped() throws IOException {
+        ClientEvents.ChatMessage message = codec.decode(inboundMessage).payload(ClientEvents.ChatMessage.class);
+        return message.getChannelId() + message.getContent();
+    }
+
+    @Benchmark
+    public boolean decodeTypingMap() throws IOException {
+        WebSocketEvent event = objectMapper.readValue(inboundTyping, WebSocketEvent.class);
+        return (boolean) event.getData().get("isTyping");
+    }
+
+    @Benchmark
+    public boolean decodeTypingTyped() throws IOException {
+        InboundEvent event = codec.decode(inboundTyping);
+        return event.payload(ClientEvents.Typing.class).isTyping();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WebSocketEventCodecBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -7,6 +7,9 @@ import com.chatgenius.model.Message;
 import com.chatgenius.model.User;
 import com.chatgenius.model.enums.MessageType;
 import com.chatgenius.service.MessageService;
+import com.chatgenius.service.export.MessageExportService;
+import com.chatgenius.service.importer.MessageImportService;
+import com.chatgenius.service.thread.ThreadSummaryService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -45,6 +48,15 @@ class MessageControllerTest {
     @MockBean
     private MessageService messageService;
 
+    @MockBean
+    private MessageExportService messageExportService;
+
+    @MockBean
+    private MessageImportService messageImportService;
+
+    @MockBean
+    private ThreadSummaryService threadSummaryService;
+
     private Message testMessage;
     private CreateMessageRequest createRequest;
     private User testUser;
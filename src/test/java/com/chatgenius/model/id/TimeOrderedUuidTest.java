@@ -0,0 +1,57 @@
+package com.chatgenius.model.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedUuidTest {
+
+    @Test
+    void next_ShouldProduceVersion7RfcVariantUuids() {
+        UUID uuid = TimeOrderedUuid.next();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void next_ShouldEmbedCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = TimeOrderedUuid.next();
+        long after = System.currentTimeMillis();
+
+        long timestamp = TimeOrderedUuid.timestampMillis(uuid);
+        // May run ahead by a few ms if earlier ids borrowed from the next millisecond
+        assertTrue(timestamp >= before && timestamp <= after + 10, "timestamp " + timestamp);
+    }
+
+    @Test
+    void next_ShouldBeStrictlyIncreasingAndUnique() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            ids.add(TimeOrderedUuid.next());
+        }
+
+        Set<UUID> unique = new HashSet<>(ids);
+        assertEquals(ids.size(), unique.size());
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0, "not increasing at " + i);
+        }
+    }
+
+    @Test
+    void nextState_ShouldKeepOrderWhenClockStepsBackwards() {
+        long now = System.currentTimeMillis();
+        long first = TimeOrderedUuid.nextState(now);
+        long second = TimeOrderedUuid.nextState(now - 5000L);
+
+        assertTrue(second > first);
+        assertTrue(TimeOrderedUuid.fromState(second, 0).compareTo(TimeOrderedUuid.fromState(first, 0)) > 0);
+    }
+}
@@ -3,10 +3,15 @@ package com.chatgenius.repository;
 import com.chatgenius.model.Channel;
 import com.chatgenius.model.User;
 import com.chatgenius.model.enums.ChannelType;
+import com.chatgenius.model.enums.UserStatus;
+import com.chatgenius.repository.projection.ChannelSummary;
+import com.chatgenius.repository.projection.MemberSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.ZonedDateTime;
@@ -63,4 +68,111 @@ class ChannelRepositoryTest {
         assertEquals(1, publicChannels.size());
         assertEquals("public-channel", publicChannels.get(0).getName());
     }
+
+    @Test
+    void adjustMessageCount_UpdatesCounterInPlace() {
+        Channel channel = new Channel();
+        channel.setName("counted-channel");
+        channel.setType(ChannelType.PUBLIC);
+        channel.setCreatedAt(ZonedDateTime.now());
+        Channel saved = channelRepository.saveAndFlush(channel);
+
+        channelRepository.adjustMessageCount(saved.getId(), 1);
+        channelRepository.adjustMessageCount(saved.getId(), 1);
+        channelRepository.adjustMessageCount(saved.getId(), -1);
+
+        assertEquals(Optional.of(1L), channelRepository.findMessageCountById(saved.getId()));
+    }
+
+    @Test
+    void existsMember_ChecksJoinTableOnly() {
+        User member = new User();
+        member.setUsername("member");
+        member.setEmail("member@example.com");
+        member.setPassword("password");
+        member.setStatus(UserStatus.ONLINE);
+        member.setCreatedAt(ZonedDateTime.now());
+        member = userRepository.save(member);
+
+        User outsider = new User();
+        outsider.setUsername("outsider");
+        outsider.setEmail("outsider@example.com");
+        outsider.setPassword("password");
+        outsider.setStatus(UserStatus.ONLINE);
+        outsider.setCreatedAt(ZonedDateTime.now());
+        outsider = userRepository.save(outsider);
+
+        Channel channel = new Channel();
+        channel.setName("members-channel");
+        channel.setType(ChannelType.PUBLIC);
+        channel.setCreatedAt(ZonedDateTime.now());
+        channel.getMembers().add(member);
+        Channel saved = channelRepository.saveAndFlush(channel);
+
+        assertTrue(channelRepository.existsMember(saved.getId(), member.getId()));
+        assertFalse(channelRepository.existsMember(saved.getId(), outsider.getId()));
+    }
+
+    @Test
+    void findChannelSummaries_ReturnsMemberCountsPageByPage() {
+        User alice = saveUser("alice");
+        User bob = saveUser("bob");
+
+        Channel general = new Channel();
+        general.setName("general");
+        general.setType(ChannelType.PUBLIC);
+        general.setCreatedAt(ZonedDateTime.now());
+        general.getMembers().add(alice);
+        general.getMembers().add(bob);
+        channelRepository.save(general);
+
+        Channel empty = new Channel();
+        empty.setName("empty");
+        empty.setType(ChannelType.PRIVATE);
+        empty.setCreatedAt(ZonedDateTime.now());
+        channelRepository.saveAndFlush(empty);
+
+        Page<ChannelSummary> first = channelRepository.findChannelSummaries(PageRequest.of(0, 1));
+        assertEquals(2, first.getTotalElements());
+        assertEquals("empty", first.getContent().get(0).getName());
+        assertEquals(0, first.getContent().get(0).getMemberCount());
+
+        ChannelSummary second = channelRepository.findChannelSummaries(PageRequest.of(1, 1)).getContent().get(0);
+        assertEquals(general.getId(), second.getId());
+        assertEquals(ChannelType.PUBLIC, second.getType());
+        assertEquals(2, second.getMemberCount());
+    }
+
+    @Test
+    void findMemberSummaries_PagesOrderedByUsername() {
+        User carol = saveUser("carol");
+        User alice = saveUser("alice");
+        User bob = saveUser("bob");
+
+        Channel channel = new Channel();
+        channel.setName("team");
+        channel.setType(ChannelType.PUBLIC);
+        channel.setCreatedAt(ZonedDateTime.now());
+        channel.getMembers().add(carol);
+        channel.getMembers().add(alice);
+        channel.getMembers().add(bob);
+        Channel saved = channelRepository.saveAndFlush(channel);
+
+        Page<MemberSummary> page = channelRepository.findMemberSummaries(saved.getId(), PageRequest.of(0, 2));
+        assertEquals(3, page.getTotalElements());
+        assertEquals(List.of("alice", "bob"), page.getContent().stream().map(MemberSummary::getUsername).toList());
+        assertEquals(UserStatus.ONLINE, page.getContent().get(0).getStatus());
+
+        assertEquals(3, channelRepository.findMemberIds(saved.getId()).size());
+    }
+
+    private User saveUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        user.setStatus(UserStatus.ONLINE);
+        user.setCreatedAt(ZonedDateTime.now());
+        return userRepository.save(user);
+    }
 } 
\ No newline at end of file
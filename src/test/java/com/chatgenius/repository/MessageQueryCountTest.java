@@ -0,0 +1,128 @@
+package com.chatgenius.repository;
+
+import com.chatgenius.dto.response.MessageResponse;
+import com.chatgenius.model.Channel;
+import com.chatgenius.model.Message;
+import com.chatgenius.model.User;
+import com.chatgenius.model.enums.ChannelType;
+import com.chatgenius.model.enums.MessageType;
+import com.chatgenius.model.enums.UserStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Mapping a page of messages to MessageResponse must not cost a query per author
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class MessageQueryCountTest {
+
+    private static final int AUTHORS = 5;
+    private static final int MESSAGES = 20;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    private Statistics statistics;
+    private Channel channel;
+    private Message thread;
+
+    @BeforeEach
+    void setUp() {
+        List<User> authors = new ArrayList<>();
+        for (int i = 0; i < AUTHORS; i++) {
+            User user = new User();
+            user.setUsername("author" + i);
+            user.setEmail("author" + i + "@example.com");
+            user.setPassword("password");
+            user.setStatus(UserStatus.ONLINE);
+            user.setCreatedAt(ZonedDateTime.now());
+            user.setRoles(Set.of("ROLE_USER"));
+            authors.add(entityManager.persist(user));
+        }
+
+        channel = new Channel();
+        channel.setName("busy-channel");
+        channel.setType(ChannelType.PUBLIC);
+        channel.setCreatedAt(ZonedDateTime.now());
+        channel.setMembers(new HashSet<>(authors));
+        entityManager.persist(channel);
+
+        ZonedDateTime start = ZonedDateTime.now().minusHours(1);
+        thread = entityManager.persist(message(authors.get(0), MessageType.THREAD_START, null, start));
+        for (int i = 1; i < MESSAGES; i++) {
+            MessageType type = i % 2 == 0 ? MessageType.THREAD_REPLY : MessageType.TEXT;
+            entityManager.persist(message(authors.get(i % AUTHORS), type,
+                type == MessageType.THREAD_REPLY ? thread.getId() : null, start.plusSeconds(i)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void latestHistoryPage_MapsWithAtMostTwoQueries() {
+        List<MessageResponse> page = map(messageRepository.findLatestByChannelId(channel.getId(), PageRequest.of(0, 50))
+            .getContent());
+
+        assertEquals(MESSAGES, page.size());
+        assertEquals(AUTHORS, page.stream().map(MessageResponse::getUsername).distinct().count());
+        assertTrue(statistics.getPrepareStatementCount() <= 2, "queries: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void channelPage_MapsWithAtMostTwoQueriesBesidesTheCount() {
+        List<MessageResponse> page = map(messageRepository.findPageByChannelId(channel.getId(),
+            PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"))).getContent());
+
+        assertEquals(10, page.size());
+        // The page is full, so Spring Data also runs the count query
+        assertTrue(statistics.getPrepareStatementCount() <= 3, "queries: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void threadReplies_MapWithAtMostTwoQueries() {
+        List<MessageResponse> replies = map(messageRepository.findByThreadId(thread.getId()));
+
+        assertEquals(MESSAGES / 2 - 1, replies.size());
+        assertTrue(statistics.getPrepareStatementCount() <= 2, "queries: " + statistics.getPrepareStatementCount());
+    }
+
+    private static List<MessageResponse> map(List<Message> messages) {
+        return messages.stream().map(MessageResponse::fromMessage).collect(Collectors.toList());
+    }
+
+    private Message message(User author, MessageType type, UUID threadId, ZonedDateTime createdAt) {
+        Message message = new Message();
+        message.setContent(type + " from " + author.getUsername());
+        message.setUser(author);
+        message.setChannel(channel);
+        message.setType(type);
+        message.setThreadId(threadId);
+        message.setCreatedAt(createdAt);
+        return message;
+    }
+}
@@ -11,11 +11,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 
 import java.time.ZonedDateTime;
 import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -72,6 +75,51 @@ class MessageRepositoryTest {
         assertTrue(messages.stream().anyMatch(m -> m.getContent().equals("Message 2")));
     }
 
+    @Test
+    void keysetPagination_WalksHistoryWithoutGaps() {
+        ZonedDateTime base = ZonedDateTime.now().minusHours(1);
+        for (int i = 0; i < 5; i++) {
+            Message message = createMessage("Message " + i, MessageType.TEXT);
+            message.setCreatedAt(base.plusSeconds(i));
+            entityManager.persist(message);
+        }
+        entityManager.flush();
+
+        Slice<Message> newest = messageRepository.findLatestByChannelId(channel.getId(), PageRequest.of(0, 2));
+        assertEquals(List.of("Message 4", "Message 3"), contents(newest));
+        assertTrue(newest.hasNext());
+
+        Message oldestOnPage = newest.getContent().get(1);
+        Slice<Message> older = messageRepository.findByChannelIdBefore(
+            channel.getId(), oldestOnPage.getCreatedAt(), oldestOnPage.getId(), PageRequest.of(0, 2));
+        assertEquals(List.of("Message 2", "Message 1"), contents(older));
+
+        Message newestOnPage = older.getContent().get(0);
+        Slice<Message> newer = messageRepository.findByChannelIdAfter(
+            channel.getId(), newestOnPage.getCreatedAt(), newestOnPage.getId(), PageRequest.of(0, 10));
+        assertEquals(List.of("Message 3", "Message 4"), contents(newer));
+        assertFalse(newer.hasNext());
+    }
+
+    @Test
+    void findByChannelIdAfterSeq_ReturnsTheMissingRangeInSeqOrder() {
+        // Clocks of different nodes disagree; seq, not createdAt, decides the order
+        ZonedDateTime base = ZonedDateTime.now();
+        for (int seq = 1; seq <= 5; seq++) {
+            Message message = createMessage("Message " + seq, MessageType.TEXT);
+            message.setCreatedAt(base.minusSeconds(seq));
+            message.setSeq((long) seq);
+            entityManager.persist(message);
+        }
+        entityManager.flush();
+
+        Slice<Message> missing = messageRepository.findByChannelIdAfterSeq(channel.getId(), 2, PageRequest.of(0, 2));
+        assertEquals(List.of("Message 3", "Message 4"), contents(missing));
+        assertTrue(missing.hasNext());
+        assertEquals(List.of("Message 5"),
+            contents(messageRepository.findByChannelIdAfterSeq(channel.getId(), 4, PageRequest.of(0, 2))));
+    }
+
     @Test
     void findByThreadId_Success() {
         // Create and persist a thread starter message
@@ -118,6 +166,10 @@ class MessageRepositoryTest {
         assertTrue(threadStarters.stream().allMatch(m -> m.getType() == MessageType.THREAD_START));
     }
 
+    private List<String> contents(Slice<Message> slice) {
+        return slice.getContent().stream().map(Message::getContent).collect(Collectors.toList());
+    }
+
     private Message createMessage(String content, MessageType type) {
         Message message = new Message();
         message.setContent(content);
@@ -4,6 +4,8 @@ import com.chatgenius.model.User;
 import com.chatgenius.service.TokenBlacklistService;
 import com.chatgenius.service.UserService;
 import com.chatgenius.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -14,6 +16,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.time.Duration;
+import java.util.Date;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -41,11 +46,13 @@ class JwtAuthenticationFilterTest {
     private FilterChain filterChain;
 
     private JwtAuthenticationFilter jwtAuthenticationFilter;
+    private TokenAuthenticationCache tokenCache;
     private User testUser;
 
     @BeforeEach
     void setUp() {
-        jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtUtil, userService, tokenBlacklistService);
+        tokenCache = new TokenAuthenticationCache(100, Duration.ofMinutes(1));
+        jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtUtil, userService, tokenBlacklistService, tokenCache);
         SecurityContextHolder.clearContext();
 
         testUser = new User();
@@ -61,9 +68,10 @@ class JwtAuthenticationFilterTest {
         // Given
         String token = "valid.jwt.token";
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtUtil.extractUsername(token)).thenReturn("testuser");
+        Claims claims = claimsFor("testuser");
+        when(jwtUtil.parseAndVerify(token)).thenReturn(claims);
         when(userService.loadUserByUsername("testuser")).thenReturn(testUser);
-        when(jwtUtil.validateToken(token, testUser)).thenReturn(true);
+        when(jwtUtil.validateClaims(claims, testUser)).thenReturn(true);
         when(tokenBlacklistService.isTokenBlacklisted(token)).thenReturn(false);
 
         // When
@@ -80,9 +88,10 @@ class JwtAuthenticationFilterTest {
         // Given
         String token = "invalid.jwt.token";
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtUtil.extractUsername(token)).thenReturn("testuser");
+        Claims claims = claimsFor("testuser");
+        when(jwtUtil.parseAndVerify(token)).thenReturn(claims);
         when(userService.loadUserByUsername("testuser")).thenReturn(testUser);
-        when(jwtUtil.validateToken(token, testUser)).thenReturn(false);
+        when(jwtUtil.validateClaims(claims, testUser)).thenReturn(false);
         when(tokenBlacklistService.isTokenBlacklisted(token)).thenReturn(false);
 
         // When
@@ -124,7 +133,7 @@ class JwtAuthenticationFilterTest {
         // Given
         String token = "valid.jwt.token";
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtUtil.extractUsername(token)).thenThrow(new RuntimeException("Test exception"));
+        when(jwtUtil.parseAndVerify(token)).thenThrow(new RuntimeException("Test exception"));
 
         // When
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -147,6 +156,39 @@ class JwtAuthenticationFilterTest {
         // Then
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtil, never()).extractUsername(anyString());
+        verify(jwtUtil, never()).parseAndVerify(anyString());
+    }
+
+    @Test
+    void doFilterInternal_WithCachedToken_ShouldSkipVerification() throws Exception {
+        // Given
+        String token = "valid.jwt.token";
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        Claims claims = claimsFor("testuser");
+        when(jwtUtil.parseAndVerify(token)).thenReturn(claims);
+        when(userService.loadUserByUsername("testuser")).thenReturn(testUser);
+        when(jwtUtil.validateClaims(claims, testUser)).thenReturn(true);
+        when(tokenBlacklistService.isTokenBlacklisted(token)).thenReturn(false);
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+        SecurityContextHolder.clearContext();
+
+        // When
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        assertEquals(testUser, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verify(jwtUtil, times(1)).parseAndVerify(token);
+        verify(userService, times(1)).loadUserByUsername("testuser");
+        verify(tokenBlacklistService, times(1)).isTokenBlacklisted(token);
+
+        // Revoking the token evicts it from the cache
+        tokenCache.invalidateToken(token);
+        assertNull(tokenCache.get(token));
+    }
+
+    private Claims claimsFor(String username) {
+        Claims claims = Jwts.claims().setSubject(username);
+        claims.setExpiration(new Date(System.currentTimeMillis() + 60000L));
+        return claims;
     }
-} 
\ No newline at end of file
+}
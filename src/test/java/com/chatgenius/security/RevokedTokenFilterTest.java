@@ -0,0 +1,65 @@
+package com.chatgenius.security;
+
+import com.chatgenius.util.TokenHashes;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevokedTokenFilterTest {
+
+    @Test
+    void mightContain_ShouldFindEveryRevokedToken() {
+        RevokedTokenFilter filter = new RevokedTokenFilter(1000, 0.01, 60000L);
+        long expiresAt = System.currentTimeMillis() + 30000L;
+        for (int i = 0; i < 1000; i++) {
+            filter.add(TokenHashes.sha256("revoked-" + i), expiresAt);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain(TokenHashes.sha256("revoked-" + i)));
+        }
+    }
+
+    @Test
+    void mightContain_ShouldKeepFalsePositivesNearConfiguredRate() {
+        RevokedTokenFilter filter = new RevokedTokenFilter(1000, 0.01, 60000L);
+        long expiresAt = System.currentTimeMillis() + 30000L;
+        for (int i = 0; i < 1000; i++) {
+            filter.add(TokenHashes.sha256("revoked-" + i), expiresAt);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain(TokenHashes.sha256("valid-" + i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void add_ShouldIgnoreAlreadyExpiredTokens() {
+        RevokedTokenFilter filter = new RevokedTokenFilter(1000, 0.01, 60000L);
+        String tokenHash = TokenHashes.sha256("expired");
+
+        filter.add(tokenHash, System.currentTimeMillis() - 1);
+
+        assertFalse(filter.mightContain(tokenHash));
+        assertEquals(0, filter.getPartitionCount());
+    }
+
+    @Test
+    void prune_ShouldDropPartitionsWhoseTokensHaveAllExpired() {
+        RevokedTokenFilter filter = new RevokedTokenFilter(1000, 0.01, 1000L);
+        long now = System.currentTimeMillis();
+        String shortLived = TokenHashes.sha256("short-lived");
+        String longLived = TokenHashes.sha256("long-lived");
+        filter.add(shortLived, now + 500L);
+        filter.add(longLived, now + 60000L);
+
+        filter.prune(now + 5000L);
+
+        assertEquals(1, filter.getPartitionCount());
+        assertTrue(filter.mightContain(longLived));
+    }
+}
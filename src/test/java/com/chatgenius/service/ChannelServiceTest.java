@@ -9,12 +9,14 @@ import com.chatgenius.repository.ChannelRepository;
 import com.chatgenius.repository.MessageRepository;
 import com.chatgenius.repository.UserRepository;
 import com.chatgenius.service.impl.ChannelServiceImpl;
+import com.chatgenius.service.thread.ThreadSummaryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.ZonedDateTime;
 import java.util.HashSet;
@@ -37,6 +39,18 @@ class ChannelServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ChannelMembershipCache membershipCache;
+
+    @Mock
+    private RecentMessageCache recentMessages;
+
+    @Mock
+    private ThreadSummaryService threadSummaries;
+
     private ChannelService channelService;
     private User testUser;
     private Channel testChannel;
@@ -44,7 +58,8 @@ class ChannelServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        channelService = new ChannelServiceImpl(channelRepository, messageRepository, userRepository);
+        channelService = new ChannelServiceImpl(channelRepository, messageRepository, userRepository, eventPublisher,
+            membershipCache, recentMessages, threadSummaries);
         
         testUser = new User();
         testUser.setId(UUID.randomUUID());
@@ -1,6 +1,9 @@
 package com.chatgenius.service;
 
 import com.chatgenius.dto.request.CreateMessageRequest;
+import com.chatgenius.dto.request.MessageCursor;
+import com.chatgenius.dto.response.MessageResponse;
+import com.chatgenius.exception.ValidationException;
 import com.chatgenius.model.Channel;
 import com.chatgenius.model.Message;
 import com.chatgenius.model.User;
@@ -8,7 +11,10 @@ import com.chatgenius.model.enums.MessageType;
 import com.chatgenius.repository.ChannelRepository;
 import com.chatgenius.repository.MessageRepository;
 import com.chatgenius.repository.UserRepository;
+import com.chatgenius.repository.projection.MessageSearchHit;
 import com.chatgenius.service.impl.MessageServiceImpl;
+import com.chatgenius.service.sequence.MessageSequencer;
+import com.chatgenius.service.thread.ThreadSummaryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -16,7 +22,13 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.*;
 
@@ -32,13 +44,20 @@ class MessageServiceTest {
     private ChannelRepository channelRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ThreadSummaryService threadSummaries;
+    @Mock
+    private MessageSequencer sequencer;
 
     private MessageService messageService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        messageService = new MessageServiceImpl(messageRepository, channelRepository, userRepository);
+        messageService = new MessageServiceImpl(messageRepository, channelRepository, userRepository,
+            new ChannelMembershipCache(channelRepository, 100, Duration.ofSeconds(30)),
+            new RecentMessageCache(messageRepository, 100, DataSize.ofMegabytes(1), Duration.ofSeconds(60)),
+            threadSummaries, sequencer);
     }
 
     @Test
@@ -70,7 +89,8 @@ class MessageServiceTest {
         message.setChannel(channel);
         message.setCreatedAt(ZonedDateTime.now());
 
-        when(channelRepository.findById(channelId)).thenReturn(Optional.of(channel));
+        when(channelRepository.existsMember(channelId, userId)).thenReturn(true);
+        when(channelRepository.getReferenceById(channelId)).thenReturn(channel);
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(messageRepository.save(any(Message.class))).thenReturn(message);
 
@@ -93,17 +113,11 @@ class MessageServiceTest {
             createTestMessage("Message 2")
         );
         
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"));
+        Page<Message> expectedPage = new PageImpl<>(messages, pageable, messages.size());
+
         when(channelRepository.existsById(channelId)).thenReturn(true);
-        when(messageRepository.findByChannelId(channelId)).thenReturn(messages);
-
-        PageRequest pageable = PageRequest.of(0, 10);
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), messages.size());
-        Page<Message> expectedPage = new PageImpl<>(
-            messages.subList(start, end),
-            pageable,
-            messages.size()
-        );
+        when(messageRepository.findPageByChannelId(channelId, pageable)).thenReturn(expectedPage);
 
         // Act
         Page<Message> result = messageService.getChannelMessages(channelId, pageable);
@@ -111,7 +125,101 @@ class MessageServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(expectedPage.getContent().size(), result.getContent().size());
-        verify(messageRepository).findByChannelId(channelId);
+        verify(messageRepository).findPageByChannelId(channelId, pageable);
+        verify(messageRepository, never()).findByChannelId(any());
+    }
+
+    @Test
+    void getChannelHistory_Latest() {
+        // Arrange
+        UUID channelId = UUID.randomUUID();
+        List<Message> messages = Arrays.asList(
+            createTestMessage("Message 2"),
+            createTestMessage("Message 1")
+        );
+
+        when(channelRepository.existsById(channelId)).thenReturn(true);
+        when(messageRepository.findLatestByChannelId(channelId, PageRequest.of(0, 2)))
+            .thenReturn(new SliceImpl<>(messages, PageRequest.of(0, 2), true));
+
+        // Act
+        Slice<Message> result = messageService.getChannelHistory(channelId, null, null, 2);
+
+        // Assert
+        assertEquals(2, result.getNumberOfElements());
+        assertTrue(result.hasNext());
+        verify(messageRepository, never()).findByChannelId(any());
+    }
+
+    @Test
+    void getLatestHistory_RepeatedReads_ServedFromRecentMessageCache() {
+        // Arrange
+        UUID channelId = UUID.randomUUID();
+        Channel channel = new Channel();
+        channel.setId(channelId);
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("testuser");
+        Message message = createTestMessage("Message 1");
+        message.setChannel(channel);
+        message.setUser(user);
+
+        when(channelRepository.existsById(channelId)).thenReturn(true);
+        when(messageRepository.findLatestByChannelId(channelId, PageRequest.of(0, 100)))
+            .thenReturn(new SliceImpl<>(List.of(message), PageRequest.of(0, 100), false));
+
+        // Act
+        Slice<MessageResponse> first = messageService.getLatestHistory(channelId, 20);
+        Slice<MessageResponse> second = messageService.getLatestHistory(channelId, 20);
+
+        // Assert
+        assertEquals(first.getContent(), second.getContent());
+        assertEquals("testuser", second.getContent().get(0).getUsername());
+        assertFalse(second.hasNext());
+        verify(channelRepository, times(1)).existsById(channelId);
+        verify(messageRepository, times(1)).findLatestByChannelId(any(), any());
+    }
+
+    @Test
+    void getChannelHistory_AfterCursor_ReturnsNewestFirst() {
+        // Arrange
+        UUID channelId = UUID.randomUUID();
+        Message older = createTestMessage("Older");
+        Message newer = createTestMessage("Newer");
+        MessageCursor after = new MessageCursor(ZonedDateTime.now().minusMinutes(1), UUID.randomUUID());
+
+        when(channelRepository.existsById(channelId)).thenReturn(true);
+        when(messageRepository.findByChannelIdAfter(channelId, after.getCreatedAt(), after.getId(), PageRequest.of(0, 10)))
+            .thenReturn(new SliceImpl<>(Arrays.asList(older, newer), PageRequest.of(0, 10), false));
+
+        // Act
+        Slice<Message> result = messageService.getChannelHistory(channelId, null, after, 10);
+
+        // Assert
+        assertEquals("Newer", result.getContent().get(0).getContent());
+        assertEquals("Older", result.getContent().get(1).getContent());
+        assertFalse(result.hasNext());
+    }
+
+    @Test
+    void getChannelHistory_BothCursors_ThrowsException() {
+        UUID channelId = UUID.randomUUID();
+        MessageCursor cursor = new MessageCursor(ZonedDateTime.now(), UUID.randomUUID());
+        when(channelRepository.existsById(channelId)).thenReturn(true);
+
+        assertThrows(ValidationException.class,
+            () -> messageService.getChannelHistory(channelId, cursor, cursor, 10));
+    }
+
+    @Test
+    void messageCursor_RoundTrip() {
+        MessageCursor cursor = new MessageCursor(ZonedDateTime.now(), UUID.randomUUID());
+
+        MessageCursor decoded = MessageCursor.decode(cursor.encode());
+
+        assertEquals(cursor.getCreatedAt().toInstant(), decoded.getCreatedAt().toInstant());
+        assertEquals(cursor.getId(), decoded.getId());
+        assertThrows(ValidationException.class, () -> MessageCursor.decode("not-a-cursor"));
     }
 
     @Test
@@ -125,7 +233,8 @@ class MessageServiceTest {
         );
         
         when(channelRepository.existsById(channelId)).thenReturn(true);
-        when(messageRepository.findByChannelId(channelId)).thenReturn(messages);
+        when(messageRepository.findLatestByChannelId(channelId, PageRequest.of(0, 2)))
+            .thenReturn(new SliceImpl<>(messages.subList(0, 2), PageRequest.of(0, 2), true));
 
         // Act
         List<Message> result = messageService.getLatestMessages(channelId, 2);
@@ -133,7 +242,85 @@ class MessageServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(messageRepository).findByChannelId(channelId);
+        verify(messageRepository).findLatestByChannelId(channelId, PageRequest.of(0, 2));
+        verify(messageRepository, never()).findByChannelId(any());
+    }
+
+    @Test
+    void getMessageCount_UsesCountQuery() {
+        // Arrange
+        UUID channelId = UUID.randomUUID();
+        when(channelRepository.existsById(channelId)).thenReturn(true);
+        when(messageRepository.countByChannelId(channelId)).thenReturn(42L);
+
+        // Act
+        long result = messageService.getMessageCount(channelId);
+
+        // Assert
+        assertEquals(42L, result);
+        verify(messageRepository, never()).findByChannelId(any());
+    }
+
+    @Test
+    void getMessageCount_CounterEnabled_ReadsChannelCounter() {
+        // Arrange
+        ReflectionTestUtils.setField(messageService, "messageCounterEnabled", true);
+        UUID channelId = UUID.randomUUID();
+        when(channelRepository.findMessageCountById(channelId)).thenReturn(Optional.of(7L));
+
+        // Act
+        long result = messageService.getMessageCount(channelId);
+
+        // Assert
+        assertEquals(7L, result);
+        verify(messageRepository, never()).countByChannelId(any());
+    }
+
+    @Test
+    void deleteMessage_CounterEnabled_DecrementsChannelCounter() {
+        // Arrange
+        ReflectionTestUtils.setField(messageService, "messageCounterEnabled", true);
+        Channel channel = new Channel();
+        channel.setId(UUID.randomUUID());
+        Message message = createTestMessage("To delete");
+        message.setChannel(channel);
+        when(messageRepository.findById(message.getId())).thenReturn(Optional.of(message));
+
+        // Act
+        messageService.deleteMessage(message.getId());
+
+        // Assert
+        verify(messageRepository).delete(message);
+        verify(channelRepository).adjustMessageCount(channel.getId(), -1);
+    }
+
+    @Test
+    void searchMessages_DelegatesToFullTextQuery() {
+        // Arrange
+        UUID channelId = UUID.randomUUID();
+        Page<MessageSearchHit> hits = new PageImpl<>(List.of(mock(MessageSearchHit.class)));
+        when(channelRepository.existsById(channelId)).thenReturn(true);
+        when(messageRepository.searchByChannelId(channelId, "deploy failed", PageRequest.of(1, 100)))
+            .thenReturn(hits);
+
+        // Act
+        Page<MessageSearchHit> result = messageService.searchMessages(
+            channelId, "  deploy failed ", PageRequest.of(1, 500, Sort.by("createdAt")));
+
+        // Assert
+        assertEquals(1, result.getContent().size());
+        verify(messageRepository).searchByChannelId(channelId, "deploy failed", PageRequest.of(1, 100));
+        verify(messageRepository, never()).findByChannelId(any());
+    }
+
+    @Test
+    void searchMessages_EmptyQuery_ThrowsException() {
+        UUID channelId = UUID.randomUUID();
+        when(channelRepository.existsById(channelId)).thenReturn(true);
+
+        assertThrows(ValidationException.class,
+            () -> messageService.searchMessages(channelId, "  ", PageRequest.of(0, 20)));
+        verify(messageRepository, never()).searchByChannelId(any(), any(), any());
     }
 
     @Test
@@ -157,6 +344,50 @@ class MessageServiceTest {
         verify(messageRepository).findByThreadId(threadId);
     }
 
+    @Test
+    void createMessage_NonMember_ShouldFailWithoutLoadingMembers() {
+        UUID channelId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        CreateMessageRequest request = new CreateMessageRequest();
+        request.setChannelId(channelId);
+        request.setUserId(userId);
+        request.setContent("hello");
+        request.setType(MessageType.TEXT);
+
+        when(channelRepository.existsMember(channelId, userId)).thenReturn(false);
+        when(channelRepository.existsById(channelId)).thenReturn(true);
+        when(userRepository.existsById(userId)).thenReturn(true);
+
+        assertThrows(ValidationException.class, () -> messageService.createMessage(request));
+        verify(channelRepository, never()).findById(any());
+        verify(messageRepository, never()).save(any(Message.class));
+    }
+
+    @Test
+    void createMessage_RepeatedSends_ShouldCheckMembershipOnce() {
+        UUID channelId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        CreateMessageRequest request = new CreateMessageRequest();
+        request.setChannelId(channelId);
+        request.setUserId(userId);
+        request.setContent("hello");
+        request.setType(MessageType.TEXT);
+
+        Channel channel = new Channel();
+        channel.setId(channelId);
+        User user = new User();
+        user.setId(userId);
+        when(channelRepository.existsMember(channelId, userId)).thenReturn(true);
+        when(channelRepository.getReferenceById(channelId)).thenReturn(channel);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(messageRepository.save(any(Message.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        messageService.createMessage(request);
+        messageService.createMessage(request);
+
+        verify(channelRepository, times(1)).existsMember(channelId, userId);
+    }
+
     private Message createTestMessage(String content) {
         Message message = new Message();
         message.setId(UUID.randomUUID());
@@ -0,0 +1,147 @@
+package com.chatgenius.service;
+
+import com.chatgenius.dto.response.MessageResponse;
+import com.chatgenius.model.Channel;
+import com.chatgenius.model.Message;
+import com.chatgenius.model.User;
+import com.chatgenius.model.enums.MessageType;
+import com.chatgenius.repository.MessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RecentMessageCacheTest {
+
+    private static final ZonedDateTime T0 = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+
+    private MessageRepository messageRepository;
+    private RecentMessageCache cache;
+    private UUID channelId;
+    private User user;
+    private Channel channel;
+
+    @BeforeEach
+    void setUp() {
+        messageRepository = mock(MessageRepository.class);
+        cache = new RecentMessageCache(messageRepository, 3, DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+        channelId = UUID.randomUUID();
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("alice");
+        channel = new Channel();
+        channel.setId(channelId);
+    }
+
+    @Test
+    void findLatest_AfterLoad_ServesNewestPageAndWriteThroughFromMemory() {
+        givenChannel(message(2), message(1));
+
+        assertTrue(cache.findLatest(channelId, 2).isEmpty());
+        Slice<MessageResponse> loaded = cache.load(channelId, 2);
+        assertEquals(List.of("m2", "m1"), contents(loaded));
+        assertFalse(loaded.hasNext());
+
+        cache.added(response(3));
+        cache.added(response(4));
+        Slice<MessageResponse> page = cache.findLatest(channelId, 2).orElseThrow();
+        assertEquals(List.of("m4", "m3"), contents(page));
+        assertTrue(page.hasNext());
+
+        // The full ring dropped m1, so it can no longer vouch for the channel's oldest end
+        assertEquals(List.of("m4", "m3", "m2"), contents(cache.findLatest(channelId, 3).orElseThrow()));
+        assertTrue(cache.findLatest(channelId, 3).orElseThrow().hasNext());
+
+        verify(messageRepository, times(1)).findLatestByChannelId(eq(channelId), any());
+        assertEquals(3, cache.getStats().getHits());
+        assertEquals(1, cache.getStats().getMisses());
+    }
+
+    @Test
+    void updatedAndDeleted_AreAppliedInPlaceAndShrunkRingsFallBackToTheDatabase() {
+        givenChannel(message(3), message(2), message(1), message(0));
+        cache.load(channelId, 3);
+
+        MessageResponse edited = response(2).toBuilder().content("edited").build();
+        cache.updated(edited);
+        cache.deleted(channelId, id(3));
+
+        assertEquals(List.of("edited", "m1"), contents(cache.findLatest(channelId, 2).orElseThrow()));
+        // Two messages held, more exist below the ring: a three-message page needs the database
+        assertTrue(cache.findLatest(channelId, 3).isEmpty());
+    }
+
+    @Test
+    void added_IsDroppedWhenTheTransactionRollsBack() {
+        givenChannel(message(1));
+        cache.load(channelId, 3);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.added(response(2));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of("m1"), contents(cache.findLatest(channelId, 3).orElseThrow()));
+    }
+
+    @Test
+    void load_IsNotCachedWhenAWriteRacedWithIt() {
+        when(messageRepository.findLatestByChannelId(eq(channelId), any())).thenAnswer(invocation -> {
+            // A message committed after the read, before the ring could be stored
+            cache.added(response(2));
+            return new SliceImpl<>(List.of(message(1)), PageRequest.of(0, 3), false);
+        });
+
+        assertEquals(List.of("m1"), contents(cache.load(channelId, 3)));
+        assertFalse(cache.isCached(channelId));
+    }
+
+    private void givenChannel(Message... newestFirst) {
+        List<Message> rows = List.of(newestFirst);
+        when(messageRepository.findLatestByChannelId(eq(channelId), any())).thenAnswer(invocation -> {
+            PageRequest page = invocation.getArgument(1);
+            List<Message> content = new ArrayList<>(rows.subList(0, Math.min(rows.size(), page.getPageSize())));
+            return new SliceImpl<>(content, page, rows.size() > page.getPageSize());
+        });
+    }
+
+    private Message message(int n) {
+        Message message = new Message();
+        message.setId(id(n));
+        message.setContent("m" + n);
+        message.setUser(user);
+        message.setChannel(channel);
+        message.setType(MessageType.TEXT);
+        message.setCreatedAt(T0.plusSeconds(n));
+        return message;
+    }
+
+    private MessageResponse response(int n) {
+        return MessageResponse.fromMessage(message(n));
+    }
+
+    private static UUID id(int n) {
+        return new UUID(0, n);
+    }
+
+    private static List<String> contents(Slice<MessageResponse> page) {
+        return page.getContent().stream().map(MessageResponse::getContent).collect(Collectors.toList());
+    }
+}
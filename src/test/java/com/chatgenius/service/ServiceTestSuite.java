@@ -7,7 +7,8 @@ import org.junit.platform.suite.api.Suite;
 @SelectClasses({
     UserServiceTest.class,
     ChatServiceTest.class,
-    MessageServiceTest.class
+    MessageServiceTest.class,
+    TokenBlacklistServiceTest.class
 })
 public class ServiceTestSuite {
     // This class serves as a test suite container
@@ -0,0 +1,131 @@
+package com.chatgenius.service;
+
+import com.chatgenius.repository.TokenBlacklistRepository;
+import com.chatgenius.security.TokenAuthenticationCache;
+import com.chatgenius.util.TokenHashes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.userdetails.User;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.ObjLongConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenBlacklistServiceTest {
+
+    private static final String TOPIC = "blacklist:revocations";
+
+    @Mock
+    private TokenBlacklistRepository tokenBlacklistRepository;
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private TokenAuthenticationCache tokenCache;
+    private TokenBlacklistService tokenBlacklistService;
+
+    @BeforeEach
+    void setUp() {
+        tokenCache = new TokenAuthenticationCache(100, Duration.ofMinutes(1));
+        tokenBlacklistService = new TokenBlacklistService(tokenBlacklistRepository, redisTemplate, tokenCache,
+            listenerContainer, true, 1000, 0.01, Duration.ofMinutes(15), Duration.ofMinutes(5), TOPIC);
+    }
+
+    @Test
+    void isTokenBlacklisted_BeforeResync_ShouldAskRedis() {
+        when(tokenBlacklistRepository.isHashBlacklisted(TokenHashes.sha256("token"))).thenReturn(false);
+
+        assertFalse(tokenBlacklistService.isTokenBlacklisted("token"));
+        verify(tokenBlacklistRepository).isHashBlacklisted(anyString());
+    }
+
+    @Test
+    void isTokenBlacklisted_AfterResync_ShouldAnswerMissesLocally() {
+        tokenBlacklistService.resync();
+        assertTrue(tokenBlacklistService.isFilterReady());
+
+        assertFalse(tokenBlacklistService.isTokenBlacklisted("token"));
+        verify(tokenBlacklistRepository, never()).isHashBlacklisted(anyString());
+    }
+
+    @Test
+    void resync_ShouldLoadRevokedTokensFromRedis() {
+        String revokedHash = TokenHashes.sha256("revoked");
+        doAnswer(invocation -> {
+            ObjLongConsumer<String> consumer = invocation.getArgument(0);
+            consumer.accept(revokedHash, 60000L);
+            return null;
+        }).when(tokenBlacklistRepository).forEachBlacklisted(any());
+        when(tokenBlacklistRepository.isHashBlacklisted(revokedHash)).thenReturn(true);
+
+        tokenBlacklistService.resync();
+
+        assertTrue(tokenBlacklistService.isTokenBlacklisted("revoked"));
+    }
+
+    @Test
+    void resync_WhenRedisFails_ShouldFallBackToRedisChecks() {
+        doThrow(new IllegalStateException("connection refused")).when(tokenBlacklistRepository).forEachBlacklisted(any());
+
+        tokenBlacklistService.resync();
+
+        assertFalse(tokenBlacklistService.isFilterReady());
+    }
+
+    @Test
+    void blacklistToken_ShouldStoreHashAndPublishRevocation() {
+        tokenBlacklistService.resync();
+        String tokenHash = TokenHashes.sha256("token");
+        when(tokenBlacklistRepository.isHashBlacklisted(tokenHash)).thenReturn(true);
+
+        tokenBlacklistService.blacklistToken("token", 60000L);
+
+        verify(tokenBlacklistRepository).blacklistHash(tokenHash, 60000L);
+        verify(redisTemplate).convertAndSend(eq(TOPIC), startsWith(tokenHash + "|"));
+        assertTrue(tokenBlacklistService.isTokenBlacklisted("token"));
+    }
+
+    @Test
+    void blacklistToken_ShouldKeepAVerificationStartedBeforeItOutOfTheCache() {
+        // A request checked the blacklist just before the logout and finishes verifying just after it
+        long verifiedAt = tokenCache.generation();
+        tokenBlacklistService.blacklistToken("token", 60000L);
+        tokenCache.put("token", new User("testuser", "password", List.of()), System.currentTimeMillis() + 60000L,
+            verifiedAt);
+
+        assertNull(tokenCache.get("token"));
+    }
+
+    @Test
+    void onMessage_ShouldAddRevocationAndEvictCachedAuthentication() {
+        tokenBlacklistService.resync();
+        String tokenHash = TokenHashes.sha256("token");
+        tokenCache.put("token", new User("testuser", "password", List.of()), System.currentTimeMillis() + 60000L,
+            tokenCache.generation());
+        when(tokenBlacklistRepository.isHashBlacklisted(tokenHash)).thenReturn(true);
+
+        String body = tokenHash + "|" + (System.currentTimeMillis() + 60000L);
+        tokenBlacklistService.onMessage(new DefaultMessage(TOPIC.getBytes(StandardCharsets.UTF_8),
+            body.getBytes(StandardCharsets.UTF_8)), null);
+
+        assertNull(tokenCache.get("token"));
+        assertTrue(tokenBlacklistService.isTokenBlacklisted("token"));
+    }
+}
@@ -10,6 +10,7 @@ import com.chatgenius.service.impl.UserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import com.chatgenius.security.TokenAuthenticationCache;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -34,6 +35,12 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private TokenAuthenticationCache tokenCache;
+
+    @Mock
+    private AuthorCache authorCache;
+
     @InjectMocks
     private UserServiceImpl userService;
 
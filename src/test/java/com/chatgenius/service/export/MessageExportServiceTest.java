@@ -0,0 +1,116 @@
+package com.chatgenius.service.export;
+
+import com.chatgenius.config.JacksonConfig;
+import com.chatgenius.exception.ResourceNotFoundException;
+import com.chatgenius.model.Channel;
+import com.chatgenius.model.Message;
+import com.chatgenius.model.User;
+import com.chatgenius.model.enums.ChannelType;
+import com.chatgenius.model.enums.MessageType;
+import com.chatgenius.model.enums.UserStatus;
+import com.chatgenius.repository.ChannelRepository;
+import com.chatgenius.repository.MessageRepository;
+import com.chatgenius.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(JacksonConfig.class)
+class MessageExportServiceTest {
+
+    @Autowired
+    private ChannelRepository channelRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MessageExportService exportService;
+    private Channel channel;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new MessageExportService(channelRepository, messageRepository, entityManager, objectMapper);
+
+        user = new User();
+        user.setUsername("exporter");
+        user.setEmail("exporter@example.com");
+        user.setPassword("password");
+        user.setStatus(UserStatus.ONLINE);
+        user.setCreatedAt(ZonedDateTime.now());
+        user = userRepository.save(user);
+
+        channel = new Channel();
+        channel.setName("export-channel");
+        channel.setType(ChannelType.PUBLIC);
+        channel.setCreatedAt(ZonedDateTime.now());
+        channel = channelRepository.save(channel);
+    }
+
+    @Test
+    void exportChannel_WritesOneLinePerMessageOldestFirst() throws Exception {
+        // More rows than one clear interval, so the persistence context is cleared mid-stream
+        int total = MessageExportService.CLEAR_INTERVAL + 3;
+        ZonedDateTime start = ZonedDateTime.now().minusHours(1);
+        for (int i = 0; i < total; i++) {
+            Message message = new Message();
+            message.setContent("message " + i);
+            message.setChannel(channel);
+            message.setUser(user);
+            message.setType(MessageType.TEXT);
+            message.setCreatedAt(start.plusSeconds(i));
+            messageRepository.save(message);
+        }
+        messageRepository.flush();
+        entityManager.clear();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exportService.exportChannel(channel.getId(), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(total, written);
+        assertEquals(total, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("message 0", first.get("content").asText());
+        assertEquals("exporter", first.get("username").asText());
+        assertEquals(channel.getId().toString(), first.get("channelId").asText());
+        assertEquals("message " + (total - 1), objectMapper.readTree(lines[total - 1]).get("content").asText());
+    }
+
+    @Test
+    void exportChannel_EmptyChannelWritesNothing() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, exportService.exportChannel(channel.getId(), out));
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    void requireChannel_UnknownChannelThrows() {
+        assertThrows(ResourceNotFoundException.class, () -> exportService.requireChannel(UUID.randomUUID()));
+    }
+}
@@ -0,0 +1,202 @@
+package com.chatgenius.service.importer;
+
+import com.chatgenius.config.JacksonConfig;
+import com.chatgenius.dto.response.MessageImportResponse;
+import com.chatgenius.model.Channel;
+import com.chatgenius.model.Message;
+import com.chatgenius.model.User;
+import com.chatgenius.model.enums.ChannelType;
+import com.chatgenius.model.enums.UserStatus;
+import com.chatgenius.repository.ChannelRepository;
+import com.chatgenius.repository.ImportCheckpointRepository;
+import com.chatgenius.repository.MessageRepository;
+import com.chatgenius.repository.ThreadSummaryRepository;
+import com.chatgenius.repository.UserRepository;
+import com.chatgenius.service.AuthorCache;
+import com.chatgenius.service.RecentMessageCache;
+import com.chatgenius.service.sequence.DatabaseSequenceStore;
+import com.chatgenius.service.sequence.MessageSequencer;
+import com.chatgenius.service.thread.ThreadSummaryService;
+import com.chatgenius.service.writebehind.MessageBatchWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(JacksonConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MessageImportServiceTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ChannelRepository channelRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ThreadSummaryRepository threadSummaryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<String, MessageImportResponse> savedCheckpoints = new HashMap<>();
+    private MessageImportService importService;
+    private User user;
+    private Channel channel;
+
+    @BeforeEach
+    void setUp() {
+        ImportCheckpointRepository checkpoints = mock(ImportCheckpointRepository.class);
+        when(checkpoints.find(anyString())).thenAnswer(invocation ->
+            Optional.ofNullable(savedCheckpoints.get(invocation.<String>getArgument(0))));
+        doAnswer(invocation -> {
+            MessageImportResponse progress = invocation.getArgument(0);
+            savedCheckpoints.put(progress.getImportId(), MessageImportResponse.builder()
+                .importId(progress.getImportId())
+                .status(progress.getStatus())
+                .processedLines(progress.getProcessedLines())
+                .imported(progress.getImported())
+                .duplicates(progress.getDuplicates())
+                .failed(progress.getFailed())
+                .updatedAt(progress.getUpdatedAt())
+                .build());
+            return null;
+        }).when(checkpoints).save(any());
+
+        MessageBatchWriter writer = new MessageBatchWriter(new JdbcTemplate(dataSource), new TransactionTemplate(transactionManager),
+            new RecentMessageCache(messageRepository, 100, DataSize.ofMegabytes(1), Duration.ofSeconds(60)),
+            new AuthorCache(userRepository, 100, Duration.ofMinutes(10)),
+            new ThreadSummaryService(threadSummaryRepository, messageRepository, 5),
+            new MessageSequencer(new DatabaseSequenceStore(channelRepository), channelRepository));
+        importService = new MessageImportService(userRepository, channelRepository, writer, checkpoints, objectMapper, 2);
+
+        user = new User();
+        user.setUsername("importer");
+        user.setEmail("importer@example.com");
+        user.setPassword("password");
+        user.setStatus(UserStatus.ONLINE);
+        user.setCreatedAt(ZonedDateTime.now());
+        user.setRoles(Set.of("ROLE_USER"));
+        user = userRepository.save(user);
+
+        User outsider = new User();
+        outsider.setUsername("outsider");
+        outsider.setEmail("outsider@example.com");
+        outsider.setPassword("password");
+        outsider.setStatus(UserStatus.ONLINE);
+        outsider.setCreatedAt(ZonedDateTime.now());
+        outsider.setRoles(Set.of("ROLE_USER"));
+        userRepository.save(outsider);
+
+        channel = new Channel();
+        channel.setName("imported-channel");
+        channel.setType(ChannelType.PUBLIC);
+        channel.setCreatedAt(ZonedDateTime.now());
+        channel.setMembers(new HashSet<>(Set.of(user)));
+        channel = channelRepository.save(channel);
+    }
+
+    @AfterEach
+    void tearDown() {
+        messageRepository.deleteAll();
+        channelRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void importMessages_InsertsValidLinesAndReportsRejectedOnes() throws Exception {
+        String input = String.join("\n",
+            line("first", "importer", "\"channel\":\"imported-channel\"", "2020-01-01T10:00:00Z", "m-1"),
+            line("second", "importer", "\"channelId\":\"" + channel.getId() + "\"", "2020-01-01T10:01:00Z", "m-2"),
+            "{not json",
+            line("third", "nobody", "\"channel\":\"imported-channel\"", "2020-01-01T10:02:00Z", "m-3"),
+            "",
+            line("fourth", "importer", "\"channel\":\"missing\"", "2020-01-01T10:03:00Z", "m-4"),
+            line("fifth", "importer", "\"channel\":\"imported-channel\"", "2020-01-01T10:04:00Z", null),
+            line("sixth", "outsider", "\"channelId\":\"" + channel.getId() + "\"", "2020-01-01T10:05:00Z", "m-6"));
+
+        MessageImportResponse result = importService.importMessages("job-1", stream(input));
+
+        assertEquals(MessageImportResponse.Status.COMPLETED, result.getStatus());
+        assertEquals(8, result.getProcessedLines());
+        assertEquals(3, result.getImported());
+        assertEquals(4, result.getFailed());
+        assertEquals(List.of("line 3: malformed JSON", "line 4: unknown user nobody",
+            "line 6: unknown or ambiguous channel missing",
+            "line 8: user outsider is not a member of channel " + channel.getId()), result.getErrors());
+
+        List<Message> stored = messageRepository.findAll();
+        stored.sort(Comparator.comparing(Message::getCreatedAt));
+        assertEquals(List.of("first", "second", "fifth"), stored.stream().map(Message::getContent).toList());
+        assertEquals(2020, stored.get(0).getCreatedAt().getYear());
+        assertEquals(MessageImportResponse.Status.COMPLETED, savedCheckpoints.get("job-1").getStatus());
+    }
+
+    @Test
+    void importMessages_ResumesAfterCheckpointAndSkipsKnownExternalIds() throws Exception {
+        String input = String.join("\n",
+            line("first", "importer", "\"channel\":\"imported-channel\"", "2020-01-01T10:00:00Z", "m-1"),
+            line("second", "importer", "\"channel\":\"imported-channel\"", "2020-01-01T10:01:00Z", "m-2"),
+            line("third", "importer", "\"channel\":\"imported-channel\"", "2020-01-01T10:02:00Z", "m-3"));
+
+        // The first two lines were committed, but the import died before saving its checkpoint
+        importService.importMessages("job-2", stream(input.substring(0, input.lastIndexOf('\n'))));
+        savedCheckpoints.get("job-2").setProcessedLines(1);
+
+        MessageImportResponse resumed = importService.importMessages("job-2", stream(input));
+
+        assertEquals(3, resumed.getProcessedLines());
+        assertEquals(3, resumed.getImported());
+        assertEquals(1, resumed.getDuplicates());
+        assertEquals(3, messageRepository.countByChannelId(channel.getId()));
+    }
+
+    private static String line(String content, String username, String channelField, String createdAt, String externalId) {
+        return "{\"content\":\"" + content + "\",\"username\":\"" + username + "\"," + channelField +
+            ",\"createdAt\":\"" + createdAt + "\"" +
+            (externalId != null ? ",\"externalId\":\"" + externalId + "\"" : "") + "}";
+    }
+
+    private static ByteArrayInputStream stream(String input) {
+        return new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,75 @@
+package com.chatgenius.service.presence;
+
+import com.chatgenius.dto.response.PresenceResponse;
+import com.chatgenius.model.enums.UserStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalPresenceStoreTest {
+
+    private final LocalPresenceStore store = new LocalPresenceStore();
+    private final UUID userId = UUID.randomUUID();
+    private final UUID channelId = UUID.randomUUID();
+
+    @Test
+    void touch_ReportsOnlyTheFirstSessionAsComingOnline() {
+        long expiresAt = System.currentTimeMillis() + 60_000;
+
+        assertTrue(store.touch(session("s1"), expiresAt));
+        assertFalse(store.touch(session("s2"), expiresAt));
+
+        assertEquals(List.of(new PresenceResponse(userId, "alice", UserStatus.ONLINE)), store.getOnline(channelId));
+    }
+
+    @Test
+    void remove_ReportsOfflineOnlyAfterLastSession() {
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        PresenceSession first = session("s1");
+        PresenceSession second = session("s2");
+        store.touch(first, expiresAt);
+        store.touch(second, expiresAt);
+
+        assertFalse(store.remove(first));
+        assertTrue(store.remove(second));
+
+        assertTrue(store.get(userId).isEmpty());
+        assertTrue(store.getOnline(channelId).isEmpty());
+    }
+
+    @Test
+    void expiredSessions_AreNotOnline() {
+        store.touch(session("s1"), System.currentTimeMillis() - 1);
+
+        assertTrue(store.get(userId).isEmpty());
+        assertTrue(store.getOnline(channelId).isEmpty());
+        assertFalse(store.setStatus(userId, UserStatus.AWAY));
+    }
+
+    @Test
+    void setStatus_ReportsChangesOnly() {
+        store.touch(session("s1"), System.currentTimeMillis() + 60_000);
+
+        assertTrue(store.setStatus(userId, UserStatus.AWAY));
+        assertFalse(store.setStatus(userId, UserStatus.AWAY));
+        assertEquals(UserStatus.AWAY, store.get(userId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void removeChannel_DropsUserFromChannelSet() {
+        store.touch(session("s1"), System.currentTimeMillis() + 60_000);
+
+        store.removeChannel(userId, channelId);
+
+        assertTrue(store.getOnline(channelId).isEmpty());
+        assertTrue(store.get(userId).isPresent());
+    }
+
+    private PresenceSession session(String sessionId) {
+        return new PresenceSession(sessionId, userId, "alice", Set.of(channelId));
+    }
+}
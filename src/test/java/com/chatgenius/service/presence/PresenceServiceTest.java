@@ -0,0 +1,84 @@
+package com.chatgenius.service.presence;
+
+import com.chatgenius.event.ChannelMembershipChangedEvent;
+import com.chatgenius.event.PresenceChangedEvent;
+import com.chatgenius.exception.ValidationException;
+import com.chatgenius.model.enums.UserStatus;
+import com.chatgenius.repository.ChannelRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PresenceServiceTest {
+
+    @Mock
+    private ChannelRepository channelRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private PresenceService presenceService;
+    private final UUID userId = UUID.randomUUID();
+    private final UUID channelId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        presenceService = new PresenceService(new LocalPresenceStore(), channelRepository, eventPublisher,
+            Duration.ofSeconds(90), Duration.ofSeconds(30));
+        lenient().when(channelRepository.findIdsByMemberId(userId)).thenReturn(List.of(channelId));
+    }
+
+    @Test
+    void connectAndDisconnect_PublishOnlyTransitions() {
+        presenceService.connected("s1", userId, "alice");
+        presenceService.connected("s2", userId, "alice");
+        presenceService.disconnected("s1");
+        presenceService.disconnected("s2");
+
+        ArgumentCaptor<PresenceChangedEvent> events = ArgumentCaptor.forClass(PresenceChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(List.of(UserStatus.ONLINE, UserStatus.OFFLINE),
+            events.getAllValues().stream().map(PresenceChangedEvent::getStatus).toList());
+        assertEquals(Set.of(channelId), events.getAllValues().get(0).getChannelIds());
+        assertEquals(UserStatus.OFFLINE, presenceService.getPresence(userId).getStatus());
+    }
+
+    @Test
+    void getOnlineUsers_ReadsFromStoreOnly() {
+        presenceService.connected("s1", userId, "alice");
+
+        assertEquals("alice", presenceService.getOnlineUsers(channelId).get(0).getUsername());
+        verify(channelRepository, times(1)).findIdsByMemberId(userId);
+        verifyNoMoreInteractions(channelRepository);
+    }
+
+    @Test
+    void updateStatus_RejectsOffline() {
+        assertThrows(ValidationException.class, () -> presenceService.updateStatus(userId, UserStatus.OFFLINE));
+    }
+
+    @Test
+    void onMembershipChanged_AddsChannelForConnectedUser() {
+        UUID newChannel = UUID.randomUUID();
+        presenceService.connected("s1", userId, "alice");
+
+        presenceService.onMembershipChanged(ChannelMembershipChangedEvent.added(newChannel, userId));
+
+        assertEquals(1, presenceService.getOnlineUsers(newChannel).size());
+        presenceService.onMembershipChanged(ChannelMembershipChangedEvent.removed(newChannel, userId));
+        assertTrue(presenceService.getOnlineUsers(newChannel).isEmpty());
+    }
+}
@@ -0,0 +1,212 @@
+package com.chatgenius.service.read;
+
+import com.chatgenius.exception.ValidationException;
+import com.chatgenius.model.Channel;
+import com.chatgenius.model.Message;
+import com.chatgenius.model.User;
+import com.chatgenius.model.enums.ChannelType;
+import com.chatgenius.model.enums.MessageType;
+import com.chatgenius.model.enums.UserStatus;
+import com.chatgenius.repository.ChannelRepository;
+import com.chatgenius.repository.MessageRepository;
+import com.chatgenius.repository.ReadCursorRepository;
+import com.chatgenius.repository.UserRepository;
+import com.chatgenius.repository.projection.ChannelReadState;
+import com.chatgenius.service.ChannelMembershipCache;
+import com.chatgenius.service.sequence.DatabaseSequenceStore;
+import com.chatgenius.service.sequence.MessageSequencer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadCursorServiceTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ChannelRepository channelRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReadCursorRepository readCursorRepository;
+
+    private TransactionTemplate transactionTemplate;
+    private MessageSequencer sequencer;
+    private ReadCursorService readCursors;
+    private User reader;
+    private Channel busy;
+    private Channel quiet;
+    private List<Message> messages;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        sequencer = new MessageSequencer(new DatabaseSequenceStore(channelRepository), channelRepository);
+        readCursors = new ReadCursorService(readCursorRepository, messageRepository,
+            new ChannelMembershipCache(channelRepository, 100, Duration.ofSeconds(30)), transactionTemplate,
+            Duration.ofSeconds(2));
+
+        reader = new User();
+        reader.setUsername("reader");
+        reader.setEmail("reader@example.com");
+        reader.setPassword("password");
+        reader.setStatus(UserStatus.ONLINE);
+        reader.setCreatedAt(ZonedDateTime.now());
+        reader.setRoles(Set.of("ROLE_USER"));
+        reader = userRepository.save(reader);
+
+        busy = channel("busy");
+        quiet = channel("quiet");
+        messages = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            messages.add(post(busy, "m" + i));
+        }
+        post(quiet, "hello");
+    }
+
+    @AfterEach
+    void tearDown() {
+        readCursorRepository.deleteAll();
+        messageRepository.deleteAll();
+        channelRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void markRead_IsCoalescedAndCountedAgainstTheChannelSequence() {
+        readCursors.markRead(reader.getId(), busy.getId(), messages.get(1).getId());
+        readCursors.markRead(reader.getId(), busy.getId(), messages.get(2).getId());
+
+        ChannelReadState state = state(busy.getId());
+        assertEquals(5, state.getLastSeq());
+        assertEquals(3L, state.getLastReadSeq());
+        assertEquals(messages.get(2).getId(), state.getLastReadMessageId());
+        assertEquals(1, readCursorRepository.count());
+
+        // Never read: everything is unread
+        assertNull(state(quiet.getId()).getLastReadSeq());
+        assertEquals(1, state(quiet.getId()).getLastSeq());
+    }
+
+    @Test
+    void markRead_NeverMovesTheCursorBackwards() {
+        readCursors.markRead(reader.getId(), busy.getId(), messages.get(3).getId());
+        readCursors.flush();
+        readCursors.markRead(reader.getId(), busy.getId(), messages.get(0).getId());
+        readCursors.flush();
+
+        assertEquals(4L, state(busy.getId()).getLastReadSeq());
+        assertEquals(messages.get(3).getId(), state(busy.getId()).getLastReadMessageId());
+    }
+
+    @Test
+    void markRead_PointingAtAnotherChannelsMessage_IsDropped() {
+        readCursors.markRead(reader.getId(), quiet.getId(), messages.get(4).getId());
+
+        assertNull(state(quiet.getId()).getLastReadSeq());
+    }
+
+    @Test
+    void markRead_ForAMessageNotCommittedYet_IsAppliedOnceTheRowArrives() {
+        // A write-behind broadcast reaches clients before its row is committed
+        UUID lateId = UUID.randomUUID();
+        readCursors.markRead(reader.getId(), busy.getId(), lateId);
+        readCursors.flush();
+        assertNull(state(busy.getId()).getLastReadSeq());
+
+        insertLate(lateId);
+
+        assertEquals(6L, state(busy.getId()).getLastReadSeq());
+        assertEquals(lateId, state(busy.getId()).getLastReadMessageId());
+    }
+
+    @Test
+    void markRead_ForAMessageThatNeverArrives_IsGivenUp() {
+        UUID lateId = UUID.randomUUID();
+        readCursors.markRead(reader.getId(), busy.getId(), lateId);
+        for (int i = 0; i < ReadCursorService.UNRESOLVED_FLUSHES; i++) {
+            readCursors.flush();
+        }
+
+        insertLate(lateId);
+
+        assertNull(state(busy.getId()).getLastReadSeq());
+    }
+
+    @Test
+    void markRead_ByNonMember_ShouldFail() {
+        UUID stranger = UUID.randomUUID();
+
+        assertThrows(ValidationException.class,
+            () -> readCursors.markRead(stranger, busy.getId(), messages.get(0).getId()));
+    }
+
+    private ChannelReadState state(UUID channelId) {
+        return readCursors.getReadStates(reader.getId()).stream()
+            .filter(state -> state.getChannelId().equals(channelId))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private Channel channel(String name) {
+        Channel channel = new Channel();
+        channel.setName(name);
+        channel.setType(ChannelType.PUBLIC);
+        channel.setCreatedAt(ZonedDateTime.now());
+        channel.setMembers(new HashSet<>(Set.of(reader)));
+        return channelRepository.save(channel);
+    }
+
+    private void insertLate(UUID messageId) {
+        transactionTemplate.executeWithoutResult(status -> new JdbcTemplate(dataSource).update(
+            "INSERT INTO messages (id, content, user_id, channel_id, type, created_at, seq) VALUES (?, ?, ?, ?, ?, ?, ?)",
+            messageId, "late", reader.getId(), busy.getId(), MessageType.TEXT.name(),
+            Timestamp.from(Instant.now()), sequencer.next(busy.getId())));
+    }
+
+    private Message post(Channel channel, String content) {
+        return transactionTemplate.execute(status -> {
+            Message message = new Message();
+            message.setContent(content);
+            message.setUser(reader);
+            message.setChannel(channel);
+            message.setType(MessageType.TEXT);
+            message.setCreatedAt(ZonedDateTime.now());
+            message.setSeq(sequencer.next(channel.getId()));
+            return messageRepository.save(message);
+        });
+    }
+}
@@ -0,0 +1,171 @@
+package com.chatgenius.service.thread;
+
+import com.chatgenius.model.Channel;
+import com.chatgenius.model.Message;
+import com.chatgenius.model.ThreadSummary;
+import com.chatgenius.model.User;
+import com.chatgenius.model.enums.ChannelType;
+import com.chatgenius.model.enums.MessageType;
+import com.chatgenius.model.enums.UserStatus;
+import com.chatgenius.repository.MessageRepository;
+import com.chatgenius.repository.ThreadSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class ThreadSummaryServiceTest {
+
+    private static final ZonedDateTime T0 = ZonedDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusHours(1);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ThreadSummaryRepository threadSummaryRepository;
+
+    private ThreadSummaryService threadSummaries;
+    private User alice;
+    private User bob;
+    private User carol;
+    private Channel channel;
+    private Message root;
+
+    @BeforeEach
+    void setUp() {
+        threadSummaries = new ThreadSummaryService(threadSummaryRepository, messageRepository, 2);
+        alice = user("alice");
+        bob = user("bob");
+        carol = user("carol");
+
+        channel = new Channel();
+        channel.setName("threads");
+        channel.setType(ChannelType.PUBLIC);
+        channel.setCreatedAt(ZonedDateTime.now());
+        entityManager.persist(channel);
+
+        root = entityManager.persist(message(alice, MessageType.THREAD_START, null, T0));
+    }
+
+    @Test
+    void replyAdded_KeepsCountLastReplyAndRecentDistinctParticipants() {
+        add(alice, 1);
+        add(bob, 2);
+        add(alice, 3);
+
+        ThreadSummary summary = threadSummaries.getSummary(root.getId());
+        assertEquals(3, summary.getReplyCount());
+        assertEquals(T0.plusSeconds(3).toInstant(), summary.getLastReplyAt().toInstant());
+        assertEquals(List.of(alice.getId(), bob.getId()), summary.getRecentParticipantIds());
+        assertEquals(channel.getId(), summary.getChannelId());
+    }
+
+    @Test
+    void replyRemoved_DecrementsOrRebuildsWhenTheTailChanged() {
+        Message first = add(alice, 1);
+        Message second = add(bob, 2);
+        Message third = add(carol, 3);
+
+        // alice no longer shows among the two recent participants, so only the count moves
+        remove(first);
+        ThreadSummary summary = threadSummaries.getSummary(root.getId());
+        assertEquals(2, summary.getReplyCount());
+        assertEquals(List.of(carol.getId(), bob.getId()), summary.getRecentParticipantIds());
+
+        remove(third);
+        summary = threadSummaries.getSummary(root.getId());
+        assertEquals(1, summary.getReplyCount());
+        assertEquals(T0.plusSeconds(2).toInstant(), summary.getLastReplyAt().toInstant());
+        assertEquals(List.of(bob.getId()), summary.getRecentParticipantIds());
+
+        remove(second);
+        assertTrue(threadSummaryRepository.findById(root.getId()).isEmpty());
+        assertEquals(0, threadSummaries.getSummary(root.getId()).getReplyCount());
+    }
+
+    @Test
+    void recompute_RebuildsSummaryFromRepliesInsertedInBulk() {
+        entityManager.persist(message(bob, MessageType.THREAD_REPLY, root.getId(), T0.plusSeconds(1)));
+        entityManager.persist(message(carol, MessageType.THREAD_REPLY, root.getId(), T0.plusSeconds(2)));
+        entityManager.persist(message(bob, MessageType.THREAD_REPLY, root.getId(), T0.plusSeconds(3)));
+
+        threadSummaries.recompute(Set.of(root.getId()));
+
+        ThreadSummary summary = threadSummaries.getSummaries(List.of(root.getId())).get(0);
+        assertEquals(3, summary.getReplyCount());
+        assertEquals(List.of(bob.getId(), carol.getId()), summary.getRecentParticipantIds());
+    }
+
+    @Test
+    void replyPages_WalkTheThreadOldestFirstAcrossEqualTimestamps() {
+        for (int i = 0; i < 5; i++) {
+            entityManager.persist(message(bob, MessageType.THREAD_REPLY, root.getId(), T0.plusSeconds(1)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Slice<Message> page = messageRepository.findFirstRepliesByThreadId(root.getId(), PageRequest.of(0, 2));
+        List<Message> seen = new ArrayList<>(page.getContent());
+        while (page.hasNext()) {
+            Message last = page.getContent().get(page.getContent().size() - 1);
+            page = messageRepository.findRepliesByThreadIdAfter(root.getId(), last.getCreatedAt(), last.getId(),
+                PageRequest.of(0, 2));
+            seen.addAll(page.getContent());
+        }
+
+        assertEquals(5, seen.size());
+        assertEquals(5, seen.stream().map(Message::getId).collect(Collectors.toSet()).size());
+    }
+
+    private Message add(User author, int second) {
+        Message reply = entityManager.persist(message(author, MessageType.THREAD_REPLY, root.getId(), T0.plusSeconds(second)));
+        threadSummaries.replyAdded(reply);
+        return reply;
+    }
+
+    private void remove(Message reply) {
+        messageRepository.delete(reply);
+        threadSummaries.replyRemoved(reply);
+    }
+
+    private User user(String name) {
+        User user = new User();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("password");
+        user.setStatus(UserStatus.ONLINE);
+        user.setCreatedAt(ZonedDateTime.now());
+        user.setRoles(Set.of("ROLE_USER"));
+        return entityManager.persist(user);
+    }
+
+    private Message message(User author, MessageType type, UUID threadId, ZonedDateTime createdAt) {
+        Message message = new Message();
+        message.setContent(type + " from " + author.getUsername());
+        message.setUser(author);
+        message.setChannel(channel);
+        message.setType(type);
+        message.setThreadId(threadId);
+        message.setCreatedAt(createdAt);
+        return message;
+    }
+}
@@ -0,0 +1,157 @@
+package com.chatgenius.service.writebehind;
+
+import com.chatgenius.dto.response.MessageResponse;
+import com.chatgenius.model.Channel;
+import com.chatgenius.model.User;
+import com.chatgenius.model.enums.ChannelType;
+import com.chatgenius.model.enums.MessageType;
+import com.chatgenius.model.enums.UserStatus;
+import com.chatgenius.repository.ChannelRepository;
+import com.chatgenius.repository.MessageRepository;
+import com.chatgenius.repository.ThreadSummaryRepository;
+import com.chatgenius.repository.UserRepository;
+import com.chatgenius.service.AuthorCache;
+import com.chatgenius.service.RecentMessageCache;
+import com.chatgenius.service.sequence.DatabaseSequenceStore;
+import com.chatgenius.service.sequence.MessageSequencer;
+import com.chatgenius.service.thread.ThreadSummaryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MessageBatchWriterTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ChannelRepository channelRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ThreadSummaryRepository threadSummaryRepository;
+
+    private MessageBatchWriter writer;
+    private RecentMessageCache recentMessages;
+    private User user;
+    private Channel channel;
+
+    @BeforeEach
+    void setUp() {
+        recentMessages = new RecentMessageCache(messageRepository, 100, DataSize.ofMegabytes(1), Duration.ofSeconds(60));
+        writer = new MessageBatchWriter(new JdbcTemplate(dataSource), new TransactionTemplate(transactionManager),
+            recentMessages, new AuthorCache(userRepository, 100, Duration.ofMinutes(10)),
+            new ThreadSummaryService(threadSummaryRepository, messageRepository, 5),
+            new MessageSequencer(new DatabaseSequenceStore(channelRepository), channelRepository));
+
+        user = new User();
+        user.setUsername("writer-user");
+        user.setEmail("writer@example.com");
+        user.setPassword("password");
+        user.setStatus(UserStatus.ONLINE);
+        user.setCreatedAt(ZonedDateTime.now());
+        user.setRoles(Set.of("ROLE_USER"));
+        user = userRepository.save(user);
+
+        channel = new Channel();
+        channel.setName("writer-channel");
+        channel.setType(ChannelType.PUBLIC);
+        channel.setCreatedAt(ZonedDateTime.now());
+        channel = channelRepository.save(channel);
+    }
+
+    @AfterEach
+    void tearDown() {
+        messageRepository.deleteAll();
+        channelRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void write_ShouldInsertBatchAndCompleteMessages() throws Exception {
+        PendingMessage first = PendingMessage.create(channel.getId(), user.getId(), "one", MessageType.TEXT, "c-1");
+        PendingMessage second = PendingMessage.create(channel.getId(), user.getId(), "two", MessageType.TEXT, null);
+
+        writer.write(List.of(first, second));
+
+        assertEquals(first.getId(), first.getPersisted().get());
+        assertEquals(second.getId(), second.getPersisted().get());
+        assertEquals(2, messageRepository.countByChannelId(channel.getId()));
+        assertEquals("c-1", messageRepository.findById(first.getId()).orElseThrow().getClientMessageId());
+        assertEquals(1L, messageRepository.findById(first.getId()).orElseThrow().getSeq());
+        assertEquals(2L, messageRepository.findById(second.getId()).orElseThrow().getSeq());
+    }
+
+    @Test
+    void write_WithResentClientMessageId_ShouldResolveToOriginalMessage() throws Exception {
+        PendingMessage original = PendingMessage.create(channel.getId(), user.getId(), "hello", MessageType.TEXT, "c-1");
+        writer.write(List.of(original));
+
+        PendingMessage resend = PendingMessage.create(channel.getId(), user.getId(), "hello", MessageType.TEXT, "c-1");
+        PendingMessage other = PendingMessage.create(channel.getId(), user.getId(), "other", MessageType.TEXT, "c-2");
+        writer.write(List.of(resend, other));
+
+        assertEquals(original.getId(), resend.getPersisted().get());
+        assertEquals(other.getId(), other.getPersisted().get());
+        assertEquals(2, messageRepository.countByChannelId(channel.getId()));
+        // The rejected resend's number went back with its rolled back transaction
+        assertEquals(2L, messageRepository.findById(other.getId()).orElseThrow().getSeq());
+        assertEquals(2L, channelRepository.findLastSeqById(channel.getId()).orElseThrow());
+    }
+
+    @Test
+    void write_ShouldKeepNumbersTakenAtAcceptAndContinueAfterThem() {
+        PendingMessage early = PendingMessage.create(channel.getId(), user.getId(), "early", MessageType.TEXT, null);
+        early.numbered(7);
+        writer.write(List.of(early));
+
+        assertEquals(7L, messageRepository.findById(early.getId()).orElseThrow().getSeq());
+        assertEquals(7L, channelRepository.findLastSeqById(channel.getId()).orElseThrow());
+
+        PendingMessage late = PendingMessage.create(channel.getId(), user.getId(), "late", MessageType.TEXT, null);
+        writer.write(List.of(late));
+
+        assertEquals(8L, late.getSeq());
+        assertEquals(8L, messageRepository.findById(late.getId()).orElseThrow().getSeq());
+    }
+
+    @Test
+    void write_ShouldAppendCommittedMessagesToTheChannelsRecentRing() {
+        recentMessages.load(channel.getId(), 10);
+
+        PendingMessage message = PendingMessage.create(channel.getId(), user.getId(), "fresh", MessageType.TEXT, null);
+        writer.write(List.of(message));
+
+        MessageResponse newest = recentMessages.findLatest(channel.getId(), 10).orElseThrow().getContent().get(0);
+        assertEquals(message.getId(), newest.getId());
+        assertEquals("writer-user", newest.getUsername());
+    }
+}
@@ -0,0 +1,91 @@
+package com.chatgenius.service.writebehind;
+
+import com.chatgenius.model.enums.MessageType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindMessagePipelineTest {
+
+    @Mock
+    private MessageBatchWriter writer;
+
+    private final UUID channelId = UUID.randomUUID();
+    private final UUID userId = UUID.randomUUID();
+
+    private WriteBehindMessagePipeline pipeline(int capacity, int batchSize) {
+        return new WriteBehindMessagePipeline(writer, capacity, batchSize, Duration.ofMillis(10), 3, Duration.ofMinutes(10));
+    }
+
+    private PendingMessage message(String clientMessageId) {
+        return PendingMessage.create(channelId, userId, "hello", MessageType.TEXT, clientMessageId);
+    }
+
+    @Test
+    void flush_ShouldWriteQueuedMessagesInBatches() throws Exception {
+        WriteBehindMessagePipeline pipeline = pipeline(100, 2);
+        List<Integer> batchSizes = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<PendingMessage> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            batch.forEach(m -> m.getPersisted().complete(m.getId()));
+            return null;
+        }).when(writer).write(anyList());
+        PendingMessage first = pipeline.submit(message(null));
+        pipeline.submit(message(null));
+        pipeline.submit(message(null));
+
+        assertEquals(3, pipeline.flush());
+
+        assertEquals(List.of(2, 1), batchSizes);
+        assertEquals(first.getId(), first.getPersisted().get());
+        assertEquals(3, pipeline.getWrittenCount());
+        assertEquals(0, pipeline.getQueueSize());
+    }
+
+    @Test
+    void submit_WhenQueueIsFull_ShouldRejectMessage() throws Exception {
+        WriteBehindMessagePipeline pipeline = pipeline(1, 10);
+
+        assertNotNull(pipeline.submit(message(null)));
+        assertNull(pipeline.submit(message(null)));
+        assertEquals(1, pipeline.getRejectedCount());
+    }
+
+    @Test
+    void submit_WithSameClientMessageId_ShouldReturnFirstMessage() throws Exception {
+        WriteBehindMessagePipeline pipeline = pipeline(10, 10);
+
+        PendingMessage first = pipeline.submit(message("client-1"));
+        PendingMessage resend = pipeline.submit(message("client-1"));
+
+        assertSame(first, resend);
+        assertEquals(1, pipeline.getQueueSize());
+    }
+
+    @Test
+    void flush_WhenWriterKeepsFailing_ShouldFailMessagesAndAllowResend() throws Exception {
+        WriteBehindMessagePipeline pipeline = pipeline(10, 10);
+        doThrow(new TransientDataAccessResourceException("connection lost")).when(writer).write(anyList());
+        PendingMessage message = pipeline.submit(message("client-1"));
+
+        pipeline.flush();
+
+        verify(writer, times(3)).write(anyList());
+        assertTrue(message.getPersisted().isCompletedExceptionally());
+        assertEquals(1, pipeline.getFailedCount());
+        assertNotSame(message, pipeline.submit(message("client-1")));
+    }
+}
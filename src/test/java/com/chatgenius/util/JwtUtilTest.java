@@ -4,14 +4,14 @@ import com.chatgenius.model.User;
 import com.chatgenius.model.enums.UserStatus;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.test.util.ReflectionTestUtils;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.extension.ExtendWith;
-import com.chatgenius.repository.TokenBlacklistRepository;
+import com.chatgenius.service.TokenBlacklistService;
 
 import java.time.ZonedDateTime;
 import java.util.Set;
@@ -25,18 +25,18 @@ import static org.junit.jupiter.api.Assertions.*;
 @ExtendWith(MockitoExtension.class)
 class JwtUtilTest {
 
+    private static final String SECRET = "test-jwt-secret-key-for-testing-purposes-only";
+    private static final String PREVIOUS_SECRET = "previous-jwt-secret-key-for-testing-purposes";
+
     @Mock
-    private TokenBlacklistRepository tokenBlacklistRepository;
+    private TokenBlacklistService tokenBlacklistService;
 
     private JwtUtil jwtUtil;
     private User testUser;
 
     @BeforeEach
     void setUp() {
-        jwtUtil = new JwtUtil(tokenBlacklistRepository);
-        ReflectionTestUtils.setField(jwtUtil, "secret", "test-jwt-secret-key-for-testing-purposes-only");
-        ReflectionTestUtils.setField(jwtUtil, "expiration", 3600000L); // 1 hour
-        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 86400000L); // 24 hours
+        jwtUtil = new JwtUtil(tokenBlacklistService, SECRET, 3600000L, 86400000L); // 1 hour, 24 hours
 
         testUser = new User();
         testUser.setId(UUID.randomUUID());
@@ -87,15 +87,40 @@ class JwtUtilTest {
     @Test
     void validateToken_ShouldReturnFalseForExpiredToken() {
         // Create a token that expires immediately
-        ReflectionTestUtils.setField(jwtUtil, "expiration", 1L);
-        String token = jwtUtil.generateToken(testUser);
-        
-        // Force token validation after expiration
-        ReflectionTestUtils.setField(jwtUtil, "expiration", -1000L);
+        JwtUtil shortLived = new JwtUtil(tokenBlacklistService, SECRET, 1L, 86400000L);
+        String token = shortLived.generateToken(testUser);
         
         assertThrows(ExpiredJwtException.class, () -> jwtUtil.validateToken(token, testUser));
     }
 
+    @Test
+    void parseAndVerify_ShouldAcceptTokensFromPreviousKeyAfterRotation() {
+        JwtUtil beforeRotation = new JwtUtil(tokenBlacklistService, PREVIOUS_SECRET, 3600000L, 86400000L,
+                "k1", List.of());
+        String oldToken = beforeRotation.generateToken(testUser);
+
+        JwtUtil afterRotation = new JwtUtil(tokenBlacklistService, SECRET, 3600000L, 86400000L,
+                "k2", List.of("k1:" + PREVIOUS_SECRET));
+        String newToken = afterRotation.generateToken(testUser);
+
+        assertEquals("testuser", afterRotation.parseAndVerify(oldToken).getSubject());
+        assertEquals("testuser", afterRotation.parseAndVerify(newToken).getSubject());
+        assertThrows(JwtException.class, () -> beforeRotation.parseAndVerify(newToken));
+    }
+
+    @Test
+    void parseAndVerify_ShouldRejectTokenSignedWithRetiredKey() {
+        JwtUtil retired = new JwtUtil(tokenBlacklistService, PREVIOUS_SECRET, 3600000L, 86400000L,
+                "k1", List.of());
+        String token = retired.generateToken(testUser);
+
+        JwtUtil current = new JwtUtil(tokenBlacklistService, SECRET, 3600000L, 86400000L,
+                "k2", List.of());
+
+        assertThrows(JwtException.class, () -> current.parseAndVerify(token));
+        assertFalse(current.validateToken(token, testUser));
+    }
+
     @Test
     void extractClaims_ShouldContainUserInfo() {
         String token = jwtUtil.generateToken(testUser);
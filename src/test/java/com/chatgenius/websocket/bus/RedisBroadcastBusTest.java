@@ -0,0 +1,80 @@
+package com.chatgenius.websocket.bus;
+
+import com.chatgenius.websocket.event.WebSocketEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RedisBroadcastBusTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private RedisTemplate<String, String> redisTemplate;
+    private List<String> delivered;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        delivered = new ArrayList<>();
+    }
+
+    @Test
+    void publish_DeliversLocallyAndBatchesRedisPublishes() throws Exception {
+        RedisBroadcastBus bus = newBus();
+
+        bus.publish("c1", new WebSocketEvent("chat:message", Map.of("content", "one")));
+        bus.publish("c1", new WebSocketEvent("chat:message", Map.of("content", "two")));
+
+        assertEquals(2, delivered.size());
+        verifyNoInteractions(redisTemplate);
+
+        assertEquals(2, bus.flush());
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, times(1)).convertAndSend(eq("chat:broadcast"), body.capture());
+        RedisBroadcastBus.BroadcastBatch batch = objectMapper.readValue(body.getValue(), RedisBroadcastBus.BroadcastBatch.class);
+        assertEquals(2, batch.getEntries().size());
+    }
+
+    @Test
+    void onMessage_DeliversOtherNodesAndSkipsOwn() throws Exception {
+        RedisBroadcastBus bus = newBus();
+        bus.publish("c1", new WebSocketEvent("chat:message", Map.of("content", "mine")));
+        bus.flush();
+        ArgumentCaptor<String> own = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(anyString(), own.capture());
+        delivered.clear();
+
+        bus.onMessage(message(own.getValue()), null);
+        assertTrue(delivered.isEmpty());
+
+        String remote = objectMapper.writeValueAsString(new RedisBroadcastBus.BroadcastBatch("other-node",
+            List.of(new RedisBroadcastBus.BroadcastEntry("c2", "{\"type\":\"chat:message\"}"))));
+        bus.onMessage(message(remote), null);
+        assertEquals(List.of("c2:{\"type\":\"chat:message\"}"), delivered);
+    }
+
+    private RedisBroadcastBus newBus() {
+        RedisBroadcastBus bus = new RedisBroadcastBus(objectMapper, redisTemplate,
+            mock(RedisMessageListenerContainer.class), "chat:broadcast", 64, 100);
+        bus.setDelivery((channelId, frame) -> delivered.add(channelId + ":" + frame.getPayload()));
+        return bus;
+    }
+
+    private DefaultMessage message(String body) {
+        return new DefaultMessage("chat:broadcast".getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,65 @@
+package com.chatgenius.websocket.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebSocketEventCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final WebSocketEventCodec codec = new WebSocketEventCodec(objectMapper);
+
+    @Test
+    void decode_ReadsTypedPayloadWhateverTheFieldOrder() throws Exception {
+        InboundEvent typeFirst = codec.decode(
+            "{\"type\":\"chat:message\",\"data\":{\"channelId\":\"c1\",\"content\":\"hi\",\"extra\":[1,2]}}");
+        InboundEvent dataFirst = codec.decode(
+            "{\"data\":{\"channelId\":\"c1\",\"isTyping\":true},\"id\":7,\"type\":\"chat:typing\"}");
+
+        ClientEvents.ChatMessage message = typeFirst.payload(ClientEvents.ChatMessage.class);
+        assertEquals("c1", message.getChannelId());
+        assertEquals("hi", message.getContent());
+        assertNull(message.getClientMessageId());
+        assertTrue(dataFirst.payload(ClientEvents.Typing.class).isTyping());
+    }
+
+    @Test
+    void decode_LeavesUnknownTypesWithoutPayloadAndRejectsMalformedEnvelopes() throws Exception {
+        UUID userId = UUID.randomUUID();
+        InboundEvent subscribe = codec.decode(
+            "{\"type\":\"presence:subscribe\",\"data\":{\"userIds\":[\"" + userId + "\"]}}");
+        assertEquals(List.of(userId), subscribe.payload(ClientEvents.PresenceSubscribe.class).getUserIds());
+
+        InboundEvent unknown = codec.decode("{\"type\":\"chat:dance\",\"data\":{\"steps\":{\"a\":1}}}");
+        assertEquals("chat:dance", unknown.getType());
+        assertNull(unknown.getPayload());
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode("{\"type\":\"chat:message\"}"));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode("{\"data\":{}}"));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode("[]"));
+    }
+
+    @Test
+    void encode_ProducesTheSameJsonAsTheMapPayloads() throws Exception {
+        String typed = codec.encode("chat:message", new ServerEvents.ChatMessage("m1", null, "c1", "alice", "hi",
+            null, 42L, null, null)).getPayload();
+        String mapped = objectMapper.writeValueAsString(new WebSocketEvent("chat:message", Map.of(
+            "messageId", "m1",
+            "channelId", "c1",
+            "userId", "alice",
+            "content", "hi",
+            "timestamp", 42L
+        )));
+
+        assertEquals(objectMapper.readTree(mapped), objectMapper.readTree(typed));
+        String ack = codec.encode("chat:message:ack", new ServerEvents.MessageAck("m1", "c1", "persisted", "cm-1", 7L))
+            .getPayload();
+        assertTrue(ack.contains("\"clientMessageId\":\"cm-1\""));
+        assertTrue(ack.contains("\"seq\":7"));
+    }
+}
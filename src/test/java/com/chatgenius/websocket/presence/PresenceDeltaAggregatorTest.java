@@ -0,0 +1,145 @@
+package com.chatgenius.websocket.presence;
+
+import com.chatgenius.dto.response.PresenceResponse;
+import com.chatgenius.event.PresenceChangedEvent;
+import com.chatgenius.exception.ValidationException;
+import com.chatgenius.model.enums.UserStatus;
+import com.chatgenius.service.presence.PresenceService;
+import com.chatgenius.websocket.event.WebSocketEventCodec;
+import com.chatgenius.websocket.session.ChannelSessionRegistry;
+import com.chatgenius.websocket.session.WebSocketSender;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PresenceDeltaAggregatorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ChannelSessionRegistry registry;
+    private WebSocketSender sender;
+    private PresenceService presenceService;
+    private RedisTemplate<String, String> redisTemplate;
+    private UUID channelId;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        registry = new ChannelSessionRegistry();
+        sender = mock(WebSocketSender.class);
+        presenceService = mock(PresenceService.class);
+        redisTemplate = mock(RedisTemplate.class);
+        channelId = UUID.randomUUID();
+    }
+
+    @Test
+    void flush_SendsOneCoalescedDeltaToSessionsSharingAChannel() throws Exception {
+        PresenceDeltaAggregator aggregator = newAggregator("local");
+        WebSocketSession peer = openSession("peer");
+        WebSocketSession stranger = openSession("stranger");
+        registry.register(peer, UUID.randomUUID(), List.of(channelId));
+        registry.register(stranger, UUID.randomUUID(), List.of(UUID.randomUUID()));
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+
+        aggregator.onPresenceChanged(new PresenceChangedEvent(alice, "alice", UserStatus.ONLINE, Set.of(channelId)));
+        aggregator.onPresenceChanged(new PresenceChangedEvent(alice, "alice", UserStatus.AWAY, Set.of(channelId)));
+        aggregator.onPresenceChanged(new PresenceChangedEvent(bob, "bob", UserStatus.OFFLINE, Set.of(channelId)));
+        aggregator.flush();
+
+        ArgumentCaptor<TextMessage> frame = ArgumentCaptor.forClass(TextMessage.class);
+        verify(sender, times(1)).send(eq(peer), frame.capture());
+        verify(sender, never()).send(eq(stranger), any(TextMessage.class));
+        JsonNode event = objectMapper.readTree(frame.getValue().getPayload());
+        assertEquals("presence:delta", event.get("type").asText());
+        Set<String> users = new HashSet<>();
+        event.get("data").get("users").forEach(user ->
+            users.add(user.get("username").asText() + ":" + user.get("status").asText()));
+        assertEquals(Set.of("alice:AWAY", "bob:OFFLINE"), users);
+
+        aggregator.flush();
+        verifyNoMoreInteractions(sender);
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void subscribe_DeliversWatchedUsersOutsideSharedChannelsAndIsBounded() throws Exception {
+        PresenceDeltaAggregator aggregator = newAggregator("local");
+        WebSocketSession watcher = openSession("watcher");
+        registry.register(watcher, UUID.randomUUID(), List.of());
+        UUID alice = UUID.randomUUID();
+        when(presenceService.getPresence(alice)).thenReturn(new PresenceResponse(alice, "alice", UserStatus.ONLINE));
+
+        assertEquals(List.of(new PresenceResponse(alice, "alice", UserStatus.ONLINE)),
+            aggregator.subscribe("watcher", List.of(alice)));
+        assertThrows(ValidationException.class, () -> aggregator.subscribe("watcher",
+            List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID())));
+
+        aggregator.onPresenceChanged(new PresenceChangedEvent(alice, "alice", UserStatus.OFFLINE, Set.of(channelId)));
+        aggregator.flush();
+        verify(sender).send(eq(watcher), any(TextMessage.class));
+
+        aggregator.unsubscribeAll("watcher");
+        aggregator.onPresenceChanged(new PresenceChangedEvent(alice, "alice", UserStatus.ONLINE, Set.of(channelId)));
+        aggregator.flush();
+        verifyNoMoreInteractions(sender);
+    }
+
+    @Test
+    void clustered_RelaysEachWindowOnceAndDeliversOtherNodesChanges() throws Exception {
+        PresenceDeltaAggregator aggregator = newAggregator("redis");
+        WebSocketSession peer = openSession("peer");
+        registry.register(peer, UUID.randomUUID(), List.of(channelId));
+
+        aggregator.onPresenceChanged(new PresenceChangedEvent(UUID.randomUUID(), "alice", UserStatus.ONLINE, Set.of(channelId)));
+        aggregator.onPresenceChanged(new PresenceChangedEvent(UUID.randomUUID(), "bob", UserStatus.ONLINE, Set.of(channelId)));
+        aggregator.flush();
+
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, times(1)).convertAndSend(eq("chat:presence"), body.capture());
+        aggregator.onMessage(message(body.getValue()), null);
+        verify(sender, times(1)).send(eq(peer), any(TextMessage.class));
+
+        String remote = objectMapper.writeValueAsString(new PresenceDeltaAggregator.PresenceBatch("other-node",
+            List.of(new PresenceDeltaAggregator.PresenceChange(UUID.randomUUID(), "carol", UserStatus.AWAY, Set.of(channelId)))));
+        aggregator.onMessage(message(remote), null);
+        verify(sender, times(2)).send(eq(peer), any(TextMessage.class));
+        verify(redisTemplate, times(1)).convertAndSend(anyString(), anyString());
+    }
+
+    private PresenceDeltaAggregator newAggregator(String presenceStore) {
+        return new PresenceDeltaAggregator(registry, sender, presenceService, objectMapper,
+            new WebSocketEventCodec(objectMapper), redisTemplate, mock(RedisMessageListenerContainer.class),
+            Duration.ofMillis(250), 2, presenceStore, "chat:presence");
+    }
+
+    private WebSocketSession openSession(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+
+    private DefaultMessage message(String body) {
+        return new DefaultMessage("chat:presence".getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,71 @@
+package com.chatgenius.websocket.session;
+
+import com.chatgenius.event.ChannelMembershipChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChannelSessionRegistryTest {
+
+    private ChannelSessionRegistry registry;
+    private UUID userId;
+    private UUID channelId;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ChannelSessionRegistry();
+        userId = UUID.randomUUID();
+        channelId = UUID.randomUUID();
+    }
+
+    @Test
+    void register_RoutesChannelToSession() {
+        WebSocketSession session = openSession("s1");
+
+        registry.register(session, userId, List.of(channelId));
+
+        assertEquals(List.of(session), registry.getChannelSessions(channelId));
+        assertTrue(registry.getChannelSessions(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void membershipChanged_UpdatesAllSessionsOfUser() {
+        WebSocketSession first = openSession("s1");
+        WebSocketSession second = openSession("s2");
+        registry.register(first, userId, List.of());
+        registry.register(second, userId, List.of());
+
+        registry.onMembershipChanged(ChannelMembershipChangedEvent.added(channelId, userId));
+        assertEquals(2, registry.getChannelSessions(channelId).size());
+
+        registry.onMembershipChanged(ChannelMembershipChangedEvent.removed(channelId, userId));
+        assertTrue(registry.getChannelSessions(channelId).isEmpty());
+    }
+
+    @Test
+    void unregister_RemovesSessionFromEveryIndex() {
+        WebSocketSession session = openSession("s1");
+        registry.register(session, userId, List.of(channelId));
+
+        registry.unregister("s1");
+        registry.onMembershipChanged(ChannelMembershipChangedEvent.added(UUID.randomUUID(), userId));
+
+        assertTrue(registry.getChannelSessions(channelId).isEmpty());
+        assertTrue(registry.getSessions().isEmpty());
+        assertFalse(registry.isSubscribed("s1", channelId));
+    }
+
+    private WebSocketSession openSession(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+}
@@ -0,0 +1,118 @@
+package com.chatgenius.websocket.session;
+
+import com.chatgenius.dto.response.WebSocketReaperStatsResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IdleSessionReaperTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private WebSocketSender sender;
+    private IdleSessionReaper reaper;
+    private List<String> released;
+
+    @BeforeEach
+    void setUp() {
+        sender = mock(WebSocketSender.class);
+        reaper = new IdleSessionReaper(sender, Duration.ofSeconds(1), Duration.ofSeconds(25),
+            Duration.ofSeconds(10), Duration.ofSeconds(60), clock::get);
+        released = new ArrayList<>();
+        reaper.setReapListener(released::addAll);
+    }
+
+    @Test
+    void advance_PingsSilentSessionAndReapsItWithoutPong() throws Exception {
+        WebSocketSession session = openSession("s1");
+        reaper.register(session);
+
+        advanceTo(24_000);
+        verify(sender, never()).ping(session);
+
+        advanceTo(25_000);
+        verify(sender).ping(session);
+
+        advanceTo(35_000);
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertEquals(List.of("s1"), released);
+        WebSocketReaperStatsResponse stats = reaper.getStats();
+        assertEquals(0, stats.getLiveSessions());
+        assertEquals(1, stats.getReapedSessions());
+    }
+
+    @Test
+    void advance_KeepsSessionsThatAnswerOrTalk() throws Exception {
+        WebSocketSession quiet = openSession("quiet");
+        WebSocketSession chatty = openSession("chatty");
+        reaper.register(quiet);
+        reaper.register(chatty);
+
+        clock.addAndGet(20_000);
+        reaper.messageReceived("chatty");
+        advanceTo(25_000);
+        verify(sender).ping(quiet);
+        verify(sender, never()).ping(chatty);
+
+        clock.addAndGet(2_000);
+        reaper.pongReceived("quiet");
+        advanceTo(40_000);
+
+        verify(quiet, never()).close(any());
+        verify(chatty, never()).close(any());
+        assertEquals(2, reaper.getStats().getLiveSessions());
+        assertEquals(0, reaper.getStats().getReapedSessions());
+    }
+
+    @Test
+    void advance_CountsIdleSessionsUntilTheyTalkAgain() {
+        WebSocketSession session = openSession("s1");
+        reaper.register(session);
+
+        for (int i = 0; i < 4; i++) {
+            clock.addAndGet(25_000);
+            reaper.pongReceived("s1");
+            reaper.advance();
+        }
+        assertEquals(1, reaper.getStats().getIdleSessions());
+
+        reaper.messageReceived("s1");
+        assertEquals(0, reaper.getStats().getIdleSessions());
+    }
+
+    @Test
+    void unregister_LeavesNothingToReap() throws Exception {
+        WebSocketSession session = openSession("s1");
+        reaper.register(session);
+        reaper.unregister("s1");
+
+        advanceTo(60_000);
+
+        verify(sender, never()).ping(session);
+        assertTrue(released.isEmpty());
+    }
+
+    // Runs every tick up to offset millis after the start, like the scheduler would
+    private void advanceTo(long offset) {
+        long target = 1_000_000 + offset;
+        while (clock.get() < target) {
+            clock.set(Math.min(clock.get() + 1000, target));
+            reaper.advance();
+        }
+    }
+
+    private WebSocketSession openSession(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+}
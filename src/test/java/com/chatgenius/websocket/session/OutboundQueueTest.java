@@ -0,0 +1,75 @@
+package com.chatgenius.websocket.session;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OutboundQueueTest {
+
+    private WebSocketSession session;
+    private List<Runnable> pendingTasks;
+
+    @BeforeEach
+    void setUp() {
+        session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("s1");
+        when(session.isOpen()).thenReturn(true);
+        when(session.getAttributes()).thenReturn(Map.of("username", "alice"));
+        pendingTasks = new ArrayList<>();
+    }
+
+    @Test
+    void offer_DrainsOnSenderExecutorInOrder() throws Exception {
+        OutboundQueue queue = new OutboundQueue(session, pendingTasks::add, 8, OverflowPolicy.DROP_OLDEST);
+
+        queue.offer(new TextMessage("one"));
+        queue.offer(new TextMessage("two"));
+
+        // Nothing is written on the calling thread, and only one drain task is scheduled
+        verify(session, never()).sendMessage(any());
+        assertEquals(1, pendingTasks.size());
+
+        pendingTasks.remove(0).run();
+
+        var inOrder = inOrder(session);
+        inOrder.verify(session).sendMessage(new TextMessage("one"));
+        inOrder.verify(session).sendMessage(new TextMessage("two"));
+        assertEquals(2, queue.stats().getSentMessages());
+        assertEquals(0, queue.stats().getQueuedMessages());
+    }
+
+    @Test
+    void offer_DropOldest_DiscardsHeadWhenFull() throws Exception {
+        OutboundQueue queue = new OutboundQueue(session, pendingTasks::add, 2, OverflowPolicy.DROP_OLDEST);
+
+        queue.offer(new TextMessage("one"));
+        queue.offer(new TextMessage("two"));
+        queue.offer(new TextMessage("three"));
+        pendingTasks.remove(0).run();
+
+        verify(session, never()).sendMessage(new TextMessage("one"));
+        verify(session).sendMessage(new TextMessage("three"));
+        assertEquals(1, queue.stats().getDroppedMessages());
+    }
+
+    @Test
+    void offer_Disconnect_ClosesSlowConsumer() throws Exception {
+        OutboundQueue queue = new OutboundQueue(session, pendingTasks::add, 1, OverflowPolicy.DISCONNECT);
+
+        assertTrue(queue.offer(new TextMessage("one")));
+        assertFalse(queue.offer(new TextMessage("two")));
+
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertFalse(queue.offer(new TextMessage("three")));
+    }
+}
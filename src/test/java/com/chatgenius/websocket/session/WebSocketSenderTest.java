@@ -0,0 +1,38 @@
+package com.chatgenius.websocket.session;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.websocket.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.adapter.standard.StandardWebSocketSession;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class WebSocketSenderTest {
+
+    private final WebSocketSender sender = new WebSocketSender(new ObjectMapper(), 8, OverflowPolicy.DROP_OLDEST, 1, 2500L);
+
+    @AfterEach
+    void tearDown() {
+        sender.shutdown();
+    }
+
+    @Test
+    void register_BoundsBlockingWritesOfTheContainerSession() {
+        Map<String, Object> userProperties = new HashMap<>();
+        Session nativeSession = mock(Session.class);
+        when(nativeSession.getUserProperties()).thenReturn(userProperties);
+        StandardWebSocketSession session = mock(StandardWebSocketSession.class);
+        when(session.getId()).thenReturn("s1");
+        when(session.getNativeSession(Session.class)).thenReturn(nativeSession);
+
+        sender.register(session);
+
+        // Tomcat only honours a Long here
+        assertEquals(2500L, userProperties.get(WebSocketSender.BLOCKING_SEND_TIMEOUT));
+    }
+}
@@ -0,0 +1,151 @@
+package com.chatgenius.websocket.typing;
+
+import com.chatgenius.websocket.event.WebSocketEventCodec;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TypingIndicatorAggregatorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private RedisTemplate<String, String> redisTemplate;
+    private List<JsonNode> frames;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        frames = new ArrayList<>();
+    }
+
+    @Test
+    void flush_SendsCompactedSetOnlyWhenItChanges() {
+        TypingIndicatorAggregator aggregator = newAggregator("local");
+
+        aggregator.typing("s1", "c1", "bob", true, 0);
+        aggregator.typing("s2", "c1", "alice", true, 0);
+        aggregator.flush(100);
+        assertEquals(1, frames.size());
+        assertEquals("chat:typing:users", frames.get(0).get("type").asText());
+        assertEquals("[\"alice\",\"bob\"]", frames.get(0).get("data").get("users").toString());
+
+        // Keystroke refreshes of an unchanged set produce nothing
+        aggregator.typing("s1", "c1", "bob", true, 1500);
+        aggregator.flush(1600);
+        assertEquals(1, frames.size());
+
+        aggregator.typing("s1", "c1", "bob", false, 1700);
+        aggregator.flush(1800);
+        assertEquals("[\"alice\"]", frames.get(1).get("data").get("users").toString());
+
+        // alice's entry expires after ttl; the empty set is sent once and the channel is dropped
+        aggregator.flush(6000);
+        aggregator.flush(6500);
+        assertEquals(3, frames.size());
+        assertEquals("[]", frames.get(2).get("data").get("users").toString());
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void typing_RateLimitsEachSessionButAlwaysAcceptsTheStop() {
+        TypingIndicatorAggregator aggregator = newAggregator("local");
+
+        assertTrue(aggregator.typing("s1", "c1", "bob", true, 0));
+        assertFalse(aggregator.typing("s1", "c1", "bob", true, 200));
+        assertTrue(aggregator.typing("s1", "c1", "bob", false, 300));
+        assertFalse(aggregator.typing("s1", "c1", "bob", false, 400));
+        assertFalse(aggregator.typing("s1", "c1", "bob", true, 500));
+        assertTrue(aggregator.typing("s1", "c1", "bob", true, 1000));
+        assertTrue(aggregator.typing("s2", "c1", "alice", true, 1000));
+    }
+
+    @Test
+    void typing_RateLimitsEachChannelOnItsOwn() {
+        TypingIndicatorAggregator aggregator = newAggregator("local");
+
+        assertTrue(aggregator.typing("s1", "c1", "bob", true, 0));
+        assertTrue(aggregator.typing("s1", "c2", "bob", true, 200));
+        assertFalse(aggregator.typing("s1", "c2", "bob", true, 400));
+    }
+
+    @Test
+    void stopFromOneSession_KeepsTheUserTypingWhileAnotherSessionStillIs() {
+        TypingIndicatorAggregator aggregator = newAggregator("local");
+        aggregator.typing("s1", "c1", "bob", true, 0);
+        aggregator.typing("s2", "c1", "bob", true, 0);
+        aggregator.flush(100);
+
+        aggregator.typing("s1", "c1", "bob", false, 200);
+        aggregator.sessionClosed("s1", 300);
+        aggregator.flush(400);
+        assertEquals(1, frames.size());
+
+        aggregator.sessionClosed("s2", 500);
+        aggregator.flush(600);
+        assertEquals("[]", frames.get(1).get("data").get("users").toString());
+    }
+
+    @Test
+    void clustered_RelaysAcceptedEventsAndAppliesOtherNodes() throws Exception {
+        TypingIndicatorAggregator aggregator = newAggregator("redis");
+        aggregator.typing("s1", "c1", "bob", true, System.currentTimeMillis());
+        aggregator.flush();
+
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq("chat:typing"), body.capture());
+        aggregator.onMessage(message(body.getValue()), null);
+
+        String remote = objectMapper.writeValueAsString(new TypingIndicatorAggregator.TypingBatch("other-node",
+            List.of(new TypingIndicatorAggregator.TypingSignal("c1", "carol", true))));
+        aggregator.onMessage(message(remote), null);
+        aggregator.flush();
+
+        assertEquals(2, frames.size());
+        assertEquals("[\"bob\",\"carol\"]", frames.get(1).get("data").get("users").toString());
+    }
+
+    @Test
+    void sessionClosed_StopsTypingInEveryChannel() {
+        TypingIndicatorAggregator aggregator = newAggregator("local");
+        aggregator.typing("s1", "c1", "bob", true, 0);
+        aggregator.flush(100);
+
+        aggregator.sessionClosed("s1");
+        aggregator.flush(200);
+
+        assertEquals("[]", frames.get(1).get("data").get("users").toString());
+    }
+
+    private TypingIndicatorAggregator newAggregator(String bus) {
+        TypingIndicatorAggregator aggregator = new TypingIndicatorAggregator(objectMapper,
+            new WebSocketEventCodec(objectMapper), redisTemplate,
+            mock(RedisMessageListenerContainer.class), Duration.ofSeconds(6), Duration.ofSeconds(1),
+            Duration.ofMillis(500), bus, "chat:typing");
+        aggregator.setDelivery((channelId, frame) -> {
+            try {
+                frames.add(objectMapper.readTree(frame.getPayload()));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return aggregator;
+    }
+
+    private DefaultMessage message(String body) {
+        return new DefaultMessage("chat:typing".getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
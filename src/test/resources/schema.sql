@@ -23,7 +23,8 @@ CREATE TABLE IF NOT EXISTS channels (
     id UUID PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     type VARCHAR(20) NOT NULL,
-    created_at TIMESTAMP NOT NULL
+    created_at TIMESTAMP NOT NULL,
+    last_seq BIGINT NOT NULL DEFAULT 0
 );
 
 -- Channel invitations table
@@ -58,6 +59,8 @@ CREATE TABLE IF NOT EXISTS messages (
     thread_id UUID,
     created_at TIMESTAMP NOT NULL,
     updated_at TIMESTAMP,
+    client_message_id VARCHAR(64),
+    seq BIGINT,
     FOREIGN KEY (channel_id) REFERENCES channels(id),
     FOREIGN KEY (user_id) REFERENCES users(id),
     FOREIGN KEY (thread_id) REFERENCES messages(id)